@@ -34,12 +34,20 @@ import java.util.concurrent.TimeUnit;
 
 import com.untitledgame.ui.UiFont;
 import com.untitledgame.utils.FileUtils;
+import com.untitledgame.debug.RenderStats;
+import com.untitledgame.render.EffectEventQueue;
+import com.untitledgame.render.EffectKind;
+import com.untitledgame.render.QualityGovernor;
+import com.untitledgame.render.QualityTier;
+import com.untitledgame.render.RenderSnapshot;
+import com.untitledgame.utils.TripleBuffer;
 
 import com.untitledgame.logic.items.DroppedItem;
 import com.untitledgame.logic.items.Inventory;
 import com.untitledgame.logic.items.Item;
 import com.untitledgame.logic.items.ItemRegistry;
 import com.untitledgame.logic.items.ItemStack;
+import com.untitledgame.logic.npc.Corpse;
 import com.untitledgame.logic.npc.Npc;
 import com.untitledgame.logic.npc.NpcManager;
 import com.untitledgame.assets.DirectionMode;
@@ -67,9 +75,31 @@ public class Engine implements Screen {
     private final int VIEW_HEIGHT = 35; //screenHeight / 24;
     public static final int HUD_HEIGHT = 3;
     public static final String SAVE_FILE = "save.txt";
+    private static final String RENDER_STATS_FILE_PREFIX = "render-stats-";
+    private static final int QUALITY_TARGET_FPS = 60;
+    // slack around the last drawn window for NPC movement and camera travel since that frame
+    private static final int NPC_DRAW_MARGIN_TILES = 4;
+    // bursts in flight between a simulation step and the next frame; a few hundred is a brawl
+    private static final int EFFECT_QUEUE_CAPACITY = 1024;
+    public static final String REPLAY_CHECKSUM_FILE = "replay_checksums.txt";
+    private static final int CHECKSUM_LOG_TICKS = 10 * 60 * 1000 / TimerWheel.TICK_MS;
 
     private final Renderer renderer = new Renderer();
+    // the simulation's latest state, copied out after every step for the render thread
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+    private long snapshotSequence;
+    // hit, death and pickup bursts, queued by the simulation and spawned by the renderer
+    private final EffectEventQueue effectEvents = new EffectEventQueue(EFFECT_QUEUE_CAPACITY);
+    private int appliedHudMessageVersion = -1;
+    // null when the simulation runs inline on the render thread
+    private SimulationLoop simulation;
     private TileType[][] world;
+    // edits to the level go through here so the renderer's tile caches hear about them
+    private TileGrid tileGrid;
+    private final RenderStats renderStats = new RenderStats();
+    private boolean renderStatsVisible;
+    // starts below the top tier and climbs once frames show headroom
+    private final QualityGovernor qualityGovernor = new QualityGovernor(QUALITY_TARGET_FPS, QualityTier.HIGH);
     private long worldSeed;
     private int currentLevel;
     private Avatar avatar;
@@ -78,6 +108,11 @@ public class Engine implements Screen {
     private NpcManager npcManager;
     private long npcSeed;
     private CombatService combatService;
+    private TrackedRandom lootRng;
+    private long simulationTick;
+    private final StateChecksum stateChecksum = new StateChecksum();
+    // the newest ten minutes of ticks, so a long session does not grow without bound
+    private final StateChecksumLog checksumLog = new StateChecksumLog(CHECKSUM_LOG_TICKS);
     private long sessionStartMs;
     private long accumulatedPlayTimeMs;
     private long finalPlayTimeMs;
@@ -87,9 +122,15 @@ public class Engine implements Screen {
 
     // Inventory system stuffs
     private Inventory inventory;
+    // the copy handed to snapshots, remade only when the inventory or its version changes
+    private Inventory inventoryView;
+    private Inventory inventoryViewSource;
+    private long inventoryViewVersion;
     private List<DroppedItem> droppedItems;
     private boolean inventoryVisible;
     private String hudMessage;
+    // bumped on every message change; the HUD on the render thread picks it up from the next snapshot
+    private int hudMessageVersion;
     private boolean tabDown = false;
     private static final int DEFAULT_SLOT_COUNT = 16;
 
@@ -109,6 +150,8 @@ public class Engine implements Screen {
     private static final long LIGHT_FADE_DURATION_MS = 3_000L;
     private static final long END_FADE_DURATION_MS = 3_000L;
     private long lightSurgeStartMs = -1L;
+    // owned by the simulation; the renderer picks it up from each snapshot
+    private double lightRadius = BASE_LIGHT_RADIUS;
 
     private static final long FOOTSTEP_INTERVAL_MS = 400; // 0.5 seconds
     private long lastFootstepTime = 0;
@@ -138,7 +181,12 @@ public class Engine implements Screen {
     private static final String HB_50   = "ui/healthbar_50.png";
     private static final String HB_25   = "ui/healthbar_25.png";
     private static final String HB_ZERO = "ui/healthbar_empty.png";
-    private static final int TICK_MS = 40; // create ticks to create consistent movements
+    private static final int TICK_MS = TimerWheel.TICK_MS; // create ticks to create consistent movements
+    // fixed simulation step; movement integrates every step, game logic every TICK_MS
+    private static final int SIMULATION_STEP_MS = TICK_MS / 4;
+    private static final double AVATAR_DRAW_SCALE = 4.0;
+    // fraction of the gap an NPC sprite closes towards its position per 60 Hz frame
+    private static final double NPC_SMOOTH_PER_FRAME = 0.10;
     private static final String[] STEP_SOUNDS = new String[]{
             "audio/step1.wav",
             "audio/step2.wav",
@@ -171,6 +219,10 @@ public class Engine implements Screen {
             "audio/mageattack4.wav",
             "audio/mageattack5.wav"
     };
+    private static final String[] TAKE_DAMAGE_MELEE = new String[]{
+            "audio/takedamage1.mp3",
+            "audio/takedamage2.mp3"
+    };
     private static final String ENEMY_DODGE_SOUND = "audio/EnemyDodge.wav";
     private static final String DRINK_SOUND = "audio/DrinkSound.wav";
 
@@ -216,6 +268,7 @@ public class Engine implements Screen {
     private static final double MELEE_HALF_WIDTH = 1;
     private static final double MELEE_REACH = 1;
     private static final double COLLISION_EPSILON = 1e-4;
+    private static final int ENTITY_SWEEP_ITERATIONS = 3; // contacts resolved per step before giving up the remainder
     private static final double VELOCITY_EPSILON = 1e-6;  // Threshold for detecting avatar movement
 
 
@@ -233,7 +286,11 @@ public class Engine implements Screen {
 
     private char lastFacing = 's';
     private boolean attackDown = false;
-    private final Set<Entity> damagedEntitiesThisAttack = new HashSet<>();
+    // swing generations for per-swing hit dedup, bumped each time an attack or kick starts
+    private int meleeGeneration = 0;
+    private int kickGeneration = 0;
+    private final SpatialIndex.HitVisitor<Npc> meleeHitVisitor = this::onMeleeHit;
+    private final SpatialIndex.HitVisitor<Npc> kickHitVisitor = this::onKickHit;
     private final ArrayDeque<Character> typedKeys = new ArrayDeque<>();
     private final InputState inputState = new InputState();
 
@@ -247,7 +304,6 @@ public class Engine implements Screen {
     // Kick system
     private boolean kickDown = false;
     private boolean prevKickDown = false;
-    private final Set<Entity> kickedEntitiesThisKick = new HashSet<>();
 
     // Mouse tracking
     private float mouseWorldX = 0f;
@@ -267,6 +323,7 @@ public class Engine implements Screen {
 
 
     private static final long NPC_SEED_SALT = 0x9e3779b97f4a7c15L;
+    private static final long LOOT_SEED_SALT = 0xc2b2ae3d27d4eb4fL;
 
     private enum EnginePhase { MENU, PLAYING }
 
@@ -311,15 +368,17 @@ public class Engine implements Screen {
     }
 
     private void reset() {
-        world = null;
+        setWorld(null);
         worldSeed = 0L;
         avatar = null;
         currentLevel = 1;
         history = new StringBuilder();
         npcManager = null;
         npcSeed = 0L;
+        lootRng = new TrackedRandom(0L);
+        simulationTick = 0L;
+        checksumLog.clear();
         combatService = new CombatService();
-        combatService.setDamageListener(this::recordDamageStats);
         combatService.setParryChecker(this::isEntityParrying);
         combatService.setDodgeChecker(this::shouldEntityDodge);
         combatService.setKickCounterChecker(this::shouldEntityKickCounter);
@@ -366,8 +425,6 @@ public class Engine implements Screen {
         tKeyDown = false;
         prevTKeyDown = false;
         resetLighting();
-        damagedEntitiesThisAttack.clear();
-        kickedEntitiesThisKick.clear();
 
     }
 
@@ -387,12 +444,12 @@ public class Engine implements Screen {
 
     private void resetLighting() {
         lightSurgeStartMs = -1L;
-        renderer.setLightRadius(BASE_LIGHT_RADIUS);
+        lightRadius = BASE_LIGHT_RADIUS;
     }
 
     private void triggerLightSurge() {
         lightSurgeStartMs = System.currentTimeMillis();
-        renderer.setLightRadius(SURGE_LIGHT_RADIUS);
+        lightRadius = SURGE_LIGHT_RADIUS;
     }
 
     private void updateLightingRadius() {
@@ -404,21 +461,21 @@ public class Engine implements Screen {
         long elapsed = now - lightSurgeStartMs;
 
         if (elapsed <= LIGHT_SURGE_DURATION_MS) {
-            renderer.setLightRadius(SURGE_LIGHT_RADIUS);
+            lightRadius = SURGE_LIGHT_RADIUS;
             return;
         }
 
         if (elapsed <= LIGHT_SURGE_DURATION_MS + LIGHT_FADE_DURATION_MS) {
             double fadeProgress = (double) (elapsed - LIGHT_SURGE_DURATION_MS) / LIGHT_FADE_DURATION_MS;
             double radius = SURGE_LIGHT_RADIUS - (SURGE_LIGHT_RADIUS - BASE_LIGHT_RADIUS) * fadeProgress;
-            renderer.setLightRadius(radius);
+            lightRadius = radius;
             return;
         }
 
         lightSurgeStartMs = -1L;
 
         // Snap rendering radius back to base
-        renderer.setLightRadius(BASE_LIGHT_RADIUS);
+        lightRadius = BASE_LIGHT_RADIUS;
 
         //  Correct the decaying state
         decayingLightRadius = BASE_LIGHT_RADIUS;
@@ -429,8 +486,9 @@ public class Engine implements Screen {
         if (assetsQueued) {
             return;
         }
+        // loaded as pixmaps and packed into shared pages once everything is in
         for (String texture : atlasTexturePaths()) {
-            assets.load(texture, Texture.class);
+            assets.load(texture, Pixmap.class);
         }
         for (String uiTexture : UI_TEXTURES) {
             assets.load(uiTexture, Texture.class);
@@ -447,6 +505,9 @@ public class Engine implements Screen {
         for (String sound : MAGE_ATTACK_SOUNDS) {
             assets.load(sound, Sound.class);
         }
+        for (String sound : TAKE_DAMAGE_MELEE) {
+            assets.load(sound, Sound.class);
+        }
         assets.load(ENEMY_DODGE_SOUND, Sound.class);
         assets.load(DRINK_SOUND, Sound.class);
         for (String track : MUSIC_TRACKS) {
@@ -514,52 +575,54 @@ public class Engine implements Screen {
 
 
     //primary method for overlaying world
-    private void renderWithHud() {
+    private void renderWithHud(RenderSnapshot snapshot) {
         renderer.clearScreen();
-        if (lightSurgeStartMs >= 0) {
-            updateLightingRadius();
+        TileType[][] tiles = snapshot.tiles();
+        if (tiles == null) {
+            return;
         }
-        renderer.setAvatarPosition(avatar.posX(), avatar.posY());
+        renderer.applySnapshot(snapshot);
         renderer.updateCamera();
-        Renderer.AvatarDraw avatarDraw = buildAvatarDraw();
-        renderer.updateLights(droppedItems, npcManager, avatarDraw);
-        Renderer.RenderContext context = renderer.buildContext(world);
+        renderer.updateLights(snapshot);
+        Renderer.RenderContext context = renderer.buildContext(tiles);
         renderer.beginBatch();
-        renderer.drawWorld(world, npcManager == null ? null : npcManager.corpses(), droppedItems,
-                npcManager, context, avatarDraw);
+        renderer.drawWorld(snapshot, context);
         renderer.endBatch();
         if (lightToggle) {
             renderer.beginBatch();
-            renderer.applyFullLightingPass(world, context);
+            renderer.applyFullLightingPass(tiles, context);
             renderer.endBatch();
         }
-        renderHudLayer();
+        renderer.beginBatch();
+        renderer.drawEffects(effectEvents,
+                snapshot.screen() == RenderSnapshot.Screen.PLAYING ? Gdx.graphics.getDeltaTime() : 0f);
+        renderer.endBatch();
+        renderHudLayer(snapshot);
+        renderer.drawMap();
+        if (renderStatsVisible) {
+            drawRenderStats();
+        }
 
-        if (inventoryVisible) {
+        if (snapshot.inventory() != null) {
             drawOverlayRect();
-            drawInventoryOverlay();
+            drawInventoryOverlay(snapshot.inventory());
         }
-        if (gameState == GameState.DEAD) {
+        if (snapshot.screen() == RenderSnapshot.Screen.DEAD) {
             drawOverlayRect();
             drawDeathOverlay();
         }
-        if (gameState == GameState.ENDED) {
+        if (snapshot.screen() == RenderSnapshot.Screen.ENDED) {
             drawOverlayRect();
-            drawEndOverlay();
+            drawEndOverlay(snapshot);
         }
     }
 
-    private void renderHudLayer() {
+    private void renderHudLayer(RenderSnapshot snapshot) {
         if (hudUi == null) {
             return;
         }
-        int currentHealth = 0;
-        int maxHealth = 1;
-        if (avatar != null && avatar.health() != null) {
-            currentHealth = avatar.health().current();
-            maxHealth = avatar.health().max();
-        }
-        hudUi.update(currentHealth, maxHealth, Gdx.graphics.getDeltaTime());
+        applyHudMessage(snapshot);
+        hudUi.update(snapshot.health(), snapshot.maxHealth(), Gdx.graphics.getDeltaTime());
         hudUi.draw();
     }
 
@@ -573,15 +636,15 @@ public class Engine implements Screen {
                 new String[]{"N - New Game", "L - Load", "Q - Quit"});
     }
 
-    private void drawEndOverlay() {
+    private void drawEndOverlay(RenderSnapshot snapshot) {
         if (screenOverlay == null) {
             return;
         }
-        screenOverlay.renderCentered("Level " + currentLevel + " Complete!",
+        screenOverlay.renderCentered("Level " + snapshot.level() + " Complete!",
                 new String[]{
-                        "Time: " + formatDuration(finalPlayTimeMs),
-                        "Enemies felled: " + enemiesFelled,
-                        "Damage taken: " + totalDamageTaken,
+                        "Time: " + formatDuration(snapshot.playTimeMs()),
+                        "Enemies felled: " + snapshot.enemiesFelled(),
+                        "Damage taken: " + snapshot.damageTaken(),
                         "N: Next Level",
                         "Q: Quit"
                 });
@@ -589,11 +652,42 @@ public class Engine implements Screen {
 
 
 
-    private void drawInventoryOverlay() {
-        if (!inventoryVisible || inventoryOverlay == null || inventory == null) {
+    private void drawRenderStats() {
+        if (hudFont == null || renderer.getBatch() == null) {
+            return;
+        }
+        String[] lines = renderStats.overlayLines();
+        float lineHeight = hudFont.getLineHeight();
+        float top = Gdx.graphics.getHeight() - 12f;
+        renderer.beginUi();
+        for (int i = 0; i < lines.length; i++) {
+            drawTextLeft(hudFont, lines[i], 12f, top - i * lineHeight);
+        }
+        renderer.endUi();
+    }
+
+    private void toggleRenderStats() {
+        renderStatsVisible = !renderStatsVisible;
+        renderer.setProfiling(renderStatsVisible || renderStats.isRecording());
+    }
+
+    private void toggleRenderStatsRecording() {
+        if (renderStats.isRecording()) {
+            String filename = RENDER_STATS_FILE_PREFIX + System.currentTimeMillis() + ".csv";
+            renderStats.stopRecording(filename);
+            runOnSimulation(() -> setHudMessage("Render stats written to " + filename, 3000));
+        } else {
+            renderStats.startRecording(System.nanoTime());
+            runOnSimulation(() -> setHudMessage("Recording render stats", 2000));
+        }
+        renderer.setProfiling(renderStatsVisible || renderStats.isRecording());
+    }
+
+    private void drawInventoryOverlay(Inventory shown) {
+        if (inventoryOverlay == null) {
             return;
         }
-        inventoryOverlay.render(inventory);
+        inventoryOverlay.render(shown);
     }
 
     private void drawOverlayRect() {
@@ -640,6 +734,7 @@ public class Engine implements Screen {
         atlas = buildTextureAtlas();
         Tileset.initialize(atlas);
         renderer.initialize(VIEW_WIDTH, VIEW_HEIGHT, atlas);
+        renderer.setQualityTier(qualityGovernor.tier());
 
         //renderer.setWorldScale(1.0f);
 
@@ -652,20 +747,17 @@ public class Engine implements Screen {
         initializeInventoryOverlay();
 
         assetsReady = true;
+        startSimulation();
     }
     private TextureAtlas buildTextureAtlas() {
-        TextureAtlas built = new TextureAtlas();
         List<SpriteSheetConfig> spriteSheets = createSpriteSheetConfigs();
-        SpriteSheetLoader.loadSpriteSheets(assets, built, spriteSheets);
+        List<String> tilePaths = new ArrayList<>();
         for (String path : atlasTexturePaths()) {
-            if (isSpriteSheetPath(path, spriteSheets)) {
-                continue;
+            if (!isSpriteSheetPath(path, spriteSheets)) {
+                tilePaths.add(path);
             }
-            Texture texture = assets.get(path, Texture.class);
-            String key = stripExtension(path);
-            built.addRegion(key, texture, 0, 0, texture.getWidth(), texture.getHeight());
         }
-        return built;
+        return AtlasPacker.pack(assets, tilePaths, spriteSheets);
     }
 
     private boolean isSpriteSheetPath(String path, List<SpriteSheetConfig> configs) {
@@ -692,14 +784,6 @@ public class Engine implements Screen {
         loadingBatch.end();
     }
 
-    private String stripExtension(String path) {
-        int dot = path.lastIndexOf('.');
-        if (dot <= 0) {
-            return path;
-        }
-        return path.substring(0, dot);
-    }
-
     private void ensureHudAssetsLoaded() {
         if (titleFont != null) {
             return;
@@ -724,7 +808,7 @@ public class Engine implements Screen {
             return;
         }
         hudUi = new HudUi(hudFont, hbFullTexture, hb75Texture, hb50Texture, hb25Texture, hbZeroTexture);
-        pushHudMessageToUi(remainingHudMessageDuration());
+        appliedHudMessageVersion = -1;
     }
 
     private void initializeScreenOverlay() {
@@ -1125,6 +1209,11 @@ public class Engine implements Screen {
 
 
     // Generator func via seed - drop player
+    private void setWorld(TileType[][] tiles) {
+        world = tiles;
+        tileGrid = tiles == null ? null : new TileGrid(tiles);
+    }
+
     private void startNewWorld(long seed) {
         worldSeed = seed;
         currentLevel = 1;
@@ -1132,17 +1221,18 @@ public class Engine implements Screen {
         accumulatedPlayTimeMs = 0L;
         finalPlayTimeMs = 0L;
         World generator = new World(seed);
-        world = generator.generate();
+        setWorld(generator.generate());
         resetLighting();
         decayingLightRadius = MAX_LIGHT_RADIUS;
         lastDecayTime = System.currentTimeMillis();
-        renderer.setLightRadius(decayingLightRadius);
+        lightRadius = decayingLightRadius;
         placeAvatar();
         npcSeed = seed ^ NPC_SEED_SALT; // golden ratio hash
-        npcManager = new NpcManager(new Random(npcSeed), combatService, atlas);
+        npcManager = new NpcManager(new TrackedRandom(npcSeed), combatService, atlas);
         npcManager.setDeathHandler(this::handleNpcDeath);
         npcManager.setAttackSoundCallback(() -> music.playRandomEffect(MAGE_ATTACK_SOUNDS));
         npcManager.spawn(world, avatar.x(), avatar.y());
+        lootRng = new TrackedRandom(seed ^ LOOT_SEED_SALT);
         // give initial items and random spawn ground loot
         seedInitialInventory();
         seedDroppedItems(new Random(seed));
@@ -1193,7 +1283,7 @@ public class Engine implements Screen {
         Direction resolvedFacing = resolveFacingForAction(facing);
         avatar.startAttack(resolvedFacing);
 
-        damagedEntitiesThisAttack.clear();
+        meleeGeneration += 1;
 
         music.playRandomEffect(KNIGHT_ATTACK_SOUNDS);
     }
@@ -1216,7 +1306,7 @@ public class Engine implements Screen {
         Direction resolvedFacing = resolveFacingForAction(facing);
         avatar.startKick(resolvedFacing);
 
-        kickedEntitiesThisKick.clear();
+        kickGeneration += 1;
 
         // Use the same attack sounds but with modified volume/pitch
         float kickVolume = music.getSoundVolume() * KICK_VOLUME_MULTIPLIER;
@@ -1356,6 +1446,7 @@ public class Engine implements Screen {
         for (DroppedItem drop : droppedItems) {
             if (drop.x() == avatar.x() && drop.y() == avatar.y()) {
                 if (drop.item() == ItemRegistry.LIGHT_SHARD) {
+                    queueEffect(EffectKind.SHARD_PICKUP, avatar);
                     triggerLightSurge();
                     pickedSomething = true;
                     setHudMessage("A burst of light surrounds you", LIGHT_SURGE_MESSAGE_MS);
@@ -1363,7 +1454,7 @@ public class Engine implements Screen {
                     lastDecayTime = System.currentTimeMillis();
 
                     // Also update renderer radius immediately
-                    renderer.setLightRadius(decayingLightRadius);
+                    lightRadius = decayingLightRadius;
                     continue;
                 }
                 int leftover = inventory.add(drop.item(), drop.quantity());
@@ -1386,37 +1477,34 @@ public class Engine implements Screen {
     private void setHudMessage(String msg, long durationMs) {
         hudMessage = msg;
         hudMessageExpireMs = System.currentTimeMillis() + durationMs;
-        pushHudMessageToUi(durationMs);
+        hudMessageVersion++;
     }
 
     private void showHudMessage(String msg) {
         hudMessage = msg;
         hudMessageExpireMs = 0L;
-        pushHudMessageToUi(0L);
+        hudMessageVersion++;
     }
 
     private void clearHudMessage() {
         hudMessage = "";
         hudMessageExpireMs = 0L;
-        pushHudMessageToUi(0L);
+        hudMessageVersion++;
     }
 
-    private void pushHudMessageToUi(long durationMs) {
-        if (hudUi == null) {
+    private void applyHudMessage(RenderSnapshot snapshot) {
+        if (hudUi == null || snapshot.hudMessageVersion() == appliedHudMessageVersion) {
             return;
         }
-        if (hudMessage.isEmpty()) {
+        appliedHudMessageVersion = snapshot.hudMessageVersion();
+        if (snapshot.hudMessage().isEmpty()) {
             hudUi.clearMessage();
             return;
         }
-        hudUi.setMessage(hudMessage, durationMs);
-    }
-
-    private long remainingHudMessageDuration() {
-        if (hudMessageExpireMs == 0L) {
-            return 0L;
-        }
-        return Math.max(0L, hudMessageExpireMs - System.currentTimeMillis());
+        long durationMs = snapshot.hudMessageExpireMs() == 0L
+                ? 0L
+                : Math.max(1L, snapshot.hudMessageExpireMs() - System.currentTimeMillis());
+        hudUi.setMessage(snapshot.hudMessage(), durationMs);
     }
 
     private void updateHudMessage() {
@@ -1432,6 +1520,7 @@ public class Engine implements Screen {
         if (gameState != GameState.PLAYING) {
             return;
         }
+        queueEffect(EffectKind.DEATH, entity);
         beginDeathSequence();
     }
 
@@ -1452,12 +1541,12 @@ public class Engine implements Screen {
                 decayingLightRadius = MIN_LIGHT_RADIUS;
             }
 
-            renderer.setLightRadius(decayingLightRadius);
+            lightRadius = decayingLightRadius;
 
             // Check death condition
             if (decayingLightRadius <= 1.0) {
                 decayingLightRadius = 1.0;
-                renderer.setLightRadius(decayingLightRadius);
+                lightRadius = decayingLightRadius;
                 showHudMessage("Your light has been extinguished");
                 handleAvatarDeath(avatar);
             }
@@ -1475,6 +1564,47 @@ public class Engine implements Screen {
         return base;
     }
 
+    // read the tick's combat results once: stats and an effect per hit, then a single hit sound for the whole batch
+    private void consumeCombatOutcomes() {
+        CombatOutcomeBuffer outcomes = combatService.outcomes();
+        boolean npcHit = false;
+        for (int i = 0; i < outcomes.size(); i += 1) {
+            Entity target = combatService.entity(outcomes.target(i));
+            Entity source = combatService.entity(outcomes.source(i));
+            recordDamageStats(target, source, outcomes.attempted(i), outcomes.applied(i));
+            if (outcomes.outcome(i) == CombatOutcome.APPLIED && target instanceof Npc) {
+                npcHit = true;
+            }
+            queueCombatEffect(outcomes.outcome(i), target, source, outcomes.applied(i));
+        }
+        if (npcHit) {
+            music.playRandomEffect(TAKE_DAMAGE_MELEE);
+        }
+    }
+
+    private void queueCombatEffect(CombatOutcome outcome, Entity target, Entity source, int applied) {
+        switch (outcome) {
+            case APPLIED -> {
+                if (applied > 0) {
+                    queueEffect(EffectKind.HIT, target);
+                }
+            }
+            case PARRIED -> queueEffect(EffectKind.PARRY, target);
+            case DODGED -> queueEffect(EffectKind.DODGE, target);
+            // the target kicked back, so the attacker is the one struck
+            case KICK_COUNTER -> queueEffect(EffectKind.HIT, source);
+        }
+    }
+
+    // bursts start from the middle of the sprite as drawn, which trails an NPC's position while it moves
+    private void queueEffect(EffectKind kind, Entity at) {
+        if (at instanceof Npc npc) {
+            effectEvents.offer(kind, npc.drawX() + 0.5, npc.drawY() + 0.5);
+        } else if (at != null) {
+            effectEvents.offer(kind, at.posX(), at.posY());
+        }
+    }
+
     private void recordDamageStats(Entity target, Entity source, int attempted, int applied) {
         if (applied <= 0) {
             return;
@@ -1634,12 +1764,12 @@ public class Engine implements Screen {
     }
 
     private void handleNpcDeath(Npc npc) {
-        Random rng = new Random();
         if (npc == null) {
             return;
         }
         enemiesFelled += 1;
-        double r = rng.nextDouble();
+        queueEffect(EffectKind.DEATH, npc);
+        double r = lootRng.nextDouble();
         if (r > RNG_20_PERCENT) {
             droppedItems.add(new DroppedItem(ItemRegistry.LIGHT_SHARD, 1, npc.x(), npc.y()));
         }
@@ -1663,6 +1793,8 @@ public class Engine implements Screen {
         if (npcManager == null || world == null) {
             return;
         }
+        // animation time follows the same steps as movement, even on ticks that end early
+        npcManager.advanceClock(deltaSeconds);
         List<Npc> npcs = npcManager.npcs();
         List<Entity> others = new ArrayList<>();
         if (avatar != null) {
@@ -1676,11 +1808,14 @@ public class Engine implements Screen {
             }
             Vector2 v = facingVector(npc.facing());
             npc.setVelocity(v.x * NPC_WALK_SPEED, v.y * NPC_WALK_SPEED);
-            npc.tickStagger(deltaSeconds);
-            // AI is fully responsible for setting velocity
-            npc.updateAnimation((float) deltaSeconds);
+            // AI is fully responsible for setting velocity; animation catches up when drawn
             integrateEntityMotion(npc, deltaSeconds, others);
         }
+        // same easing as one 60 Hz frame used to give, scaled to the step length
+        double smoothing = 1.0 - Math.pow(1.0 - NPC_SMOOTH_PER_FRAME, deltaSeconds * 60.0);
+        for (Npc npc : npcs) {
+            npc.updateSmooth(smoothing);
+        }
         npcManager.rebuildIndex();
     }
 
@@ -1691,7 +1826,8 @@ public class Engine implements Screen {
             return false;
         }
         double half = hitboxHalf(entity);
-        Vector2 swept = sweepAgainstTiles(entity.posX(), entity.posY(), dx, dy, half);
+        Vector2 clipped = sweepAgainstEntities(entity, half, dx, dy, others);
+        Vector2 swept = sweepAgainstTiles(entity.posX(), entity.posY(), clipped.x, clipped.y, half);
         Vector2 resolved = resolveEntityOverlaps(swept.x, swept.y, half, entity, others);
         double clampedX = clampToWorld(resolved.x, half, WORLD_WIDTH);
         double clampedY = clampToWorld(resolved.y, half, WORLD_HEIGHT);
@@ -1701,6 +1837,77 @@ public class Engine implements Screen {
         return moved;
     }
 
+    /**
+     * Clip a step against other entities in time-of-impact order. At each contact the mover stops
+     * just short of the other hitbox and slides the rest of the step along it, so any step size
+     * produces the same result. Returns the allowed displacement.
+     */
+    private Vector2 sweepAgainstEntities(Entity self, double half, double dx, double dy,
+                                         List<? extends Entity> others) {
+        double startX = self.posX();
+        double startY = self.posY();
+        double posX = startX;
+        double posY = startY;
+        double remainingX = dx;
+        double remainingY = dy;
+        for (int i = 0; i < ENTITY_SWEEP_ITERATIONS; i += 1) {
+            if (Math.abs(remainingX) < COLLISION_EPSILON && Math.abs(remainingY) < COLLISION_EPSILON) {
+                break;
+            }
+            double minX = Math.min(posX, posX + remainingX);
+            double maxX = Math.max(posX, posX + remainingX);
+            double minY = Math.min(posY, posY + remainingY);
+            double maxY = Math.max(posY, posY + remainingY);
+            double firstImpact = SweptCollision.NO_IMPACT;
+            Entity firstHit = null;
+            for (int j = 0; j < others.size(); j += 1) {
+                Entity other = others.get(j);
+                if (other == null || other == self) {
+                    continue;
+                }
+                double radius = half + hitboxHalf(other);
+                if (other.posX() + radius < minX || other.posX() - radius > maxX
+                        || other.posY() + radius < minY || other.posY() - radius > maxY) {
+                    continue;
+                }
+                double t = SweptCollision.timeOfImpact(posX, posY, remainingX, remainingY,
+                        other.posX(), other.posY(), radius);
+                if (t < firstImpact) {
+                    firstImpact = t;
+                    firstHit = other;
+                }
+            }
+            if (firstHit == null) {
+                posX += remainingX;
+                posY += remainingY;
+                break;
+            }
+            double length = Math.hypot(remainingX, remainingY);
+            double travel = Math.max(0.0, firstImpact - COLLISION_EPSILON / length);
+            posX += remainingX * travel;
+            posY += remainingY * travel;
+            double leftover = 1.0 - travel;
+            remainingX *= leftover;
+            remainingY *= leftover;
+
+            // Drop the part of the remainder that pushes into the contact and keep the tangent
+            double normalX = posX - firstHit.posX();
+            double normalY = posY - firstHit.posY();
+            double normalLength = Math.hypot(normalX, normalY);
+            if (normalLength <= COLLISION_EPSILON) {
+                break;
+            }
+            normalX /= normalLength;
+            normalY /= normalLength;
+            double into = remainingX * normalX + remainingY * normalY;
+            if (into < 0.0) {
+                remainingX -= normalX * into;
+                remainingY -= normalY * into;
+            }
+        }
+        return new Vector2((float) (posX - startX), (float) (posY - startY));
+    }
+
     private Vector2 sweepAgainstTiles(double posX, double posY, double dx, double dy, double half) {
         double targetX = sweepAxis(posX, posY, dx, dy, half, true);
         double targetY = sweepAxis(targetX, posY, dx, dy, half, false);
@@ -1850,7 +2057,7 @@ public class Engine implements Screen {
     private void clampLightToDeathRadius() {
         if (decayingLightRadius > 1.0) {
             decayingLightRadius = 1.0;
-            renderer.setLightRadius(decayingLightRadius);
+            lightRadius = decayingLightRadius;
         }
     }
     private void beginEndSequence() {
@@ -1860,7 +2067,7 @@ public class Engine implements Screen {
         music.stop();
         music.play("audio/elevatormovement.wav");
         gameState = GameState.ENDING;
-        endFadeStartRadius = Math.max(0.0, renderer.getLightRadius());
+        endFadeStartRadius = Math.max(0.0, lightRadius);
         endFadeStartMs = System.currentTimeMillis();
         finalPlayTimeMs = currentPlayTimeMs();
     }
@@ -1871,11 +2078,11 @@ public class Engine implements Screen {
             double progress = Math.min(1.0, (double) elapsed / END_FADE_DURATION_MS);
             double radius = Math.max(0.0, endFadeStartRadius * (1.0 - progress));
             decayingLightRadius = radius;
-            renderer.setLightRadius(radius);
+            lightRadius = radius;
             if (progress >= 1.0) {
                 finalPlayTimeMs = accumulatedPlayTimeMs + (System.currentTimeMillis() - sessionStartMs);
                 decayingLightRadius = 0.0;
-                renderer.setLightRadius(decayingLightRadius);
+                lightRadius = decayingLightRadius;
                 gameState = GameState.ENDED;
             }
         } else {
@@ -1953,7 +2160,7 @@ public class Engine implements Screen {
         worldSeed = worldSeed ^ (currentLevel * 0x9e3779b97f4a7c15L);
 
         // Clear level-specific state but preserve player progress
-        world = null;
+        setWorld(null);
         avatar = null;
         npcManager = null;
         droppedItems = new ArrayList<>();
@@ -1971,19 +2178,20 @@ public class Engine implements Screen {
 
         // Generate new world
         World generator = new World(worldSeed);
-        world = generator.generate();
+        setWorld(generator.generate());
         resetLighting();
         decayingLightRadius = MAX_LIGHT_RADIUS;
         lastDecayTime = System.currentTimeMillis();
-        renderer.setLightRadius(decayingLightRadius);
+        lightRadius = decayingLightRadius;
         placeAvatar();
 
         // Spawn NPCs for new level
         npcSeed = worldSeed ^ NPC_SEED_SALT;
-        npcManager = new NpcManager(new Random(npcSeed), combatService, atlas);
+        npcManager = new NpcManager(new TrackedRandom(npcSeed), combatService, atlas);
         npcManager.setDeathHandler(this::handleNpcDeath);
         npcManager.setAttackSoundCallback(() -> music.playRandomEffect(MAGE_ATTACK_SOUNDS));
         npcManager.spawn(world, avatar.x(), avatar.y());
+        lootRng = new TrackedRandom(worldSeed ^ LOOT_SEED_SALT);
 
         // Seed new dropped items
         seedDroppedItems(new Random(worldSeed));
@@ -1992,21 +2200,48 @@ public class Engine implements Screen {
     }
 
 
+    // events arrive on the render thread; anything touching game state is handed to the simulation
     private class InputState implements InputProcessor {
         @Override
         public boolean keyDown(int keycode) {
+            // F2 flips between the CPU and GPU lighting paths for side-by-side comparison
+            if (keycode == Input.Keys.F2) {
+                String label = renderer.cycleLightingMode().label();
+                runOnSimulation(() -> setHudMessage("Lighting: " + label, 2000));
+                return true;
+            }
+            // F3 shows render stats, F4 starts or stops recording them to csv
+            if (keycode == Input.Keys.F3) {
+                toggleRenderStats();
+                return true;
+            }
+            if (keycode == Input.Keys.F4) {
+                toggleRenderStatsRecording();
+                return true;
+            }
+            // M cycles the explored map between off, a corner minimap and the full map
+            if (keycode == Input.Keys.M) {
+                String label = renderer.cycleMapView().label();
+                runOnSimulation(() -> setHudMessage("Map: " + label, 1500));
+                return true;
+            }
+            runOnSimulation(() -> onKeyDown(keycode));
+            return true;
+        }
+
+        private void onKeyDown(int keycode) {
             // ESC toggles pause
             if (keycode == Input.Keys.ESCAPE) {
                 togglePause();
-                return true;
+                return;
             }
 
             // Q only works while paused
             if (keycode == Input.Keys.Q && gameState == GameState.PAUSED) {
                 exitGame();
-                return true;
+                return;
             }
-            if (gameState != GameState.PLAYING) return false;
+            if (gameState != GameState.PLAYING) return;
 
             if (keycode == Input.Keys.W) {
                 wDown = true;
@@ -2025,7 +2260,6 @@ public class Engine implements Screen {
             } else if (keycode == Input.Keys.CONTROL_LEFT) {
                 tKeyDown = true;
             }
-            return false;
         }
         private void togglePause() {
             if (gameState == GameState.PLAYING) {
@@ -2048,6 +2282,11 @@ public class Engine implements Screen {
 
         @Override
         public boolean keyUp(int keycode) {
+            runOnSimulation(() -> onKeyUp(keycode));
+            return false;
+        }
+
+        private void onKeyUp(int keycode) {
             if (keycode == Input.Keys.W) {
                 wDown = false;
             } else if (keycode == Input.Keys.A) {
@@ -2065,12 +2304,11 @@ public class Engine implements Screen {
             } else if (keycode == Input.Keys.CONTROL_LEFT) {
                 tKeyDown = false;
             }
-            return false;
         }
 
         @Override
         public boolean keyTyped(char character) {
-            typedKeys.add(character);
+            runOnSimulation(() -> typedKeys.add(character));
             return false;
         }
 
@@ -2078,10 +2316,10 @@ public class Engine implements Screen {
         public boolean touchDown(int screenX, int screenY, int pointer, int button) {
             updateMouseWorldPosition(screenX, screenY);
             if (button == Input.Buttons.LEFT) {
-                attackDown = true;
+                runOnSimulation(() -> attackDown = true);
                 return true;
             } else if (button == Input.Buttons.RIGHT) {
-                parryDown = true;
+                runOnSimulation(() -> parryDown = true);
                 return true;
                 }
             return false;
@@ -2090,10 +2328,10 @@ public class Engine implements Screen {
         @Override
         public boolean touchUp(int screenX, int screenY, int pointer, int button) {
             if (button == Input.Buttons.LEFT) {
-                attackDown = false;
+                runOnSimulation(() -> attackDown = false);
                 return true;
             } else if (button == Input.Buttons.RIGHT) {
-                parryDown = false;
+                runOnSimulation(() -> parryDown = false);
                 return true;
             }
             return false;
@@ -2148,19 +2386,17 @@ public class Engine implements Screen {
         if (avatar == null) {
             return;
         }
-        // Tick down parry window in avatar
-        avatar.tickParry(deltaSeconds);
+        // Parry window closes on the combat timer wheel; end the parry once its animation is done
+        avatar.updateParryAnimation();
 
         // Check if attack animation finished
         if (avatar.isAttacking() && avatar.isAnimationFinished()) {
             avatar.endAttack();
-            damagedEntitiesThisAttack.clear();
         }
 
         // Check if kick animation finished
         if (avatar.isKicking() && avatar.isAnimationFinished()) {
             avatar.endKick();
-            kickedEntitiesThisKick.clear();
         }
 
         // Calculate facing direction from velocity for smooth 8-directional animation
@@ -2220,14 +2456,12 @@ public class Engine implements Screen {
         AttackBounds bounds = buildAttackBounds(avatar.posX(), avatar.posY(), avatar.getAttackFacing(),
                 Avatar.HITBOX_HALF, MELEE_REACH, MELEE_HALF_WIDTH);
 
-        for (Npc npc : npcManager.npcs()) {
-            if (damagedEntitiesThisAttack.contains(npc)) {
-                continue;
-            }
-            if (overlaps(bounds, npc.posX(), npc.posY(), Npc.HITBOX_HALF)) {
-                combatService.queueDamage(npc, avatar, AVATAR_ATTACK_DAMAGE);
-                damagedEntitiesThisAttack.add(npc);
-            }
+        npcManager.queryAabb(bounds.centerX, bounds.centerY, bounds.halfX, bounds.halfY, meleeHitVisitor);
+    }
+
+    private void onMeleeHit(Npc npc) {
+        if (npc.markHit(HitChannel.MELEE, meleeGeneration)) {
+            combatService.queueDamage(npc, avatar, AVATAR_ATTACK_DAMAGE);
         }
     }
 
@@ -2240,26 +2474,17 @@ public class Engine implements Screen {
         AttackBounds bounds = buildAttackBounds(avatar.posX(), avatar.posY(), avatar.getAttackFacing(),
                 Avatar.HITBOX_HALF, MELEE_REACH, MELEE_HALF_WIDTH);
 
-        // Kick does limited damage (half of normal attack)
-        int kickDamage = AVATAR_ATTACK_DAMAGE / 2;
-        if (kickDamage < 1) {
-            kickDamage = 1;
-        }
-
-        for (Npc npc : npcManager.npcs()) {
-            if (kickedEntitiesThisKick.contains(npc)) {
-                continue;
-            }
-            if (overlaps(bounds, npc.posX(), npc.posY(), Npc.HITBOX_HALF)) {
-                // Queue damage
-                combatService.queueDamage(npc, avatar, kickDamage);
-
-                // Apply knockback
-                applyKickKnockback(npc);
+        npcManager.queryAabb(bounds.centerX, bounds.centerY, bounds.halfX, bounds.halfY, kickHitVisitor);
+    }
 
-                kickedEntitiesThisKick.add(npc);
-            }
+    private void onKickHit(Npc npc) {
+        if (!npc.markHit(HitChannel.KICK, kickGeneration)) {
+            return;
         }
+        // Kick does limited damage (half of normal attack)
+        int kickDamage = Math.max(1, AVATAR_ATTACK_DAMAGE / 2);
+        combatService.queueDamage(npc, avatar, kickDamage, CombatService.FLAG_KICK);
+        applyKickKnockback(npc);
     }
 
     private void applyKickKnockback(Entity target) {
@@ -2296,12 +2521,6 @@ public class Engine implements Screen {
         return new AttackBounds(centerX, centerY, halfX, halfY);
     }
 
-    private boolean overlaps(AttackBounds bounds, double otherX, double otherY, double otherHalf) {
-        double dx = Math.abs(bounds.centerX - otherX);
-        double dy = Math.abs(bounds.centerY - otherY);
-        return dx <= (bounds.halfX + otherHalf) && dy <= (bounds.halfY + otherHalf);
-    }
-
     private record AttackBounds(double centerX, double centerY, double halfX, double halfY) { }
 
 
@@ -2351,6 +2570,7 @@ public class Engine implements Screen {
         } catch (IOException e) {
             // Best-effort; ignore failures to keep gameplay responsive
         }
+        writeChecksumLog();
     }
 
     private void updateMouseWorldPosition(int screenX, int screenY) {
@@ -2359,8 +2579,12 @@ public class Engine implements Screen {
         }
         // Use the renderer's screenToWorld which properly handles viewport unprojection
         Vector2 worldPos = renderer.screenToWorld(screenX, screenY);
-        mouseWorldX = worldPos.x;
-        mouseWorldY = worldPos.y;
+        float worldX = worldPos.x;
+        float worldY = worldPos.y;
+        runOnSimulation(() -> {
+            mouseWorldX = worldX;
+            mouseWorldY = worldY;
+        });
     }
 
     private Direction getMouseFacing() {
@@ -2490,16 +2714,74 @@ public class Engine implements Screen {
         }
     }
 
-    //Avatar now uses smoothing - placement happens instantly but movement is based on frames
-    private Renderer.AvatarDraw buildAvatarDraw() {
-        if (avatar == null || avatarSprite == null) {
-            return null;
+    /**
+     * copy what the next frame draws into the back snapshot and hand it to the render thread
+     */
+    private void publishSnapshot() {
+        RenderSnapshot snapshot = snapshots.back();
+        snapshot.begin(++snapshotSequence, currentScreen(), tileGrid);
+        snapshot.setLightRadius(lightRadius);
+        if (avatar != null) {
+            // When movement stops, snap to the target tile to avoid post-input sliding.
+            drawX = avatar.posX() - 0.5;
+            drawY = avatar.posY() - 0.5;
+            snapshot.setAvatar(avatar.posX(), avatar.posY(), drawX, drawY, AVATAR_DRAW_SCALE, avatarSprite);
+        }
+        if (npcManager != null) {
+            List<Npc> npcs = npcManager.npcs();
+            for (int i = 0; i < npcs.size(); i++) {
+                Npc npc = npcs.get(i);
+                // hidden NPCs still light the level but skip resolving their animation
+                TextureRegion frame = null;
+                if (renderer.isNearDrawWindow(npc.x(), npc.y(), NPC_DRAW_MARGIN_TILES)) {
+                    frame = npc.currentFrame();
+                }
+                snapshot.addNpc(npc.x(), npc.y(), npc.drawX(), npc.drawY(), frame);
+            }
+            List<Corpse> corpses = npcManager.corpses();
+            for (int i = 0; i < corpses.size(); i++) {
+                Corpse corpse = corpses.get(i);
+                snapshot.addCorpse(corpse.x(), corpse.y(), corpse.tile().resolveRegion());
+            }
+        }
+        if (droppedItems != null) {
+            for (int i = 0; i < droppedItems.size(); i++) {
+                snapshot.addDrop(droppedItems.get(i).x(), droppedItems.get(i).y());
+            }
+        }
+        int currentHealth = 0;
+        int maxHealth = 1;
+        if (avatar != null && avatar.health() != null) {
+            currentHealth = avatar.health().current();
+            maxHealth = avatar.health().max();
         }
-        // When movement stops, snap to the target tile to avoid post-input sliding.
-        drawX = avatar.posX() - 0.5;
-        drawY = avatar.posY() - 0.5;
-        double avatarScale = 4.0;   // adjust this number if starts to look laggy
-        return new Renderer.AvatarDraw(drawX, drawY, avatarScale, avatarSprite);
+        snapshot.setHud(currentHealth, maxHealth, hudMessage, hudMessageExpireMs, hudMessageVersion);
+        if (inventoryVisible && inventory != null) {
+            snapshot.setInventory(inventoryView());
+        }
+        snapshot.setEndStats(currentLevel, finalPlayTimeMs, enemiesFelled, totalDamageTaken);
+        snapshots.publish();
+    }
+
+    private Inventory inventoryView() {
+        if (inventoryViewSource != inventory || inventoryViewVersion != inventory.version()) {
+            inventoryView = inventory.copy();
+            inventoryViewSource = inventory;
+            inventoryViewVersion = inventory.version();
+        }
+        return inventoryView;
+    }
+
+    private RenderSnapshot.Screen currentScreen() {
+        if (phase == EnginePhase.MENU) {
+            return RenderSnapshot.Screen.MENU;
+        }
+        return switch (gameState) {
+            case PAUSED -> RenderSnapshot.Screen.PAUSED;
+            case DEAD -> RenderSnapshot.Screen.DEAD;
+            case ENDED -> RenderSnapshot.Screen.ENDED;
+            default -> RenderSnapshot.Screen.PLAYING;
+        };
     }
 
 
@@ -2548,8 +2830,61 @@ public class Engine implements Screen {
                 return;
             }
         }
-        update(delta);
-        renderFrame();
+        if (simulation == null) {
+            stepSimulation(delta);
+        }
+        RenderSnapshot snapshot = snapshots.acquire();
+        long workStart = System.nanoTime();
+        renderFrame(snapshot);
+        renderer.endFrameStats();
+        governQuality(snapshot, delta, System.nanoTime() - workStart);
+        if (renderStatsVisible || renderStats.isRecording()) {
+            renderStats.sample(renderer, delta, System.nanoTime());
+        }
+    }
+
+    /**
+     * only gameplay frames are judged; menus and pauses render little and would read as headroom
+     */
+    private void governQuality(RenderSnapshot snapshot, float delta, long workNanos) {
+        if (snapshot.screen() != RenderSnapshot.Screen.PLAYING) {
+            qualityGovernor.settle();
+            return;
+        }
+        if (qualityGovernor.sample((long) (delta * 1_000_000_000.0), workNanos)) {
+            renderer.setQualityTier(qualityGovernor.tier());
+        }
+    }
+
+    /**
+     * one simulation step followed by a snapshot for the renderer; runs on the simulation
+     * thread, or inline on the render thread when there is no core to spare
+     */
+    private void stepSimulation(double deltaSeconds) {
+        if (phase == EnginePhase.PLAYING && lightSurgeStartMs >= 0) {
+            updateLightingRadius();
+        }
+        update(deltaSeconds);
+        publishSnapshot();
+    }
+
+    private void startSimulation() {
+        if (simulation != null || !SimulationLoop.worthwhile()) {
+            return;
+        }
+        simulation = new SimulationLoop("simulation", SIMULATION_STEP_MS, this::stepSimulation);
+        simulation.start();
+    }
+
+    /**
+     * run game-state changes from the render thread (input, debug keys) where the simulation owns them
+     */
+    private void runOnSimulation(Runnable action) {
+        if (simulation == null) {
+            action.run();
+        } else {
+            simulation.post(action);
+        }
     }
 
     private void update(double deltaSeconds) {
@@ -2594,7 +2929,6 @@ public class Engine implements Screen {
 
     private void updateGameplay(double deltaSeconds) {
         if (avatar != null) {
-            avatar.tickStagger(deltaSeconds);
             if (avatar.updateKnockback(deltaSeconds)) {
                 integrateAvatarMotion(deltaSeconds);
                 return;
@@ -2619,16 +2953,42 @@ public class Engine implements Screen {
     }
 
     private void updateTick() {
+        if (runTickPreamble()) {
+            // nothing else runs this tick, but timed states still count down
+            combatService.advanceTimers();
+            return;
+        }
+        updateInventoryToggle();
+        updateTargetingToggle();
+        if (targetingEnabled) {
+            updateCurrentTarget();
+        }
+        if (npcManager != null && avatar != null) {
+            npcManager.tick(world, avatar);
+        }
+        captureStateChecksum();
+        combatService.advanceTimers();
+        combatService.tick();
+        consumeCombatOutcomes();
+        checkForEndgame();
+        updateLightDecay();
+    }
+
+    /**
+     * HUD, death and ending sequences and typed commands
+     * @return true when the tick ends here
+     */
+    private boolean runTickPreamble() {
         switch (gameState) {
             case DYING, DEAD -> {
                 updateHudMessage();
                 runDeathSequence();
-                return;
+                return true;
             }
             case ENDING, ENDED -> {
                 updateHudMessage();
                 runEndSequence();
-                return;
+                return true;
             }
             default -> { }
         }
@@ -2637,30 +2997,41 @@ public class Engine implements Screen {
             char raw = nextKeyTyped();
             char c = Character.toLowerCase(raw);
             if (processCommand(c, true, true)) {
-                return;
+                return true;
             }
         }
-        updateInventoryToggle();
-        updateTargetingToggle();
-        if (targetingEnabled) {
-            updateCurrentTarget();
-        }
-        if (npcManager != null && avatar != null) {
-            npcManager.tick(world, avatar);
-        }
-        combatService.tick();
-        checkForEndgame();
-        updateLightDecay();
+        return false;
     }
 
-    private void renderFrame() {
-        if (phase == EnginePhase.MENU) {
-            showMainMenu();
+    // hash the state once per tick, after AI has queued its damage but before combat resolves it
+    private void captureStateChecksum() {
+        if (avatar == null || npcManager == null) {
             return;
         }
-        renderWithHud();
-        if (gameState == GameState.PAUSED) {
-            drawPauseOverlay();
+        simulationTick += 1;
+        stateChecksum.capture(simulationTick, avatar, npcManager, combatService, droppedItems, lootRng);
+        checksumLog.record(stateChecksum);
+    }
+
+    private void writeChecksumLog() {
+        checksumLog.setReplayInput(history == null ? "" : history.toString());
+        try (Writer writer = new BufferedWriter(new FileWriter(REPLAY_CHECKSUM_FILE))) {
+            checksumLog.write(writer);
+        } catch (IOException e) {
+            // Best-effort; the checksums are only used for offline replay verification
+        }
+    }
+
+    private void renderFrame(RenderSnapshot snapshot) {
+        switch (snapshot.screen()) {
+            case LOADING -> renderer.clearScreen();
+            case MENU -> showMainMenu();
+            default -> {
+                renderWithHud(snapshot);
+                if (snapshot.screen() == RenderSnapshot.Screen.PAUSED) {
+                    drawPauseOverlay();
+                }
+            }
         }
     }
     private void drawPauseOverlay() {
@@ -2694,6 +3065,7 @@ public class Engine implements Screen {
     @Override
     public void resize(int width, int height) {
         renderer.resize(width, height);
+        qualityGovernor.settle();
         if (hudUi != null) {
             hudUi.resize(width, height);
         }
@@ -2722,6 +3094,10 @@ public class Engine implements Screen {
 
     @Override
     public void dispose() {
+        if (simulation != null) {
+            simulation.close();
+            simulation = null;
+        }
         music.stop();
 
         if (hudUi != null) {
@@ -2742,5 +3118,10 @@ public class Engine implements Screen {
 
         disposeHudAssets();
         renderer.dispose();
+        // the packed pages belong to the atlas, not the asset manager
+        if (atlas != null) {
+            atlas.dispose();
+            atlas = null;
+        }
     }
 }
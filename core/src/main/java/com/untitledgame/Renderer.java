@@ -9,23 +9,43 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.utils.ScissorStack;
+import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.untitledgame.assets.TETile;
 import com.untitledgame.assets.Tileset;
 import com.untitledgame.assets.TileType;
-import com.untitledgame.logic.items.DroppedItem;
-import com.untitledgame.logic.npc.Corpse;
-import com.untitledgame.logic.npc.Npc;
-import com.untitledgame.logic.npc.NpcManager;
-
+import com.untitledgame.logic.TileGrid;
+import com.untitledgame.render.EffectEventQueue;
+import com.untitledgame.render.LightTileBinner;
+import com.untitledgame.render.LightingMode;
+import com.untitledgame.render.MapView;
+import com.untitledgame.render.Minimap;
+import com.untitledgame.render.ParticlePool;
+import com.untitledgame.render.QualityTier;
+import com.untitledgame.render.RenderQueue;
+import com.untitledgame.render.RenderSnapshot;
+import com.untitledgame.render.SeparableBlur;
+import com.untitledgame.render.Shadowcaster;
+import com.untitledgame.render.StaticTileLayer;
+import com.untitledgame.render.VisibilityCache;
+import com.untitledgame.render.VisibilityGrid;
+import com.untitledgame.utils.FrameBudgetScheduler;
+import com.untitledgame.utils.WorkerPool;
+
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Renderer responsible for world and HUD drawing using libGDX.
@@ -33,7 +53,13 @@ import java.util.Objects;
  */
 public class Renderer implements AutoCloseable {
     static final int TILE_SIZE = 36;
-    private static final int MAX_LIGHTS = 16;
+    private static final int MAX_LIGHTS = 256;
+    // occlusion slices are tiled into a square-ish atlas so 256 of them fit a texture
+    private static final int OCCLUSION_ATLAS_COLUMNS = 16;
+    private static final int OCCLUSION_ATLAS_ROWS = MAX_LIGHTS / OCCLUSION_ATLAS_COLUMNS;
+    // changed slices are refreshed in priority order within this many microseconds a frame
+    private static final int OCCLUSION_BUDGET_MICROS = 2000;
+    private static final float UNUSED_SLICE_PRIORITY = Float.MAX_VALUE;
     private static final float AMBIENT_LIGHT = 0.0f;
     private static final double NPC_SCALE_TILES = 1.0;
     private static final Color AVATAR_LIGHT_COLOR = new Color(1f, 1f, 1f, 1f);
@@ -52,7 +78,6 @@ public class Renderer implements AutoCloseable {
     private int viewOriginY;
     private float worldScale = 1.7f; // 1.0 = current behavior
     private static final double CAMERA_SMOOTH = 0.20;
-    private static final double SMOOTH_SPEED = 0.10;
     private static final float DEFAULT_FALLOFF = 3.0f;
     private static final String LIGHT_VERTEX_SHADER =
             "attribute vec4 a_position;\n" +
@@ -93,12 +118,10 @@ public class Renderer implements AutoCloseable {
         }
     }
 
-    public record AvatarDraw(double x, double y, double scale, TextureRegion sprite) { }
+    // static tiles are drawn from StaticTileLayer below and above these
     private enum DrawLayer {
-        BACKGROUND(0),
         ITEM(1),
-        ENTITY(2),
-        COVER(3);
+        ENTITY(2);
 
         final int order;
 
@@ -107,9 +130,7 @@ public class Renderer implements AutoCloseable {
         }
     }
 
-    private record RenderOp(double sortY, DrawLayer layer, double sortX, Runnable action) { }
     private record LightSource(double x, double y, float radius, float intensity, Color color) { }
-    private record ShadowInterval(float start, float end) { }
     private record LightBounds(int startX, int endX, int startY, int endY) { }
 
     private double camTileX;
@@ -120,22 +141,97 @@ public class Renderer implements AutoCloseable {
 
     private ShaderProgram lightShader;
     private Texture lightMaskTexture;
-    private Pixmap occlusionPixmap;
+    private int occlusionTextureWidth;
+    private int occlusionTextureHeight;
+    // one slice worth of texels, handed to glTexSubImage2D for each dirty slice
+    private ByteBuffer occlusionSliceBuffer;
+    private long lastOcclusionUploadNanos;
+    private int lastOcclusionUploadBytes;
+    private int lastOcclusionUploadSlices;
     private Texture occlusionTexture;
     private boolean occlusionDirty = true;
+    private TileType[][] occlusionWorld;
+    private long occlusionFrame;
+    private final WorkerPool shadowcastPool = new WorkerPool("shadowcast", WorkerPool.defaultWorkerCount(MAX_LIGHTS));
+    private final Shadowcaster[] shadowcasters = createShadowcasters(shadowcastPool.workers());
+    // changed slices for this frame, filled on the render thread and consumed by the workers
+    private final int[] sliceJobSlots = new int[MAX_LIGHTS];
+    private final LightSource[] sliceJobLights = new LightSource[MAX_LIGHTS];
+    private final VisibilityGrid[] sliceJobGrids = new VisibilityGrid[MAX_LIGHTS];
+    private final boolean[] sliceJobCasts = new boolean[MAX_LIGHTS];
+    private int sliceJobCount;
+    private boolean sliceJobCastPhase;
+    private int sliceBatchFrom;
+    private TileType[][] sliceJobWorld;
+    private final WorkerPool.RangeTask sliceJobTask = this::runSliceJobs;
+    private final FrameBudgetScheduler occlusionScheduler =
+            new FrameBudgetScheduler(OCCLUSION_BUDGET_MICROS * 1000L, shadowcastPool.workers());
+    private final FrameBudgetScheduler.Batch sliceBatch = this::runSliceBatch;
+    private int lastOcclusionDeferredSlices;
+    private byte[] occlusionStaging = new byte[0];
+    // per-worker blur buffers: unblurred visibility with a margin, and the horizontal pass
+    private final int[][] sliceBlurSource = new int[shadowcastPool.workers()][];
+    private final int[][] sliceBlurScratch = new int[shadowcastPool.workers()][];
+    private final VisibilityCache visibilityCache = new VisibilityCache(MAX_LIGHTS * 2);
+    // what each occlusion slice was last written from
+    private final VisibilityGrid[] sliceGrids = new VisibilityGrid[MAX_LIGHTS];
+    private final int[] sliceGridGenerations = new int[MAX_LIGHTS];
+    private final LightSource[] sliceLights = new LightSource[MAX_LIGHTS];
+    // slices whose refresh was deferred, or that no longer line up with the view
+    private final boolean[] sliceStale = new boolean[MAX_LIGHTS];
     private boolean uniformsDirty = true;
     private int lastOcclusionOriginX = -1;
     private int lastOcclusionOriginY = -1;
-    private int lastOcclusionWorldHash = 0;
-    private int lastOcclusionLightHash = 0;
-    private int lastOcclusionLightCount = 0;
     private int lastUniformOriginX = -1;
     private int lastUniformOriginY = -1;
     private int lastUniformViewWidth = -1;
     private int lastUniformViewHeight = -1;
+    private ShaderProgram lastUniformShader;
+    private LightingMode lightingMode = LightingMode.CPU_SHADOWCAST;
+    private QualityTier qualityTier = QualityTier.ULTRA;
+    // the lighting pass shaded below screen resolution, then stretched over the view
+    private FrameBuffer lightingBuffer;
+    private ShaderProgram raymarchShader;
+    private Texture wallMaskTexture;
+    private TileType[][] wallMaskWorld;
+    // inclusive tile rectangle of the wall mask awaiting re-upload, empty when minX > maxX
+    private int wallMaskDirtyMinX = Integer.MAX_VALUE;
+    private int wallMaskDirtyMinY = Integer.MAX_VALUE;
+    private int wallMaskDirtyMaxX = Integer.MIN_VALUE;
+    private int wallMaskDirtyMaxY = Integer.MIN_VALUE;
+    private TileGrid boundTiles;
+    private GLProfiler glProfiler;
+    private int lastFrameDrawCalls;
+    private int lastFrameTextureBindings;
+    private int lastFrameShaderSwitches;
+    private int lastFrameVertices;
+    private int renderOpsCulled;
+    private int lastLightSourceCount;
+    private final TileGrid.Listener tileListener = this::tilesChanged;
+    // edits arrive on the simulation thread; applied on the render thread before the next frame
+    private final ConcurrentLinkedQueue<int[]> pendingTileEdits = new ConcurrentLinkedQueue<>();
+    private final Minimap minimap = new Minimap();
+    // light window of the last drawn frame, read by the simulation to skip hidden animation
+    private volatile LightBounds lastDrawWindow;
+    private final ParticlePool particles = new ParticlePool(ParticlePool.DEFAULT_CAPACITY);
+    private Texture particleTexture;
+    private long lastEffectsNanos;
+    private int droppedEffectEvents;
+    // set when a new level is bound; bursts still queued from the old one are thrown away
+    private boolean discardQueuedEffects;
+    private MapView mapView = MapView.OFF;
     private int lastLightHash = 0;
     private int lastLightCount = 0;
     private final List<LightSource> activeLights = new ArrayList<>();
+    private final float[] activeLightImportance = new float[MAX_LIGHTS];
+    private final int[] selectedSources = new int[MAX_LIGHTS];
+    // score and index per candidate light, grown to the largest light count seen
+    private long[] rankedLights = new long[MAX_LIGHTS * 2];
+    private final LightTileBinner lightBinner = new LightTileBinner(MAX_LIGHTS);
+    private Pixmap lightDataPixmap;
+    private Texture lightDataTexture;
+    private Pixmap tileListPixmap;
+    private Texture tileListTexture;
 
 
     public int getViewWidth() {
@@ -154,6 +250,10 @@ public class Renderer implements AutoCloseable {
     private Viewport viewport;
     private TextureAtlas textureAtlas;
     private final Vector2 scratchVector = new Vector2();
+    private final StaticTileLayer staticTiles = new StaticTileLayer();
+    private final RenderQueue renderQueue = new RenderQueue(256);
+    private final Rectangle tileClipArea = new Rectangle();
+    private final Rectangle tileScissor = new Rectangle();
 
     public double getLightRadius() {
         return lightRadius;
@@ -162,7 +262,6 @@ public class Renderer implements AutoCloseable {
     public void setLightRadius(double r) {
         this.lightRadius = r;
         uniformsDirty = true;
-        occlusionDirty = true;
     }
 
     private double avatarFx = -1;
@@ -174,7 +273,6 @@ public class Renderer implements AutoCloseable {
 
         // Tile-based data for occlusion & lighting
         if (this.avatarX != tileX || this.avatarY != tileY) {
-            occlusionDirty = true;
             uniformsDirty = true;
         }
 
@@ -228,7 +326,6 @@ public class Renderer implements AutoCloseable {
         if (newOriginX != viewOriginX || newOriginY != viewOriginY) {
             viewOriginX = newOriginX;
             viewOriginY = newOriginY;
-            occlusionDirty = true;
             uniformsDirty = true;
         }
 
@@ -264,39 +361,101 @@ public class Renderer implements AutoCloseable {
         return new RenderContext(startX, endX, startY, endY, litBounds);
     }
 
-    public void updateLights(List<DroppedItem> drops, NpcManager npcManager, AvatarDraw avatarDraw) {
+    /**
+     * take the level, avatar position and light radius from a published snapshot; call once
+     * per frame before {@link #updateCamera()}
+     */
+    public void applySnapshot(RenderSnapshot snapshot) {
+        bindTiles(snapshot.tileGrid());
+        minimap.bind(snapshot.tiles());
+        applyPendingTileEdits();
+        if (snapshot.hasAvatar()) {
+            setAvatarPosition(snapshot.avatarX(), snapshot.avatarY());
+        }
+        if (snapshot.lightRadius() != lightRadius) {
+            setLightRadius(snapshot.lightRadius());
+        }
+        // exploration follows the avatar's light even while the map is hidden
+        if (snapshot.hasAvatar()) {
+            minimap.reveal(snapshot.avatarX(), snapshot.avatarY(), lightRadius);
+        }
+    }
+
+    public void updateLights(RenderSnapshot snapshot) {
         List<LightSource> sources = new ArrayList<>();
         if (avatarFx >= 0 && avatarFy >= 0) {
             sources.add(new LightSource(avatarFx, avatarFy, (float) lightRadius, 1f, AVATAR_LIGHT_COLOR));
         }
-        if (npcManager != null) {
-            for (Npc npc : npcManager.npcs()) {
-                double lx = npc.x() + 0.5;
-                double ly = npc.y() + 0.5;
-                sources.add(new LightSource(lx, ly, 5f, 0.6f, NPC_LIGHT_COLOR));
-            }
+        for (int i = 0; i < snapshot.npcCount(); i++) {
+            double lx = snapshot.npcTileX(i) + 0.5;
+            double ly = snapshot.npcTileY(i) + 0.5;
+            sources.add(new LightSource(lx, ly, 5f, 0.6f, NPC_LIGHT_COLOR));
         }
-        if (drops != null) {
-            for (DroppedItem drop : drops) {
-                double lx = drop.x() + 0.5;
-                double ly = drop.y() + 0.5;
-                sources.add(new LightSource(lx, ly, 3.5f, 0.45f, ITEM_LIGHT_COLOR));
-            }
+        for (int i = 0; i < snapshot.dropCount(); i++) {
+            double lx = snapshot.dropX(i) + 0.5;
+            double ly = snapshot.dropY(i) + 0.5;
+            sources.add(new LightSource(lx, ly, 3.5f, 0.45f, ITEM_LIGHT_COLOR));
         }
 
         activeLights.clear();
-        for (int i = 0; i < Math.min(sources.size(), MAX_LIGHTS); i++) {
-            activeLights.add(sources.get(i));
+        lastLightSourceCount = sources.size();
+        int budget = Math.min(MAX_LIGHTS, qualityTier.lightBudget());
+        if (sources.size() <= budget) {
+            for (int i = 0; i < sources.size(); i++) {
+                activeLightImportance[i] = lightImportance(sources.get(i), i == 0 && avatarFx >= 0);
+                activeLights.add(sources.get(i));
+            }
+        } else {
+            selectImportantLights(sources, avatarFx >= 0, budget);
         }
         int lightHash = computeLightHash(activeLights);
         if (lightHash != lastLightHash || activeLights.size() != lastLightCount) {
-            occlusionDirty = true;
             uniformsDirty = true;
         }
         lastLightHash = lightHash;
         lastLightCount = activeLights.size();
     }
 
+    /**
+     * keep the budget's most important sources, in their original order so slots stay stable
+     */
+    private void selectImportantLights(List<LightSource> sources, boolean hasAvatar, int budget) {
+        int count = sources.size();
+        if (rankedLights.length < count) {
+            rankedLights = new long[Math.max(count, rankedLights.length * 2)];
+        }
+        long[] ranked = rankedLights;
+        for (int i = 0; i < count; i++) {
+            float score = lightImportance(sources.get(i), hasAvatar && i == 0);
+            ranked[i] = ((long) Float.floatToIntBits(score) << 32) | (count - 1 - i);
+        }
+        Arrays.sort(ranked, 0, count);
+        int kept = 0;
+        for (int k = count - 1; kept < budget; k--, kept++) {
+            selectedSources[kept] = count - 1 - (int) ranked[k];
+        }
+        Arrays.sort(selectedSources, 0, kept);
+        for (int i = 0; i < kept; i++) {
+            int source = selectedSources[i];
+            activeLightImportance[i] = lightImportance(sources.get(source), hasAvatar && source == 0);
+            activeLights.add(sources.get(source));
+        }
+    }
+
+    /**
+     * how much a light is worth keeping when over budget: the avatar always wins, then bright,
+     * wide lights near the middle of the view
+     */
+    private float lightImportance(LightSource light, boolean avatar) {
+        if (avatar) {
+            return Float.MAX_VALUE;
+        }
+        double dx = light.x() - (viewOriginX + viewWidth / 2.0);
+        double dy = light.y() - (viewOriginY + viewHeight / 2.0);
+        double reach = light.radius() * light.intensity();
+        return (float) (reach * reach / (1.0 + dx * dx + dy * dy));
+    }
+
     private int clamp(int value, int min, int max) {
         if (value < min) {
             return min;
@@ -363,23 +522,157 @@ public class Renderer implements AutoCloseable {
         if (batch == null || activeLights.isEmpty() || world == null || context == null) {
             return;
         }
-        ensureLightResources();
-        if (shouldRefreshOcclusionMap(world, context)) {
-            refreshOcclusionMap(world, context);
+        ShaderProgram shader;
+        if (lightingMode == LightingMode.GPU_RAYMARCH) {
+            ensureRaymarchResources(world);
+            shader = raymarchShader;
+        } else {
+            ensureLightResources();
+            refreshOcclusionMap(world);
+            shader = lightShader;
         }
-        updateLightUniforms();
+        updateLightTiles();
+        updateLightUniforms(shader);
 
         batch.flush();
         ShaderProgram previousShader = batch.getShader();
-        batch.setShader(lightShader);
-        lightShader.bind();
-        bindOcclusionTexture();
-        updateAvatarUniform();
+        batch.setShader(shader);
+        shader.bind();
+        if (shader == raymarchShader) {
+            bindWallMaskTexture();
+        } else {
+            bindOcclusionTexture();
+        }
+        bindLightTileTextures(shader);
+        updateAvatarUniform(shader);
 
         batch.setColor(1f, 1f, 1f, 1f);
+        if (qualityTier.lightingScale() < 1f && viewport != null && camera != null) {
+            drawScaledLightMask(previousShader);
+            return;
+        }
+        batch.draw(lightMaskTexture, (float) xOffset, (float) yOffset, viewWidth, viewHeight);
+        batch.flush();
+        batch.setShader(previousShader);
+    }
+
+    /**
+     * shade the light mask into a smaller buffer covering exactly what the camera sees, then
+     * stretch it over the view with the usual alpha blend; the mask is smooth, so bilinear
+     * upscaling costs little detail while the per-pixel light loop runs on a fraction of the pixels
+     */
+    private void drawScaledLightMask(ShaderProgram previousShader) {
+        FrameBuffer buffer = ensureLightingBuffer();
+        buffer.begin();
+        Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        // keep the mask's own alpha rather than blending it into the cleared buffer
+        batch.disableBlending();
         batch.draw(lightMaskTexture, (float) xOffset, (float) yOffset, viewWidth, viewHeight);
         batch.flush();
+        batch.enableBlending();
+        buffer.end(viewport.getScreenX(), viewport.getScreenY(), viewport.getScreenWidth(), viewport.getScreenHeight());
+
         batch.setShader(previousShader);
+        float visibleWidth = camera.viewportWidth * camera.zoom;
+        float visibleHeight = camera.viewportHeight * camera.zoom;
+        batch.draw(buffer.getColorBufferTexture(),
+                camera.position.x - visibleWidth / 2f, camera.position.y - visibleHeight / 2f,
+                visibleWidth, visibleHeight,
+                0, 0, buffer.getWidth(), buffer.getHeight(), false, true);
+        batch.flush();
+    }
+
+    private FrameBuffer ensureLightingBuffer() {
+        float scale = qualityTier.lightingScale();
+        int targetWidth = Math.max(1, Math.round(viewport.getScreenWidth() * scale));
+        int targetHeight = Math.max(1, Math.round(viewport.getScreenHeight() * scale));
+        if (lightingBuffer != null && lightingBuffer.getWidth() == targetWidth
+                && lightingBuffer.getHeight() == targetHeight) {
+            return lightingBuffer;
+        }
+        if (lightingBuffer != null) {
+            lightingBuffer.dispose();
+        }
+        lightingBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, targetWidth, targetHeight, false);
+        lightingBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        return lightingBuffer;
+    }
+
+    public QualityTier qualityTier() {
+        return qualityTier;
+    }
+
+    /**
+     * switch lighting resolution, occlusion blur, light budget and refresh rate together
+     */
+    public void setQualityTier(QualityTier tier) {
+        if (tier == null || tier == qualityTier) {
+            return;
+        }
+        if (tier.blurTaps() != qualityTier.blurTaps()) {
+            // every slice was blurred with the old kernel
+            occlusionDirty = true;
+        }
+        qualityTier = tier;
+        uniformsDirty = true;
+    }
+
+    public LightingMode lightingMode() {
+        return lightingMode;
+    }
+
+    public void setLightingMode(LightingMode mode) {
+        if (mode != null && mode != lightingMode) {
+            lightingMode = mode;
+            uniformsDirty = true;
+        }
+    }
+
+    /**
+     * whether a tile lies within margin tiles of the window the last frame drew entities in;
+     * true before the first frame. Safe to call from the simulation thread.
+     */
+    public boolean isNearDrawWindow(int tileX, int tileY, int margin) {
+        LightBounds window = lastDrawWindow;
+        if (window == null) {
+            return true;
+        }
+        return tileX >= window.startX() - margin && tileX < window.endX() + margin
+                && tileY >= window.startY() - margin && tileY < window.endY() + margin;
+    }
+
+    public MapView mapView() {
+        return mapView;
+    }
+
+    /**
+     * step through no map, the corner minimap and the full map, returning the new view
+     */
+    public MapView cycleMapView() {
+        mapView = mapView.next();
+        return mapView;
+    }
+
+    /**
+     * draw the explored map over everything else, uploading only the tiles revealed since last time
+     */
+    public void drawMap() {
+        if (mapView == MapView.OFF || batch == null || uiCamera == null) {
+            return;
+        }
+        minimap.upload();
+        beginUi();
+        minimap.draw(batch, mapView, avatarFx, avatarFy, uiCamera.viewportWidth, uiCamera.viewportHeight);
+        endUi();
+    }
+
+    /**
+     * switch to the next lighting path and return it, for comparing the two at runtime
+     */
+    public LightingMode cycleLightingMode() {
+        setLightingMode(lightingMode.next());
+        return lightingMode;
     }
 
     public void setWorldScale(float scale) {
@@ -390,30 +683,138 @@ public class Renderer implements AutoCloseable {
         }
     }
 
-    public void drawWorld(TileType[][] world,
-                          List<Corpse> corpses,
-                          List<DroppedItem> drops,
-                          NpcManager npcManager,
-                          RenderContext context,
-                          AvatarDraw avatarDraw) {
+    public void drawWorld(RenderSnapshot snapshot, RenderContext context) {
+        TileType[][] world = snapshot.tiles();
         if (world == null || context == null) {
             return;
         }
-        List<RenderOp> ops = new ArrayList<>();
-        int coverCutoff = computeCoverCutoff(npcManager, avatarDraw, context);
-        addTileDraws(world, context, ops, coverCutoff);
-        addCorpseDraws(corpses, context, ops);
-        addDroppedItemDraws(drops, context, ops);
-        addNpcDraws(npcManager, context, ops);
-        addAvatarDraw(avatarDraw, context, ops);
+        renderQueue.clear();
+        renderOpsCulled = 0;
+        lastDrawWindow = context.litBounds;
+        addCorpseDraws(snapshot, context);
+        addDroppedItemDraws(snapshot, context);
+        addNpcDraws(snapshot, context);
+        addAvatarDraw(snapshot, context);
+        renderQueue.sort();
+
+        // Floors and walls come from the baked cache: background under the sorted ops, cover over them
+        staticTiles.ensureBaked(world);
+        boolean wasDrawing = batch != null && batch.isDrawing();
+        if (wasDrawing) {
+            batch.end();
+        }
+        drawStaticTiles(StaticTileLayer.Layer.BACKGROUND, context);
+        if (batch != null) {
+            batch.begin();
+        }
+        if (batch != null) {
+            renderQueue.draw(batch);
+            batch.end();
+        }
+        drawStaticTiles(StaticTileLayer.Layer.COVER, context);
+        if (wasDrawing) {
+            batch.begin();
+        }
+    }
+
+    /**
+     * spawn the effect bursts queued since the last frame, step every particle and draw them
+     * additively over the lit world, so sparks read in the dark; call between
+     * {@link #beginBatch()} and {@link #endBatch()}
+     * @param deltaSeconds zero holds particles still, e.g. while paused
+     */
+    public void drawEffects(EffectEventQueue events, float deltaSeconds) {
+        if (batch == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (discardQueuedEffects) {
+            events.discard();
+            discardQueuedEffects = false;
+        }
+        events.drainTo(particles);
+        droppedEffectEvents = events.dropped();
+        particles.update(deltaSeconds);
+        if (particles.size() > 0) {
+            ensureParticleTexture();
+            batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE);
+            particles.draw(batch, particleTexture, (float) toScreenX(0.0), (float) toScreenY(0.0));
+            batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        }
+        lastEffectsNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * follow edits to the level's tiles so only the touched chunks, light casts and
+     * wall mask texels are rebuilt. Pass null when the level is torn down.
+     */
+    public void bindTiles(TileGrid tiles) {
+        if (boundTiles == tiles) {
+            return;
+        }
+        if (boundTiles != null) {
+            boundTiles.removeListener(tileListener);
+        }
+        boundTiles = tiles;
+        pendingTileEdits.clear();
+        // the old level's window says nothing about the new one; draw everything until a frame lands
+        lastDrawWindow = null;
+        // bursts from the previous level would hang in the air of the new one
+        particles.clear();
+        discardQueuedEffects = true;
+        if (tiles != null) {
+            tiles.addListener(tileListener);
+        }
+    }
+
+    private void tilesChanged(TileGrid grid, int minX, int minY, int maxX, int maxY) {
+        pendingTileEdits.add(new int[]{minX, minY, maxX, maxY});
+    }
+
+    private void applyPendingTileEdits() {
+        int[] edit;
+        while ((edit = pendingTileEdits.poll()) != null) {
+            staticTiles.invalidateRegion(edit[0], edit[1], edit[2], edit[3]);
+            // a wall change is seen by every cast whose square reached it; slices follow their grids
+            visibilityCache.invalidateRegion(edit[0], edit[1], edit[2], edit[3]);
+            minimap.invalidateRegion(edit[0], edit[1], edit[2], edit[3]);
+            if (boundTiles != null && boundTiles.tiles() == wallMaskWorld) {
+                wallMaskDirtyMinX = Math.min(wallMaskDirtyMinX, edit[0]);
+                wallMaskDirtyMinY = Math.min(wallMaskDirtyMinY, edit[1]);
+                wallMaskDirtyMaxX = Math.max(wallMaskDirtyMaxX, edit[2]);
+                wallMaskDirtyMaxY = Math.max(wallMaskDirtyMaxY, edit[3]);
+            }
+        }
+    }
 
-        ops.sort(Comparator
-                .comparingInt((RenderOp op) -> op.layer().order)
-                .thenComparingDouble((RenderOp op) -> -op.sortY())   // reverse Y
-                .thenComparingDouble(RenderOp::sortX));
-        for (RenderOp op : ops) {
-            op.action().run();
+    /**
+     * rebake the static tile layer and drop cached light visibility, for tile edits made in place
+     * without going through a bound {@link TileGrid}
+     */
+    public void invalidateTiles() {
+        staticTiles.invalidate();
+        occlusionWorld = null;
+        wallMaskWorld = null;
+    }
+
+    private void drawStaticTiles(StaticTileLayer.Layer layer, RenderContext context) {
+        if (camera == null || viewport == null || batch == null
+                || context.endX <= context.startX || context.endY <= context.startY) {
+            return;
+        }
+        // clip to the tile window so edge chunks don't show tiles the old per-tile pass skipped
+        tileClipArea.set((float) toScreenX(context.startX), (float) toScreenY(context.startY),
+                context.endX - context.startX, context.endY - context.startY);
+        viewport.calculateScissors(batch.getTransformMatrix(), tileClipArea, tileScissor);
+        boolean clipped = ScissorStack.pushScissors(tileScissor);
+        if (!clipped) {
+            return;
         }
+        float offsetX = (float) (xOffset - viewOriginX - renderOffsetX);
+        float offsetY = (float) (yOffset - viewOriginY - renderOffsetY);
+        staticTiles.draw(layer, camera.combined, offsetX, offsetY,
+                context.startX, context.endX, context.startY, context.endY);
+        ScissorStack.popScissors();
     }
 
     private LightBounds litBounds(int viewStartX, int viewEndX, int viewStartY, int viewEndY) {
@@ -441,12 +842,109 @@ public class Renderer implements AutoCloseable {
         return new LightBounds(startX, Math.max(startX, endX), startY, Math.max(startY, endY));
     }
 
+    private static Shadowcaster[] createShadowcasters(int count) {
+        Shadowcaster[] casters = new Shadowcaster[count];
+        for (int i = 0; i < casters.length; i++) {
+            casters[i] = new Shadowcaster();
+        }
+        return casters;
+    }
+
     private void ensureLightResources() {
         ensureLightShader();
         ensureLightMaskTexture();
         ensureOcclusionBuffer();
     }
 
+    private void ensureRaymarchResources(TileType[][] world) {
+        ensureLightMaskTexture();
+        if (raymarchShader == null || !raymarchShader.isCompiled()) {
+            if (raymarchShader != null) {
+                raymarchShader.dispose();
+            }
+            ShaderProgram.pedantic = false;
+            String fragment = Gdx.files.internal("shaders/lightmask_raymarch.frag").readString();
+            raymarchShader = new ShaderProgram(LIGHT_VERTEX_SHADER, fragment);
+            if (!raymarchShader.isCompiled()) {
+                throw new IllegalStateException("Failed to compile raymarch light shader: " + raymarchShader.getLog());
+            }
+            raymarchShader.bind();
+            raymarchShader.setUniformi("u_texture", 0);
+            raymarchShader.setUniformi("u_wallMask", 1);
+            uniformsDirty = true;
+        }
+        if (world != wallMaskWorld) {
+            uploadWallMask(world);
+        } else if (wallMaskDirtyMinX <= wallMaskDirtyMaxX) {
+            uploadWallMaskRegion(world);
+        }
+    }
+
+    /**
+     * one texel per tile, opaque where the tile blocks light; only rebuilt when the tiles change
+     */
+    private void uploadWallMask(TileType[][] world) {
+        int maskWidth = world.length;
+        int maskHeight = world[0].length;
+        Pixmap mask = new Pixmap(maskWidth, maskHeight, Pixmap.Format.Alpha);
+        mask.setBlending(Pixmap.Blending.None);
+        ByteBuffer pixels = mask.getPixels();
+        // row y of the pixmap is tile row y, so the shader samples (tile + 0.5) / worldSize
+        for (int y = 0; y < maskHeight; y++) {
+            for (int x = 0; x < maskWidth; x++) {
+                boolean blocking = Shadowcaster.isBlockingTile(world[x][y]);
+                pixels.put(y * maskWidth + x, blocking ? (byte) 0xFF : 0);
+            }
+        }
+        if (wallMaskTexture != null && wallMaskTexture.getWidth() == maskWidth
+                && wallMaskTexture.getHeight() == maskHeight) {
+            wallMaskTexture.draw(mask, 0, 0);
+        } else {
+            if (wallMaskTexture != null) {
+                wallMaskTexture.dispose();
+            }
+            wallMaskTexture = new Texture(mask);
+            wallMaskTexture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+            wallMaskTexture.setWrap(Texture.TextureWrap.ClampToEdge, Texture.TextureWrap.ClampToEdge);
+        }
+        mask.dispose();
+        wallMaskWorld = world;
+        clearWallMaskDirty();
+    }
+
+    private void uploadWallMaskRegion(TileType[][] world) {
+        int minX = Math.max(0, wallMaskDirtyMinX);
+        int minY = Math.max(0, wallMaskDirtyMinY);
+        int maxX = Math.min(world.length - 1, wallMaskDirtyMaxX);
+        int maxY = Math.min(world[0].length - 1, wallMaskDirtyMaxY);
+        clearWallMaskDirty();
+        if (maxX < minX || maxY < minY) {
+            return;
+        }
+        int regionWidth = maxX - minX + 1;
+        int regionHeight = maxY - minY + 1;
+        ByteBuffer region = BufferUtils.newByteBuffer(regionWidth * regionHeight);
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                region.put(Shadowcaster.isBlockingTile(world[x][y]) ? (byte) 0xFF : 0);
+            }
+        }
+        region.flip();
+        wallMaskTexture.bind(1);
+        Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+        Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, minX, minY, regionWidth, regionHeight,
+                GL20.GL_ALPHA, GL20.GL_UNSIGNED_BYTE, region);
+        Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 4);
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+    }
+
+    private void clearWallMaskDirty() {
+        wallMaskDirtyMinX = Integer.MAX_VALUE;
+        wallMaskDirtyMinY = Integer.MAX_VALUE;
+        wallMaskDirtyMaxX = Integer.MIN_VALUE;
+        wallMaskDirtyMaxY = Integer.MIN_VALUE;
+    }
+
     private void ensureLightShader() {
         if (lightShader != null && lightShader.isCompiled()) {
             return;
@@ -463,7 +961,6 @@ public class Renderer implements AutoCloseable {
         lightShader.bind();
         lightShader.setUniformi("u_texture", 0);
         lightShader.setUniformi("u_occlusionMap", 1);
-        lightShader.setUniformi("u_lightCount", 0);
         lightShader.setUniformf("u_ambient", AMBIENT_LIGHT);
         uniformsDirty = true;
     }
@@ -480,194 +977,342 @@ public class Renderer implements AutoCloseable {
         pixel.dispose();
     }
 
+    private void ensureParticleTexture() {
+        if (particleTexture != null) {
+            return;
+        }
+        Pixmap pixel = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixel.setColor(1, 1, 1, 1);
+        pixel.fill();
+        particleTexture = new Texture(pixel);
+        particleTexture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        pixel.dispose();
+    }
+
     private void ensureOcclusionBuffer() {
-        int targetWidth = Math.max(1, viewWidth * MAX_LIGHTS);
-        int targetHeight = Math.max(1, viewHeight);
+        int targetWidth = Math.max(1, viewWidth * OCCLUSION_ATLAS_COLUMNS);
+        int targetHeight = Math.max(1, viewHeight * OCCLUSION_ATLAS_ROWS);
 
-        if (occlusionPixmap != null && occlusionPixmap.getWidth() == targetWidth
-                && occlusionPixmap.getHeight() == targetHeight) {
+        if (occlusionTexture != null && occlusionTextureWidth == targetWidth
+                && occlusionTextureHeight == targetHeight) {
             return;
         }
 
-        if (occlusionPixmap != null) {
-            occlusionPixmap.dispose();
-        }
         if (occlusionTexture != null) {
             occlusionTexture.dispose();
         }
 
-        occlusionPixmap = new Pixmap(targetWidth, targetHeight, Pixmap.Format.Alpha);
-        occlusionTexture = new Texture(occlusionPixmap);
+        // the texture starts cleared; slices are uploaded as they are written
+        occlusionTexture = new Texture(targetWidth, targetHeight, Pixmap.Format.Alpha);
         occlusionTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
         occlusionTexture.setWrap(Texture.TextureWrap.ClampToEdge, Texture.TextureWrap.ClampToEdge);
+        occlusionTextureWidth = targetWidth;
+        occlusionTextureHeight = targetHeight;
+        occlusionStaging = new byte[targetWidth * targetHeight];
+        occlusionSliceBuffer = BufferUtils.newByteBuffer(Math.max(1, viewWidth * viewHeight));
         occlusionDirty = true;
     }
-    private boolean shouldRefreshOcclusionMap(TileType[][] world, RenderContext context) {
-        if (world == null || context == null || occlusionTexture == null || occlusionPixmap == null) {
-            return false;
-        }
-        LightBounds bounds = context.litBounds;
-        int signature = computeWorldSignature(world, bounds);
-        boolean originChanged = viewOriginX != lastOcclusionOriginX || viewOriginY != lastOcclusionOriginY;
-        boolean lightsChanged = lastOcclusionLightHash != lastLightHash || lastOcclusionLightCount != lastLightCount;
-        return occlusionDirty || originChanged || signature != lastOcclusionWorldHash || lightsChanged;
-    }
-
 
-    private void refreshOcclusionMap(TileType[][] world, RenderContext context) {
-        occlusionPixmap.setColor(1f, 1f, 1f, 0f);
-        occlusionPixmap.fill();
-        if (world == null || occlusionTexture == null || occlusionPixmap == null || context == null) {
+    /**
+     * bring every light's occlusion slice up to date. Visibility is cast once per light tile
+     * and radius and reused from the cache; a slice is only rewritten when its light, the
+     * grid behind it or the view origin changed, and the texture is only uploaded if one was.
+     * Changed slices are refreshed avatar first, then nearest first, a batch at a time on the
+     * shadowcast workers until the frame's occlusion budget is spent; the rest keep showing
+     * their stale slice and are picked up again next frame. Only written slices are uploaded.
+     */
+    private void refreshOcclusionMap(TileType[][] world) {
+        lastOcclusionUploadNanos = 0L;
+        lastOcclusionUploadBytes = 0;
+        lastOcclusionUploadSlices = 0;
+        lastOcclusionDeferredSlices = 0;
+        if (world == null || occlusionTexture == null) {
             return;
         }
-        int lightIndex = 0;
-        for (LightSource light : activeLights) {
-            if (lightIndex >= MAX_LIGHTS) {
-                break;
-            }
-            float[][] visibility = computeVisibilityGrid(world, light);
-            int offsetX = viewWidth * lightIndex;
-            for (int sx = 0; sx < viewWidth; sx++) {
-                int worldX = viewOriginX + sx;
-                for (int sy = 0; sy < viewHeight; sy++) {
-                    int worldY = viewOriginY + sy;
-                    float visibilityValue = 0f;
-                    boolean inBounds = worldX >= 0 && worldX < worldWidth && worldY >= 0 && worldY < worldHeight;
-                    if (inBounds) {
-                        visibilityValue = visibility[sx][sy];
-                    }
-                    occlusionPixmap.setColor(1f, 1f, 1f, visibilityValue);
-                    occlusionPixmap.drawPixel(offsetX + sx, viewHeight - 1 - sy);
+        if (world != occlusionWorld) {
+            visibilityCache.invalidateAll();
+            occlusionWorld = world;
+            occlusionDirty = true;
+        }
+        occlusionFrame++;
+        boolean originChanged = viewOriginX != lastOcclusionOriginX || viewOriginY != lastOcclusionOriginY;
+        boolean rewriteAll = occlusionDirty || originChanged;
+        // lower tiers only catch up with moving lights every few frames
+        boolean deferMoves = !rewriteAll && occlusionFrame % qualityTier.occlusionInterval() != 0;
+        int lightCount = Math.min(activeLights.size(), MAX_LIGHTS);
+        sliceJobCount = 0;
+        occlusionScheduler.clear();
+
+        for (int slot = 0; slot < MAX_LIGHTS; slot++) {
+            if (slot >= lightCount) {
+                if (sliceGrids[slot] != null) {
+                    // the shader never samples unused slots, so clearing them can always wait
+                    queueSliceJob(slot, null, null, UNUSED_SLICE_PRIORITY);
+                } else if (rewriteAll) {
+                    sliceStale[slot] = true;
                 }
+                continue;
             }
-            lightIndex++;
+            if (deferMoves && sliceGrids[slot] != null) {
+                // the slot still shows a light, just where it was a frame or two ago
+                continue;
+            }
+            LightSource light = activeLights.get(slot);
+            VisibilityGrid grid = null;
+            boolean needsCast = false;
+            if (light.radius() > 0.0f) {
+                grid = visibilityCache.find((int) Math.floor(light.x()), (int) Math.floor(light.y()),
+                        (int) Math.ceil(light.radius()), occlusionFrame);
+                needsCast = grid == null;
+            }
+            boolean sliceCurrent = !rewriteAll
+                    && !needsCast
+                    && !sliceStale[slot]
+                    && sliceGrids[slot] == grid
+                    && (grid == null || sliceGridGenerations[slot] == grid.generation())
+                    && light.equals(sliceLights[slot]);
+            if (sliceCurrent) {
+                continue;
+            }
+            queueSliceJob(slot, light, grid, slicePriority(slot, light));
         }
 
         lastOcclusionOriginX = viewOriginX;
         lastOcclusionOriginY = viewOriginY;
-        lastOcclusionLightHash = lastLightHash;
-        lastOcclusionLightCount = lastLightCount;
-        lastOcclusionWorldHash = computeWorldSignature(world, context.litBounds);
         occlusionDirty = false;
-        occlusionTexture.draw(occlusionPixmap, 0, 0);
-    }
-
-
-    private float[][] computeVisibilityGrid(TileType[][] world, LightSource light) {
-        float[][] visibility = new float[viewWidth][viewHeight];
-        if (world == null || light == null || light.radius() <= 0.0f) {
-            return visibility;
-        }
-        int lightTileX = (int) Math.floor(light.x());
-        int lightTileY = (int) Math.floor(light.y());
-        setVisibility(visibility, light, lightTileX, lightTileY, 1f);
-
-        int radius = (int) Math.ceil(light.radius());
-        shadowcastOctant(visibility, world, light, radius, 1, 0, 0, 1);
-        shadowcastOctant(visibility, world, light, radius, 1, 0, 0, -1);
-        shadowcastOctant(visibility, world, light, radius, -1, 0, 0, 1);
-        shadowcastOctant(visibility, world, light, radius, -1, 0, 0, -1);
-        shadowcastOctant(visibility, world, light, radius, 0, 1, 1, 0);
-        shadowcastOctant(visibility, world, light, radius, 0, 1, -1, 0);
-        shadowcastOctant(visibility, world, light, radius, 0, -1, 1, 0);
-        shadowcastOctant(visibility, world, light, radius, 0, -1, -1, 0);
-
-        return visibility;
-    }
-
-    private void shadowcastOctant(float[][] visibility,
-                                  TileType[][] world,
-                                  LightSource light,
-                                  int radius,
-                                  int xx,
-                                  int xy,
-                                  int yx,
-                                  int yy) {
-        int originX = (int) Math.floor(light.x());
-        int originY = (int) Math.floor(light.y());
-        List<ShadowInterval> shadows = new ArrayList<>();
-        for (int row = 1; row <= radius; row++) {
-            if (isFullyShadowed(shadows)) {
-                break;
+        if (sliceJobCount == 0) {
+            return;
+        }
+        sliceJobWorld = world;
+        int done = occlusionScheduler.run(sliceBatch);
+        sliceJobWorld = null;
+        for (int position = done; position < occlusionScheduler.queued(); position++) {
+            int job = occlusionScheduler.job(position);
+            sliceStale[sliceJobSlots[job]] = true;
+            sliceJobLights[job] = null;
+            sliceJobGrids[job] = null;
+        }
+        lastOcclusionDeferredSlices = occlusionScheduler.deferred();
+        uploadDirtySlices(done);
+    }
+
+    /**
+     * avatar first, then by distance from it (or from the view center without one)
+     */
+    private float slicePriority(int slot, LightSource light) {
+        if (slot == 0 && avatarFx >= 0) {
+            return 0f;
+        }
+        double centerX = avatarFx >= 0 ? avatarFx : viewOriginX + viewWidth / 2.0;
+        double centerY = avatarFy >= 0 ? avatarFy : viewOriginY + viewHeight / 2.0;
+        double dx = light.x() - centerX;
+        double dy = light.y() - centerY;
+        return (float) (1.0 + dx * dx + dy * dy);
+    }
+
+    /**
+     * claim and cast the grids this batch needs, write its slices, then record what each slice
+     * now shows; runs on the render thread, fanning out to the shadowcast workers
+     */
+    private void runSliceBatch(int from, int to) {
+        boolean anyCast = false;
+        for (int position = from; position < to; position++) {
+            int job = occlusionScheduler.job(position);
+            LightSource light = sliceJobLights[job];
+            sliceJobCasts[job] = false;
+            if (light == null || light.radius() <= 0.0f || sliceJobGrids[job] != null) {
+                continue;
             }
-            for (int col = 0; col <= row; col++) {
-                int deltaX = -col;
-                int deltaY = -row;
-                float leftSlope = (deltaX - 0.5f) / (deltaY + 0.5f);
-                float rightSlope = (deltaX + 0.5f) / (deltaY - 0.5f);
-                float startSlope = Math.min(leftSlope, rightSlope);
-                float endSlope = Math.max(leftSlope, rightSlope);
-                if (isShadowed(shadows, startSlope, endSlope)) {
-                    continue;
-                }
-                int currentX = originX + deltaX * xx + deltaY * xy;
-                int currentY = originY + deltaX * yx + deltaY * yy;
-                double distanceFromLight = Math.hypot(deltaX, deltaY);
-                if (distanceFromLight <= light.radius()) {
-                    setVisibility(visibility, light, currentX, currentY, 1f);
-                }
-                if (isBlocking(world, currentX, currentY)) {
-                    addShadow(shadows, startSlope, endSlope);
-                }
+            int tileX = (int) Math.floor(light.x());
+            int tileY = (int) Math.floor(light.y());
+            int castRadius = (int) Math.ceil(light.radius());
+            // an earlier job may already have claimed this key; two lights can share a grid
+            VisibilityGrid grid = visibilityCache.find(tileX, tileY, castRadius, occlusionFrame);
+            if (grid == null) {
+                grid = visibilityCache.claim(tileX, tileY, castRadius, occlusionFrame);
+                sliceJobCasts[job] = true;
+                anyCast = true;
             }
-        }
+            sliceJobGrids[job] = grid;
+        }
+        sliceBatchFrom = from;
+        // cast every new grid before any slice reads one
+        if (anyCast) {
+            sliceJobCastPhase = true;
+            shadowcastPool.run(to - from, sliceJobTask);
+        }
+        sliceJobCastPhase = false;
+        shadowcastPool.run(to - from, sliceJobTask);
+
+        for (int position = from; position < to; position++) {
+            int job = occlusionScheduler.job(position);
+            int slot = sliceJobSlots[job];
+            VisibilityGrid grid = sliceJobGrids[job];
+            sliceGrids[slot] = grid;
+            sliceGridGenerations[slot] = grid == null ? 0 : grid.generation();
+            sliceLights[slot] = sliceJobLights[job];
+            sliceStale[slot] = false;
+        }
+    }
+
+    /**
+     * push the first count slices the scheduler ran to their sub-rectangles of the atlas
+     */
+    private void uploadDirtySlices(int count) {
+        long start = System.nanoTime();
+        int textureWidth = occlusionTextureWidth;
+        ByteBuffer slice = occlusionSliceBuffer;
+        // the texture sits on the occlusion unit so the batch's bound texture on unit 0 is untouched
+        occlusionTexture.bind(1);
+        Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+        for (int position = 0; position < count; position++) {
+            int job = occlusionScheduler.job(position);
+            int slot = sliceJobSlots[job];
+            int sliceStart = sliceOffset(slot, textureWidth);
+            slice.clear();
+            for (int row = 0; row < viewHeight; row++) {
+                slice.put(occlusionStaging, sliceStart + row * textureWidth, viewWidth);
+            }
+            slice.flip();
+            Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0,
+                    (slot % OCCLUSION_ATLAS_COLUMNS) * viewWidth, (slot / OCCLUSION_ATLAS_COLUMNS) * viewHeight,
+                    viewWidth, viewHeight, GL20.GL_ALPHA, GL20.GL_UNSIGNED_BYTE, slice);
+            sliceJobLights[job] = null;
+            sliceJobGrids[job] = null;
+        }
+        Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 4);
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+        lastOcclusionUploadSlices = count;
+        lastOcclusionUploadBytes = count * viewWidth * viewHeight;
+        lastOcclusionUploadNanos = System.nanoTime() - start;
     }
 
-    private void addShadow(List<ShadowInterval> shadows, float start, float end) {
-        int insertAt = 0;
-        while (insertAt < shadows.size() && shadows.get(insertAt).start <= start) {
-            insertAt++;
-        }
-        shadows.add(insertAt, new ShadowInterval(start, end));
-        mergeShadows(shadows);
+    /**
+     * time spent copying and uploading occlusion slices in the last lit frame
+     */
+    public long lastOcclusionUploadNanos() {
+        return lastOcclusionUploadNanos;
     }
 
-    private void mergeShadows(List<ShadowInterval> shadows) {
-        if (shadows.size() <= 1) {
-            return;
-        }
-        List<ShadowInterval> merged = new ArrayList<>();
-        ShadowInterval current = shadows.get(0);
-        for (int i = 1; i < shadows.size(); i++) {
-            ShadowInterval next = shadows.get(i);
-            if (next.start <= current.end) {
-                current = new ShadowInterval(current.start, Math.max(current.end, next.end));
-            } else {
-                merged.add(current);
-                current = next;
-            }
-        }
-        merged.add(current);
-        shadows.clear();
-        shadows.addAll(merged);
+    public int lastOcclusionUploadBytes() {
+        return lastOcclusionUploadBytes;
     }
 
-    private boolean isShadowed(List<ShadowInterval> shadows, float start, float end) {
-        for (ShadowInterval interval : shadows) {
-            if (start >= interval.start && end <= interval.end) {
-                return true;
-            }
-        }
-        return false;
+    public int lastOcclusionUploadSlices() {
+        return lastOcclusionUploadSlices;
     }
 
-    private boolean isFullyShadowed(List<ShadowInterval> shadows) {
-        if (shadows.isEmpty()) {
-            return false;
-        }
-        ShadowInterval interval = shadows.get(0);
-        return interval.start <= 0f && interval.end >= 1f;
+    /**
+     * changed slices left stale in the last lit frame because the occlusion budget ran out
+     */
+    public int lastOcclusionDeferredSlices() {
+        return lastOcclusionDeferredSlices;
     }
 
-    private void setVisibility(float[][] visibility, LightSource light, int worldX, int worldY, float amount) {
-        int screenX = worldX - viewOriginX;
-        int screenY = worldY - viewOriginY;
-        if (screenX < 0 || screenX >= viewWidth || screenY < 0 || screenY >= viewHeight) {
+    /**
+     * wall time the occlusion refresh may spend per frame before deferring slices; the
+     * avatar's slice and a batch after it are always written
+     */
+    public void setOcclusionBudgetMicros(int micros) {
+        occlusionScheduler.setBudgetNanos(Math.max(0L, micros * 1000L));
+    }
+
+    private void queueSliceJob(int slot, LightSource light, VisibilityGrid grid, float priority) {
+        sliceJobSlots[sliceJobCount] = slot;
+        sliceJobLights[sliceJobCount] = light;
+        sliceJobGrids[sliceJobCount] = grid;
+        sliceJobCasts[sliceJobCount] = false;
+        occlusionScheduler.add(sliceJobCount, priority);
+        sliceJobCount++;
+    }
+
+    // runs on the shadowcast workers over one batch; each job touches only its own grid or its own slice
+    private void runSliceJobs(int worker, int start, int end) {
+        if (sliceJobCastPhase) {
+            Shadowcaster caster = shadowcasters[worker];
+            for (int i = start; i < end; i++) {
+                int job = occlusionScheduler.job(sliceBatchFrom + i);
+                if (sliceJobCasts[job]) {
+                    caster.cast(sliceJobWorld, sliceJobGrids[job]);
+                }
+            }
             return;
         }
-        float distanceFade = distanceFade(light, worldX + 0.5, worldY + 0.5);
-        float value = Math.min(1f, amount * distanceFade * light.intensity());
-        visibility[screenX][screenY] = Math.max(visibility[screenX][screenY], value);
+        int textureWidth = viewWidth * OCCLUSION_ATLAS_COLUMNS;
+        for (int i = start; i < end; i++) {
+            int job = occlusionScheduler.job(sliceBatchFrom + i);
+            writeSlice(worker, occlusionStaging, textureWidth, sliceJobSlots[job], sliceJobLights[job], sliceJobGrids[job]);
+        }
+    }
+
+    /**
+     * index of a slot's top-left texel in the occlusion atlas
+     */
+    private int sliceOffset(int slot, int textureWidth) {
+        int column = slot % OCCLUSION_ATLAS_COLUMNS;
+        int row = slot / OCCLUSION_ATLAS_COLUMNS;
+        return row * viewHeight * textureWidth + column * viewWidth;
+    }
+
+    /**
+     * write one light's blurred visibility into its slice of the staging buffer, top row first.
+     * The blur reads real visibility a couple of tiles past the view edge so slices stay
+     * independent. A null light or grid clears the slice.
+     */
+    private void writeSlice(int worker, byte[] pixels, int textureWidth, int slot,
+                            LightSource light, VisibilityGrid grid) {
+        int sliceStart = sliceOffset(slot, textureWidth);
+        int margin = SeparableBlur.MARGIN;
+        int rawWidth = viewWidth + margin * 2;
+        int rawHeight = viewHeight + margin * 2;
+        int[] raw = sliceBlurSource[worker];
+        if (raw == null || raw.length < rawWidth * rawHeight) {
+            raw = new int[rawWidth * rawHeight];
+            sliceBlurSource[worker] = raw;
+        }
+        int[] scratch = sliceBlurScratch[worker];
+        if (scratch == null || scratch.length < viewWidth * rawHeight) {
+            scratch = new int[viewWidth * rawHeight];
+            sliceBlurScratch[worker] = scratch;
+        }
+        Arrays.fill(raw, 0, rawWidth * rawHeight, 0);
+        if (light != null && grid != null) {
+            int tileX = (int) Math.floor(light.x());
+            int tileY = (int) Math.floor(light.y());
+            // nothing outside the light's radius is lit, so only its bounding box needs evaluating
+            int reach = (int) Math.ceil(light.radius());
+            int minX = Math.max(0, tileX - reach - viewOriginX + margin);
+            int maxX = Math.min(rawWidth - 1, tileX + reach - viewOriginX + margin);
+            int minY = Math.max(0, tileY - reach - viewOriginY + margin);
+            int maxY = Math.min(rawHeight - 1, tileY + reach - viewOriginY + margin);
+            for (int ry = minY; ry <= maxY; ry++) {
+                int worldY = viewOriginY + ry - margin;
+                int rowStart = ry * rawWidth;
+                for (int rx = minX; rx <= maxX; rx++) {
+                    int worldX = viewOriginX + rx - margin;
+                    boolean inBounds = worldX >= 0 && worldX < worldWidth && worldY >= 0 && worldY < worldHeight;
+                    if (!inBounds || !grid.isVisible(worldX, worldY)) {
+                        continue;
+                    }
+                    int deltaX = worldX - tileX;
+                    int deltaY = worldY - tileY;
+                    boolean withinRadius = (deltaX == 0 && deltaY == 0)
+                            || Math.hypot(deltaX, deltaY) <= light.radius();
+                    if (withinRadius) {
+                        float distanceFade = distanceFade(light, worldX + 0.5, worldY + 0.5);
+                        raw[rowStart + rx] = (int) (Math.min(1f, distanceFade * light.intensity()) * 255f);
+                    }
+                }
+            }
+        }
+        int taps = qualityTier.blurTaps();
+        if (taps >= 5) {
+            SeparableBlur.blur(raw, viewWidth, viewHeight, scratch, pixels, sliceStart, textureWidth);
+        } else if (taps >= 3) {
+            SeparableBlur.blurNarrow(raw, viewWidth, viewHeight, scratch, pixels, sliceStart, textureWidth);
+        } else {
+            SeparableBlur.copy(raw, viewWidth, viewHeight, pixels, sliceStart, textureWidth);
+        }
     }
 
     private float distanceFade(LightSource light, double worldX, double worldY) {
@@ -692,42 +1337,6 @@ public class Renderer implements AutoCloseable {
         return t;
     }
 
-    private boolean isBlocking(TileType[][] world, int worldX, int worldY) {
-        if (world == null) {
-            return true;
-        }
-        if (worldX < 0 || worldY < 0 || worldX >= worldWidth || worldY >= worldHeight) {
-            return true;
-        }
-        return isBlockingTile(world[worldX][worldY]);
-    }
-
-    private boolean isBlockingTile(TileType tile) {
-        if (tile == null) {
-            return true;
-        }
-        return tile == TileType.WALL_TOP || tile == TileType.WALL_SIDE
-                || tile == TileType.LEFT_WALL || tile == TileType.BACK_WALL;
-    }
-
-    private int computeWorldSignature(TileType[][] world, LightBounds bounds) {
-        if (world == null || bounds == null) {
-            return 0;
-        }
-        int startX = Math.max(0, bounds.startX());
-        int endX = Math.min(world.length, bounds.endX());
-        int startY = Math.max(0, bounds.startY());
-        int endY = Math.min(world[0].length, bounds.endY());
-        int hash = 7;
-        for (int x = startX; x < endX; x++) {
-            for (int y = startY; y < endY; y++) {
-                TileType tile = world[x][y];
-                hash = 31 * hash + (tile == null ? 0 : tile.ordinal() + 1);
-            }
-        }
-        return hash;
-    }
-
     private int computeLightHash(List<LightSource> lights) {
         int hash = 11;
         for (LightSource light : lights) {
@@ -737,246 +1346,321 @@ public class Renderer implements AutoCloseable {
         return hash;
     }
 
-    private void updateLightUniforms() {
-        if (lightShader == null) {
+    private void updateLightUniforms(ShaderProgram shader) {
+        if (shader == null) {
             return;
         }
         boolean originChanged = lastUniformOriginX != viewOriginX || lastUniformOriginY != viewOriginY;
         boolean viewChanged = lastUniformViewWidth != viewWidth || lastUniformViewHeight != viewHeight;
-        if (uniformsDirty || originChanged || viewChanged) {
-            lightShader.bind();
-            lightShader.setUniformf("u_viewOrigin", viewOriginX, viewOriginY);
-            lightShader.setUniformf("u_viewSize", viewWidth, viewHeight);
-            lightShader.setUniformf("u_falloff", DEFAULT_FALLOFF);
-            lightShader.setUniformf("u_ambient", AMBIENT_LIGHT);
-            lightShader.setUniformi("u_lightCount", activeLights.size());
-
-            float[] lightPositions = new float[MAX_LIGHTS * 2];
-            float[] lightColors = new float[MAX_LIGHTS * 3];
-            float[] lightIntensities = new float[MAX_LIGHTS];
-            float[] lightRadii = new float[MAX_LIGHTS];
-            for (int i = 0; i < activeLights.size() && i < MAX_LIGHTS; i++) {
-                LightSource light = activeLights.get(i);
-                lightPositions[i * 2] = (float) light.x();
-                lightPositions[i * 2 + 1] = (float) light.y();
-                lightColors[i * 3] = light.color().r;
-                lightColors[i * 3 + 1] = light.color().g;
-                lightColors[i * 3 + 2] = light.color().b;
-                lightIntensities[i] = light.intensity();
-                lightRadii[i] = light.radius();
+        boolean shaderChanged = lastUniformShader != shader;
+        if (uniformsDirty || originChanged || viewChanged || shaderChanged) {
+            shader.bind();
+            shader.setUniformf("u_viewOrigin", viewOriginX, viewOriginY);
+            shader.setUniformf("u_viewSize", viewWidth, viewHeight);
+            shader.setUniformf("u_falloff", DEFAULT_FALLOFF);
+            shader.setUniformf("u_ambient", AMBIENT_LIGHT);
+            shader.setUniformf("u_lightCapacity", MAX_LIGHTS);
+            shader.setUniformf("u_tileSize", LightTileBinner.TILE_SIZE);
+            shader.setUniformf("u_tileCount", lightBinner.tilesX(), lightBinner.tilesY());
+            shader.setUniformf("u_occlusionGrid", OCCLUSION_ATLAS_COLUMNS, OCCLUSION_ATLAS_ROWS);
+            if (shader == raymarchShader) {
+                shader.setUniformf("u_worldSize", worldWidth, worldHeight);
             }
 
-            lightShader.setUniform2fv("u_lightPos", lightPositions, 0, lightPositions.length);
-            lightShader.setUniform3fv("u_lightColor", lightColors, 0, lightColors.length);
-            lightShader.setUniform1fv("u_lightIntensity", lightIntensities, 0, lightIntensities.length);
-            lightShader.setUniform1fv("u_lightRadius", lightRadii, 0, lightRadii.length);
-
             lastUniformOriginX = viewOriginX;
             lastUniformOriginY = viewOriginY;
             lastUniformViewWidth = viewWidth;
             lastUniformViewHeight = viewHeight;
+            lastUniformShader = shader;
             uniformsDirty = false;
         }
     }
 
-    private void updateAvatarUniform() {
-        if (lightShader == null) {
+    private void updateAvatarUniform(ShaderProgram shader) {
+        if (shader == null) {
             return;
         }
-        lightShader.bind();
-        lightShader.setUniformf(
+        shader.bind();
+        shader.setUniformf(
                 "u_cameraOffset",
                 (float) renderOffsetX,
                 (float) renderOffsetY
         );
     }
 
-    private void bindOcclusionTexture() {
-        if (occlusionTexture == null || lightShader == null) {
+    /**
+     * bin the active lights into screen tiles and upload the light data and tile lists
+     * when either changed; runs every lit frame since the camera offset moves the tiles
+     */
+    private void updateLightTiles() {
+        lightBinner.clear();
+        for (int i = 0; i < activeLights.size(); i++) {
+            LightSource light = activeLights.get(i);
+            Color color = light.color();
+            lightBinner.add(light.x(), light.y(), light.radius(), light.intensity(),
+                    color.r, color.g, color.b, activeLightImportance[i]);
+        }
+        boolean changed = lightBinner.bin(viewWidth, viewHeight, viewOriginX, viewOriginY,
+                renderOffsetX, renderOffsetY);
+        int tileListWidth = lightBinner.tilesX() * LightTileBinner.LIGHTS_PER_TILE;
+        if (lightDataTexture == null) {
+            lightDataPixmap = new Pixmap(MAX_LIGHTS, LightTileBinner.DATA_ROWS, Pixmap.Format.RGBA8888);
+            lightDataPixmap.setBlending(Pixmap.Blending.None);
+            lightDataTexture = createLookupTexture(lightDataPixmap);
+            changed = true;
+        }
+        if (tileListTexture == null || tileListPixmap.getWidth() != tileListWidth
+                || tileListPixmap.getHeight() != lightBinner.tilesY()) {
+            if (tileListTexture != null) {
+                tileListTexture.dispose();
+                tileListPixmap.dispose();
+            }
+            tileListPixmap = new Pixmap(tileListWidth, lightBinner.tilesY(), Pixmap.Format.RGBA8888);
+            tileListPixmap.setBlending(Pixmap.Blending.None);
+            tileListTexture = createLookupTexture(tileListPixmap);
+            uniformsDirty = true;
+            changed = true;
+        }
+        if (!changed) {
             return;
         }
-        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE1);
-        occlusionTexture.bind();
-        lightShader.setUniformi("u_occlusionMap", 1);
-        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+        lightBinner.copyLightData(lightDataPixmap.getPixels());
+        lightDataTexture.draw(lightDataPixmap, 0, 0);
+        lightBinner.copyTileLists(tileListPixmap.getPixels());
+        tileListTexture.draw(tileListPixmap, 0, 0);
     }
 
-    private void addTileDraws(TileType[][] world,
-                              RenderContext context,
-                              List<RenderOp> ops,
-                              int coverCutoff) {
-        for (int x = context.startX; x < context.endX; x++) {
-            for (int y = context.startY; y < context.endY; y++) {
-                TileType tile = world[x][y];
+    private static Texture createLookupTexture(Pixmap pixmap) {
+        Texture texture = new Texture(pixmap);
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        texture.setWrap(Texture.TextureWrap.ClampToEdge, Texture.TextureWrap.ClampToEdge);
+        return texture;
+    }
 
-                if (tile == null) {
-                    throw new IllegalArgumentException("Tile at " + x + "," + y + " is null.");
-                }
+    private void bindLightTileTextures(ShaderProgram shader) {
+        if (lightDataTexture == null || tileListTexture == null) {
+            return;
+        }
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE2);
+        lightDataTexture.bind();
+        shader.setUniformi("u_lightData", 2);
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE3);
+        tileListTexture.bind();
+        shader.setUniformi("u_tileLights", 3);
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+    }
 
-                TETile teTile = getTETile(tile);
-                if (teTile == null) {
-                    continue;
-                }
-                DrawLayer layer = tileLayer(tile, y, coverCutoff);
-                double screenX = toScreenX(x);
-                double screenY = toScreenY(y);
-                ops.add(new RenderOp(y, layer, x, () -> teTile.drawSized(screenX, screenY, 1.0)));
-            }
+    private void bindWallMaskTexture() {
+        if (wallMaskTexture == null || raymarchShader == null) {
+            return;
         }
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE1);
+        wallMaskTexture.bind();
+        raymarchShader.setUniformi("u_wallMask", 1);
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
     }
 
-    private void addCorpseDraws(List<Corpse> corpses, RenderContext context, List<RenderOp> ops) {
-        if (corpses == null) {
+    private void bindOcclusionTexture() {
+        if (occlusionTexture == null || lightShader == null) {
             return;
         }
-        for (Corpse corpse : corpses) {
-            if (!context.withinLightWindow(corpse.x(), corpse.y())) {
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE1);
+        occlusionTexture.bind();
+        lightShader.setUniformi("u_occlusionMap", 1);
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+    }
+
+    private void addCorpseDraws(RenderSnapshot snapshot, RenderContext context) {
+        for (int i = 0; i < snapshot.corpseCount(); i++) {
+            int x = snapshot.corpseX(i);
+            int y = snapshot.corpseY(i);
+            if (!context.withinLightWindow(x, y)) {
+                renderOpsCulled++;
                 continue;
             }
-            double screenX = toScreenX(corpse.x());
-            double screenY = toScreenY(corpse.y());
-            ops.add(new RenderOp(corpse.y(), DrawLayer.ITEM, corpse.x(),
-                    () -> corpse.tile().drawSized(screenX, screenY, 1.0)));
+            renderQueue.add(DrawLayer.ITEM.order, y, x, snapshot.corpseFrame(i),
+                    (float) toScreenX(x), (float) toScreenY(y), 1f, 1f);
         }
     }
 
-    private void addDroppedItemDraws(List<DroppedItem> drops, RenderContext context, List<RenderOp> ops) {
-        if (drops == null) {
+    private void addDroppedItemDraws(RenderSnapshot snapshot, RenderContext context) {
+        if (snapshot.dropCount() == 0) {
             return;
         }
-        for (DroppedItem drop : drops) {
-            if (!context.withinLightWindow(drop.x(), drop.y())) {
+        TextureRegion lootBag = Tileset.LOOT_BAG.resolveRegion();
+        for (int i = 0; i < snapshot.dropCount(); i++) {
+            int x = snapshot.dropX(i);
+            int y = snapshot.dropY(i);
+            if (!context.withinLightWindow(x, y)) {
+                renderOpsCulled++;
                 continue;
             }
-            double screenX = toScreenX(drop.x());
-            double screenY = toScreenY(drop.y());
-            ops.add(new RenderOp(drop.y(), DrawLayer.ITEM, drop.x(),
-                    () -> Tileset.LOOT_BAG.drawSized(screenX, screenY, 1.0)));
+            renderQueue.add(DrawLayer.ITEM.order, y, x, lootBag,
+                    (float) toScreenX(x), (float) toScreenY(y), 1f, 1f);
         }
     }
 
-    private void addNpcDraws(NpcManager npcManager, RenderContext context, List<RenderOp> ops) {
-        if (npcManager == null) {
-            return;
-        }
-        for (Npc npc : npcManager.npcs()) {
-            if (!context.withinLightWindow(npc.x(), npc.y())) {
+    private void addNpcDraws(RenderSnapshot snapshot, RenderContext context) {
+        for (int i = 0; i < snapshot.npcCount(); i++) {
+            // no frame means the simulation already judged it out of sight
+            if (snapshot.npcFrame(i) == null
+                    || !context.withinLightWindow(snapshot.npcTileX(i), snapshot.npcTileY(i))) {
+                renderOpsCulled++;
                 continue;
             }
-            npc.updateSmooth(SMOOTH_SPEED);
-            double drawX = npc.drawX();
-            double drawY = npc.drawY();
-            double screenX = toScreenX(drawX);
-            double screenY = toScreenY(drawY);
+            double drawX = snapshot.npcDrawX(i);
+            double drawY = snapshot.npcDrawY(i);
             double groundY = Math.floor(drawY);
 
             // Use same scale as avatar for consistency
             double scale = 4.0;
             double offset = (scale - 1.0) / 2.0;
 
-            ops.add(new RenderOp(groundY, DrawLayer.ENTITY, drawX,
-                    () -> {
-                        com.badlogic.gdx.graphics.g2d.TextureRegion frame = npc.currentFrame();
-                        if (frame != null && batch != null) {
-                            batch.draw(frame,
-                                    (float) (screenX - offset),
-                                    (float) (screenY - offset),
-                                    (float) scale,
-                                    (float) scale);
-                        }
-                    }));
+            renderQueue.add(DrawLayer.ENTITY.order, groundY, drawX, snapshot.npcFrame(i),
+                    (float) (toScreenX(drawX) - offset),
+                    (float) (toScreenY(drawY) - offset),
+                    (float) scale,
+                    (float) scale);
         }
     }
 
-    private void addAvatarDraw(AvatarDraw avatarDraw, RenderContext context, List<RenderOp> ops) {
-        if (avatarDraw == null || avatarDraw.sprite() == null) {
+    private void addAvatarDraw(RenderSnapshot snapshot, RenderContext context) {
+        if (!snapshot.hasAvatar() || snapshot.avatarFrame() == null) {
             return;
         }
-        int avatarTileX = (int) Math.round(avatarDraw.x());
-        int avatarTileY = (int) Math.round(avatarDraw.y());
+        double x = snapshot.avatarDrawX();
+        double y = snapshot.avatarDrawY();
+        int avatarTileX = (int) Math.round(x);
+        int avatarTileY = (int) Math.round(y);
         if (!context.contains(avatarTileX, avatarTileY)) {
+            renderOpsCulled++;
             return;
         }
-        double screenX = toScreenX(avatarDraw.x());
-        double screenY = toScreenY(avatarDraw.y());
-        double groundY = Math.floor(avatarDraw.y());
-
+        double groundY = Math.floor(y);
 
         // Apply scale and center the sprite on the tile
         // If scale is 3.0, sprite takes 3 tiles, so offset by -1 tile to center it
-        double scale = avatarDraw.scale();
+        double scale = snapshot.avatarScale();
         double offset = (scale - 1.0) / 2.0;
 
-        ops.add(new RenderOp(groundY, DrawLayer.ENTITY, avatarDraw.x(),
-                () -> batch.draw(avatarDraw.sprite(),
-                        (float) (screenX - offset),
-                        (float) (screenY - offset),
-                        (float) scale,
-                        (float) scale)));
+        renderQueue.add(DrawLayer.ENTITY.order, groundY, x, snapshot.avatarFrame(),
+                (float) (toScreenX(x) - offset),
+                (float) (toScreenY(y) - offset),
+                (float) scale,
+                (float) scale);
     }
 
-    private DrawLayer tileLayer(TileType tile, int y, int coverCutoff) {
-        if (isFloor(tile)) {
-            return DrawLayer.BACKGROUND;
-        }
+    public void resetFont() { }
 
-        // Wall tops should ALWAYS cover entities
-        if (isTopWall(tile)) {
-            return DrawLayer.COVER;
+    /**
+     * count GL draw calls, texture binds and shader switches per frame; off by default
+     * since the profiler wraps every GL call
+     */
+    public void setProfiling(boolean enabled) {
+        if (glProfiler == null) {
+            if (!enabled || Gdx.graphics == null) {
+                return;
+            }
+            glProfiler = new GLProfiler(Gdx.graphics);
         }
-
-        // Side walls only cover when above entities
-        if (isSideWall(tile) && y < coverCutoff) {
-            return DrawLayer.COVER;
+        if (enabled) {
+            glProfiler.reset();
+            glProfiler.enable();
+        } else {
+            glProfiler.disable();
         }
+    }
 
-        return DrawLayer.BACKGROUND;
+    public boolean isProfiling() {
+        return glProfiler != null && glProfiler.isEnabled();
     }
 
-    private int computeCoverCutoff(NpcManager npcManager, AvatarDraw avatarDraw, RenderContext context) {
-        int cutoff = context.startY;
-        if (avatarDraw != null) {
-            cutoff = Math.min(cutoff, (int) Math.floor(avatarDraw.y()) - 1);        }
-        if (npcManager != null) {
-            for (Npc npc : npcManager.npcs()) {
-                cutoff = Math.min(cutoff, npc.y() - 1);
-            }
+    /**
+     * latch this frame's GL counts and start the next frame from zero; call once after drawing
+     */
+    public void endFrameStats() {
+        if (!isProfiling()) {
+            return;
         }
-        return cutoff;
+        lastFrameDrawCalls = glProfiler.getDrawCalls();
+        lastFrameTextureBindings = glProfiler.getTextureBindings();
+        lastFrameShaderSwitches = glProfiler.getShaderSwitches();
+        lastFrameVertices = (int) glProfiler.getVertexCount().total;
+        glProfiler.reset();
     }
 
+    public int lastFrameDrawCalls() {
+        return lastFrameDrawCalls;
+    }
 
+    public int lastFrameTextureBindings() {
+        return lastFrameTextureBindings;
+    }
 
-    private TETile getTETile(TileType type) {
-        if (type == null) {
-            return null;
-        }
-        return switch (type) {
-            case FLOOR -> Tileset.FLOOR;
-            case ELEVATOR -> Tileset.ELEVATOR;
-            case WALL_TOP -> Tileset.WALL_TOP;
-            case WALL_SIDE -> Tileset.WALL_SIDE;
-            case LEFT_WALL -> Tileset.LEFT_WALL;
-            case BACK_WALL -> Tileset.BACK_WALL;
-            case NOTHING -> null;
-        };
+    public int lastFrameShaderSwitches() {
+        return lastFrameShaderSwitches;
     }
 
-    private boolean isFloor(TileType t) {
-        return t == TileType.FLOOR || t == TileType.ELEVATOR;
+    public int lastFrameVertices() {
+        return lastFrameVertices;
     }
 
-    private boolean isSideWall(TileType t) {
-        return t == TileType.LEFT_WALL
-                || t == TileType.WALL_SIDE;
+    /**
+     * sprites queued by the last {@link #drawWorld} call
+     */
+    public int renderOpsQueued() {
+        return renderQueue.size();
     }
 
-    private boolean isTopWall(TileType t) {
-        return t == TileType.WALL_TOP
-                || t == TileType.BACK_WALL;
+    /**
+     * entities skipped by the last {@link #drawWorld} call for being outside the view
+     */
+    public int renderOpsCulled() {
+        return renderOpsCulled;
     }
 
-    public void resetFont() { }
+    public int activeLightCount() {
+        return activeLights.size();
+    }
+
+    /**
+     * lights left out by the light budget in the last {@link #updateLights} call
+     */
+    public int droppedLightCount() {
+        return Math.max(0, lastLightSourceCount - activeLights.size());
+    }
+
+    /**
+     * light-to-tile assignments dropped by the per-tile budget in the last lighting pass
+     */
+    public int tileLightOverflow() {
+        return lightBinner.overflow();
+    }
+
+    public int particleCount() {
+        return particles.size();
+    }
+
+    /**
+     * particles cut from bursts so far because the pool was full
+     */
+    public long droppedParticles() {
+        return particles.dropped();
+    }
+
+    /**
+     * bursts the effect queue turned away so far because it was full, as of the last {@link #drawEffects}
+     */
+    public int droppedEffectEvents() {
+        return droppedEffectEvents;
+    }
+
+    /**
+     * time the last {@link #drawEffects} call spent spawning, stepping and batching particles
+     */
+    public long lastEffectsNanos() {
+        return lastEffectsNanos;
+    }
 
     public void clearScreen() {
         Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
@@ -1062,6 +1746,14 @@ public class Renderer implements AutoCloseable {
     }
 
     public void dispose() {
+        bindTiles(null);
+        minimap.dispose();
+        if (glProfiler != null) {
+            glProfiler.disable();
+            glProfiler = null;
+        }
+        staticTiles.dispose();
+        shadowcastPool.close();
         if (batch != null) {
             batch.dispose();
             batch = null;
@@ -1074,18 +1766,46 @@ public class Renderer implements AutoCloseable {
             lightMaskTexture.dispose();
             lightMaskTexture = null;
         }
+        if (particleTexture != null) {
+            particleTexture.dispose();
+            particleTexture = null;
+        }
         if (occlusionTexture != null) {
             occlusionTexture.dispose();
             occlusionTexture = null;
         }
-        if (occlusionPixmap != null) {
-            occlusionPixmap.dispose();
-            occlusionPixmap = null;
+        if (lightingBuffer != null) {
+            lightingBuffer.dispose();
+            lightingBuffer = null;
+        }
+        occlusionSliceBuffer = null;
+        occlusionTextureWidth = 0;
+        occlusionTextureHeight = 0;
+        if (lightDataTexture != null) {
+            lightDataTexture.dispose();
+            lightDataPixmap.dispose();
+            lightDataTexture = null;
+            lightDataPixmap = null;
+        }
+        if (tileListTexture != null) {
+            tileListTexture.dispose();
+            tileListPixmap.dispose();
+            tileListTexture = null;
+            tileListPixmap = null;
         }
         if (lightShader != null) {
             lightShader.dispose();
             lightShader = null;
         }
+        if (raymarchShader != null) {
+            raymarchShader.dispose();
+            raymarchShader = null;
+        }
+        if (wallMaskTexture != null) {
+            wallMaskTexture.dispose();
+            wallMaskTexture = null;
+        }
+        wallMaskWorld = null;
         if (textureAtlas != null) {
             textureAtlas = null;
         }
@@ -0,0 +1,74 @@
+package com.untitledgame.animation;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One registered animation flattened for lookup: its frames and the frame shown on each
+ * tick of one cycle, taken from the animation's own play mode when the clip is built.
+ * Past the end of the cycle a looping clip wraps and any other clip holds its last frame.
+ * Forward and reversed modes are represented exactly; ping-pong and random are not.
+ * Clips of the same shape share one table, so a crowd of entities reads a few hot arrays.
+ */
+final class AnimationClip {
+    // by frame duration bits, frame count and play mode; the few shapes the factory registers
+    private static final Map<Long, int[]> TABLES = new ConcurrentHashMap<>();
+
+    final TextureRegion[] frames;
+    // frame index per tick of state time over one cycle; shared, never written after building
+    final int[] frameAtTick;
+    /** drawn as a loop; {@link AnimationController#getCurrentFrame()} reads the table itself */
+    final boolean looping;
+    /** the play mode itself loops; {@link AnimationController#getCurrentFrameIndex()} follows it */
+    final boolean modeLoops;
+    final float frameDuration;
+
+    /**
+     * @param looping whether the owner draws this type as a loop; as with
+     *                {@link Animation#getKeyFrame(float, boolean)}, forward looping play modes loop regardless
+     */
+    AnimationClip(Animation<TextureRegion> animation, boolean looping, double tickSeconds) {
+        this.frames = animation.getKeyFrames();
+        Animation.PlayMode mode = animation.getPlayMode();
+        this.modeLoops = mode == Animation.PlayMode.LOOP || mode == Animation.PlayMode.LOOP_REVERSED
+                || mode == Animation.PlayMode.LOOP_PINGPONG || mode == Animation.PlayMode.LOOP_RANDOM;
+        this.looping = looping || (modeLoops && mode != Animation.PlayMode.LOOP_REVERSED);
+        this.frameDuration = animation.getFrameDuration();
+        int ticksPerFrame = Math.max(1, (int) Math.round(frameDuration / tickSeconds));
+        long shape = ((long) Float.floatToIntBits(frameDuration) << 32) | ((long) frames.length << 3) | mode.ordinal();
+        this.frameAtTick = TABLES.computeIfAbsent(shape, key -> buildTable(animation, ticksPerFrame, tickSeconds));
+    }
+
+    private static int[] buildTable(Animation<TextureRegion> animation, int ticksPerFrame, double tickSeconds) {
+        int frameCount = animation.getKeyFrames().length;
+        int[] table = new int[Math.max(1, frameCount * ticksPerFrame)];
+        for (int tick = 0; tick < table.length; tick++) {
+            // sample mid-tick so float rounding at frame edges cannot pick the neighbour
+            float stateTime = (float) ((tick + 0.5) * tickSeconds);
+            table[tick] = frameCount == 0 ? 0 : animation.getKeyFrameIndex(stateTime);
+        }
+        return table;
+    }
+
+    /**
+     * frame index after the given number of ticks as the play mode would report it
+     */
+    int modeFrame(int ticks) {
+        return frameAt(ticks, modeLoops);
+    }
+
+    boolean isFinished(int ticks) {
+        return ticks >= frameAtTick.length;
+    }
+
+    private int frameAt(int ticks, boolean wrap) {
+        int cycle = frameAtTick.length;
+        if (ticks < cycle) {
+            return frameAtTick[ticks];
+        }
+        return wrap ? frameAtTick[ticks % cycle] : frameAtTick[cycle - 1];
+    }
+}
@@ -4,40 +4,73 @@ import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.untitledgame.logic.Direction;
 
-import java.util.ArrayList;
-import java.util.EnumMap;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Centralized animation controller that manages animation state for entities.
  * Follows libGDX animation system best practices as per https://libgdx.com/wiki/
+ * State time is the controller's clock minus the time the current animation started, so
+ * an owner can either advance the clock every frame with {@link #update(float)} or jump it
+ * forward with {@link #advanceTo(double)} only when a frame is actually needed.
+ * Each registered animation is flattened into an {@link AnimationClip} whose frame is looked
+ * up per tick of state time, so a frame costs one modulo and one array read.
  */
 public class AnimationController {
     private static final int MS_PER_S = 1000;
     private static final int TICK_MS = 40;
+    private static final double TICK_SECONDS = TICK_MS / (double) MS_PER_S;
+    private static final double TICKS_PER_SECOND = MS_PER_S / (double) TICK_MS;
+    // absorbs clock rounding so a state time of exactly n ticks is not read as n - 1
+    private static final double TICK_EPSILON = 1e-6;
+    private static final int DIRECTIONS = Direction.values().length;
+    private static final AnimationClip[] NO_VARIANTS = new AnimationClip[0];
+    // types that start from frame 0 whenever they are entered rather than carrying the frame over
+    private static final boolean[] RESTARTS_ON_ENTRY = new boolean[AnimationType.values().length];
+    // types drawn as loops: IDLE, WALK, RUN; the rest hold their last frame unless their play mode loops
+    private static final boolean[] LOOPING = new boolean[AnimationType.values().length];
 
-    private final EnumMap<AnimationType, EnumMap<Direction, List<Animation<TextureRegion>>>> animations;
+    static {
+        for (AnimationType type : new AnimationType[]{AnimationType.IDLE, AnimationType.ATTACK,
+                AnimationType.DEATH, AnimationType.TAKE_DAMAGE, AnimationType.DODGE1, AnimationType.DODGE2,
+                AnimationType.KICK, AnimationType.BLOCK, AnimationType.DASH}) {
+            RESTARTS_ON_ENTRY[type.ordinal()] = true;
+        }
+        LOOPING[AnimationType.IDLE.ordinal()] = true;
+        LOOPING[AnimationType.WALK.ordinal()] = true;
+        LOOPING[AnimationType.RUN.ordinal()] = true;
+    }
+
+    // variants per type and direction, at type.ordinal() * DIRECTIONS + direction.ordinal()
+    private final AnimationClip[][] clips;
     private AnimationType currentAnimationType;
     private Direction currentDirection;
-    private Animation<TextureRegion> currentAnimation;
-    private float stateTime;
+    private AnimationClip currentClip;
+    // the current clip's drawing state, copied out so a frame lookup reads no clip object
+    private TextureRegion[] currentFrames;
+    private int[] currentTable;
+    private boolean currentLooping;
+    private double clockSeconds;
+    // clock reading at which the current animation's state time was zero
+    private double startSeconds;
     private int currentAnimationVariant; // Track which variant is active
 
     public AnimationController() {
-        this.animations = new EnumMap<>(AnimationType.class);
+        this.clips = new AnimationClip[AnimationType.values().length * DIRECTIONS][];
+        Arrays.fill(clips, NO_VARIANTS);
         this.currentAnimationType = AnimationType.IDLE;
         this.currentDirection = Direction.DOWN;
-        this.stateTime = 0f;
         this.currentAnimationVariant = 0;
     }
 
     /**
      * Register an animation for a specific type and direction.
+     * Its frame table is built here, so later changes to the animation are not seen.
      */
     public void registerAnimation(AnimationType type, Direction direction, Animation<TextureRegion> animation) {
-        animations.computeIfAbsent(type, k -> new EnumMap<>(Direction.class))
-                .computeIfAbsent(direction, d -> new ArrayList<>())
-                .add(animation);
+        int slot = slot(type, direction);
+        AnimationClip[] variants = Arrays.copyOf(clips[slot], clips[slot].length + 1);
+        variants[variants.length - 1] = new AnimationClip(animation, LOOPING[type.ordinal()], TICK_SECONDS);
+        clips[slot] = variants;
     }
 
     /**
@@ -53,47 +86,40 @@ public class AnimationController {
      * Automatically handles state time transitions.
      */
     public void setAnimation(AnimationType type, Direction direction, int variant) {
-        EnumMap<Direction, List<Animation<TextureRegion>>> byDirection = animations.get(type);
-        if (byDirection == null) {
+        if (type == null || direction == null) {
             return;
         }
-
-        List<Animation<TextureRegion>> variants = byDirection.get(direction);
-        if (variants == null || variants.isEmpty()) {
+        AnimationClip[] variants = clips[slot(type, direction)];
+        if (variants.length == 0) {
             return;
         }
 
         // Clamp variant to available animations
-        int safeVariant = Math.max(0, Math.min(variant, variants.size() - 1));
-        Animation<TextureRegion> newAnimation = variants.get(safeVariant);
-        if (newAnimation == null) {
-            return;
-        }
+        int safeVariant = Math.max(0, Math.min(variant, variants.length - 1));
+        AnimationClip newClip = variants[safeVariant];
 
         boolean typeChanged = type != currentAnimationType;
-        boolean animationChanged = newAnimation != currentAnimation;
+        boolean animationChanged = newClip != currentClip;
 
         if (typeChanged) {
-            // Reset state time for certain transitions
-            // Reset when switching TO IDLE, ATTACK, or DEATH to start from frame 0
-            if (type == AnimationType.IDLE || type == AnimationType.ATTACK
-                    || type == AnimationType.DEATH || type == AnimationType.TAKE_DAMAGE
-                    || type == AnimationType.DODGE1 || type == AnimationType.DODGE2
-                    || type == AnimationType.KICK || type == AnimationType.BLOCK
-                    || type == AnimationType.DASH) {
-                stateTime = 0f;
+            // Reset state time for certain transitions so they start from frame 0
+            if (RESTARTS_ON_ENTRY[type.ordinal()]) {
+                startSeconds = clockSeconds;
             } else {
                 // Carry over state time for smooth transitions (e.g., walk to run)
-                stateTime = carryStateTime(currentAnimation, newAnimation, stateTime);
+                startSeconds = clockSeconds - carryStateTime(currentClip, newClip, stateTicks());
             }
         } else if (animationChanged) {
             // Direction changed, carry over state time
-            stateTime = carryStateTime(currentAnimation, newAnimation, stateTime);
+            startSeconds = clockSeconds - carryStateTime(currentClip, newClip, stateTicks());
         }
 
         currentAnimationType = type;
         currentDirection = direction;
-        currentAnimation = newAnimation;
+        currentClip = newClip;
+        currentFrames = newClip.frames;
+        currentTable = newClip.frameAtTick;
+        currentLooping = newClip.looping;
         currentAnimationVariant = safeVariant;
     }
 
@@ -102,22 +128,42 @@ public class AnimationController {
      * @param deltaSeconds Time elapsed since last frame in seconds
      */
     public void update(float deltaSeconds) {
-        stateTime += deltaSeconds;
+        clockSeconds += deltaSeconds;
+    }
+
+    /**
+     * Move the clock to an absolute time, e.g. the simulation clock when the frame is needed.
+     * The clock never runs backwards.
+     * @param seconds Time on the owner's clock in seconds
+     */
+    public void advanceTo(double seconds) {
+        if (seconds > clockSeconds) {
+            clockSeconds = seconds;
+        }
+    }
+
+    /**
+     * whole ticks of state time, the index into the current clip's frame table
+     */
+    private int stateTicks() {
+        double ticks = (clockSeconds - startSeconds) * TICKS_PER_SECOND + TICK_EPSILON;
+        return ticks <= 0.0 ? 0 : (int) ticks;
     }
 
     /**
      * Get the current animation frame.
      */
     public TextureRegion getCurrentFrame() {
-        if (currentAnimation == null) {
+        TextureRegion[] frames = currentFrames;
+        if (frames == null || frames.length == 0) {
             return null;
         }
-        // Non-looping animations: DEATH, ATTACK, TAKE_DAMAGE, DODGE, KICK, BLOCK
-        // Looping animations: IDLE, WALK, RUN
-        boolean looping = currentAnimationType == AnimationType.IDLE
-                || currentAnimationType == AnimationType.WALK
-                || currentAnimationType == AnimationType.RUN;
-        return currentAnimation.getKeyFrame(stateTime, looping);
+        int[] table = currentTable;
+        int ticks = stateTicks();
+        if (ticks >= table.length) {
+            ticks = currentLooping ? ticks % table.length : table.length - 1;
+        }
+        return frames[table[ticks]];
     }
 
     /**
@@ -127,10 +173,10 @@ public class AnimationController {
      * @return The texture region at the specified index, or null if invalid
      */
     public TextureRegion getFrameAtIndex(int frameIndex) {
-        if (currentAnimation == null) {
+        if (currentClip == null) {
             return null;
         }
-        TextureRegion[] frames = currentAnimation.getKeyFrames();
+        TextureRegion[] frames = currentClip.frames;
         if (frameIndex < 0 || frameIndex >= frames.length) {
             return null;
         }
@@ -142,20 +188,20 @@ public class AnimationController {
      * @return The current frame index, or -1 if no animation is set
      */
     public int getCurrentFrameIndex() {
-        if (currentAnimation == null) {
+        if (currentClip == null) {
             return -1;
         }
-        return currentAnimation.getKeyFrameIndex(stateTime);
+        return currentClip.modeFrame(stateTicks());
     }
 
     /**
      * Check if the current animation has finished (for non-looping animations).
      */
     public boolean isAnimationFinished() {
-        if (currentAnimation == null) {
+        if (currentClip == null) {
             return true;
         }
-        return currentAnimation.isAnimationFinished(stateTime);
+        return currentClip.isFinished(stateTicks());
     }
 
     /**
@@ -176,7 +222,7 @@ public class AnimationController {
      * Reset state time to 0.
      */
     public void resetStateTime() {
-        stateTime = 0f;
+        startSeconds = clockSeconds;
     }
 
     /**
@@ -184,26 +230,26 @@ public class AnimationController {
      * This ensures consistent timing across all animations.
      */
     public static float frameDurationSeconds(int ticksPerFrame) {
-        return (float) (ticksPerFrame * (TICK_MS / (double) MS_PER_S));
+        return (float) (ticksPerFrame * TICK_SECONDS);
     }
 
     /**
      * Carry state time from one animation to another for smooth transitions.
      * Clamps the frame index to prevent exceeding the new animation's frame count.
      */
-    private float carryStateTime(Animation<TextureRegion> previous, Animation<TextureRegion> next, float previousStateTime) {
-        if (previous == null || next == null) {
-            return 0f;
-        }
-        TextureRegion[] nextFrames = next.getKeyFrames();
-        if (nextFrames.length == 0) {
+    private static float carryStateTime(AnimationClip previous, AnimationClip next, int previousTicks) {
+        if (previous == null || next == null || next.frames.length == 0) {
             return 0f;
         }
-        int frameIndex = previous.getKeyFrameIndex(previousStateTime);
+        int frameIndex = previous.modeFrame(previousTicks);
         // Clamp frame index to the new animation's bounds
-        int maxFrameIndex = nextFrames.length - 1;
+        int maxFrameIndex = next.frames.length - 1;
         frameIndex = Math.min(frameIndex, maxFrameIndex);
-        return frameIndex * next.getFrameDuration();
+        return frameIndex * next.frameDuration;
+    }
+
+    private static int slot(AnimationType type, Direction direction) {
+        return type.ordinal() * DIRECTIONS + direction.ordinal();
     }
 
     /**
@@ -0,0 +1,77 @@
+package com.untitledgame.assets;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.List;
+
+/**
+ * Packs tile images and whole sprite sheets into shared atlas pages at load time, so the
+ * world, entities and loot all draw from one or two textures instead of one per file.
+ * Region keys are the same as when every file was its own texture.
+ */
+public final class AtlasPacker {
+    /** page edge in pixels; everything the game ships fits on one page at this size */
+    public static final int PAGE_SIZE = 2048;
+    // transparent gap between packed images so linear sampling never picks up a neighbour
+    private static final int PADDING = 2;
+
+    private AtlasPacker() {
+    }
+
+    /**
+     * pack the given images, which must be loaded into the asset manager as {@link Pixmap}s,
+     * and unload the source pixmaps afterwards. The returned atlas owns the page textures.
+     */
+    public static TextureAtlas pack(AssetManager assets, List<String> tilePaths, List<SpriteSheetConfig> spriteSheets) {
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, PADDING, false);
+        try {
+            for (String path : tilePaths) {
+                packer.pack(path, assets.get(path, Pixmap.class));
+            }
+            for (SpriteSheetConfig config : spriteSheets) {
+                packer.pack(config.getPath(), assets.get(config.getPath(), Pixmap.class));
+            }
+            TextureAtlas pages = packer.generateTextureAtlas(
+                    Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+
+            TextureAtlas built = new TextureAtlas();
+            for (String path : tilePaths) {
+                built.addRegion(stripExtension(path), packedRegion(pages, path));
+            }
+            for (SpriteSheetConfig config : spriteSheets) {
+                SpriteSheetLoader.loadSpriteSheet(built, packedRegion(pages, config.getPath()), config);
+            }
+            return built;
+        } finally {
+            // the pages have been uploaded; the packer's copies and the sources are no longer needed
+            packer.dispose();
+            for (String path : tilePaths) {
+                assets.unload(path);
+            }
+            for (SpriteSheetConfig config : spriteSheets) {
+                assets.unload(config.getPath());
+            }
+        }
+    }
+
+    private static TextureRegion packedRegion(TextureAtlas pages, String path) {
+        TextureRegion region = pages.findRegion(path);
+        if (region == null) {
+            throw new IllegalStateException("Image was not packed: " + path);
+        }
+        return region;
+    }
+
+    private static String stripExtension(String path) {
+        int dot = path.lastIndexOf('.');
+        if (dot <= 0) {
+            return path;
+        }
+        return path.substring(0, dot);
+    }
+}
@@ -1,8 +1,6 @@
 package com.untitledgame.assets;
 
 
-import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
@@ -13,27 +11,15 @@ import java.util.List;
 public class SpriteSheetLoader {
 
 
-    public static void loadSpriteSheets(AssetManager assetManager, TextureAtlas atlas, List<SpriteSheetConfig> configs) {
-        for (SpriteSheetConfig config : configs) {
-            loadSpriteSheet(assetManager, atlas, config);
-        }
-    }
-    
-    
     /**
-     * Loads a single sprite sheet and splits it into frames
-     * Handles different direction modes including mirroring for THREE_DIRECTIONAL_MIRRORED.
+     * Slices a sprite sheet that may sit anywhere inside a larger texture, such as a packed atlas page.
+     * Frame coordinates are relative to the sheet region.
      *
-     * @param assetManager The AssetManager containing the loaded texture
      * @param atlas The TextureAtlas to add the frame regions to
+     * @param sheet The region covering the whole sprite sheet
      * @param config The sprite sheet configuration
      */
-    public static void loadSpriteSheet(AssetManager assetManager, TextureAtlas atlas, SpriteSheetConfig config) {
-        if (!assetManager.isLoaded(config.getPath(), Texture.class)) {
-            throw new IllegalStateException("Sprite Sheet not loaded: " + config.getPath());
-        }
-        Texture texture = assetManager.get(config.getPath(), Texture.class);
-
+    public static void loadSpriteSheet(TextureAtlas atlas, TextureRegion sheet, SpriteSheetConfig config) {
         // Slice into individual frames
         int frameWidth = config.getFrameWidth();
         int frameHeight = config.getFrameHeight();
@@ -47,34 +33,34 @@ public class SpriteSheetLoader {
                 int x = i * frameWidth;
                 int y = 0;
 
-                TextureRegion region = new TextureRegion(texture, x, y, frameWidth, frameHeight);
+                TextureRegion region = new TextureRegion(sheet, x, y, frameWidth, frameHeight);
 
                 String key = config.getFrameKey(i);
                 atlas.addRegion(key, region);
             }
         } else if (directionMode == DirectionMode.THREE_DIRECTIONAL_MIRRORED) {
             // Special handling for 3-directional sprite sheets (UP/DOWN/RIGHT, with LEFT mirrored from RIGHT)
-            loadThreeDirectionalMirrored(atlas, texture, config, frameWidth, frameHeight, frameCount);
+            loadThreeDirectionalMirrored(atlas, sheet, config, frameWidth, frameHeight, frameCount);
         } else if (directionMode == DirectionMode.FOUR_DIRECTIONAL) {
             // Load 4-directional sprite sheets (UP/DOWN/LEFT/RIGHT)
-            loadFourDirectional(atlas, texture, config, frameWidth, frameHeight, frameCount, rowCount);
+            loadFourDirectional(atlas, sheet, config, frameWidth, frameHeight, frameCount, rowCount);
         } else {
             // Standard multi-row sprite sheet (8-directional)
-            loadEightDirectional(atlas, texture, config, frameWidth, frameHeight, frameCount, rowCount);
+            loadEightDirectional(atlas, sheet, config, frameWidth, frameHeight, frameCount, rowCount);
         }
     }
 
     /**
      * Load 8-directional sprite sheet.
      */
-    private static void loadEightDirectional(TextureAtlas atlas, Texture texture, SpriteSheetConfig config,
+    private static void loadEightDirectional(TextureAtlas atlas, TextureRegion sheet, SpriteSheetConfig config,
                                              int frameWidth, int frameHeight, int frameCount, int rowCount) {
         for (int row = 0; row < rowCount; row++) {
             for (int col = 0; col < frameCount; col++) {
                 int x = col * frameWidth;
                 int y = row * frameHeight;
 
-                TextureRegion region = new TextureRegion(texture, x, y, frameWidth, frameHeight);
+                TextureRegion region = new TextureRegion(sheet, x, y, frameWidth, frameHeight);
 
                 String key = config.getFrameKey(row, col);
                 atlas.addRegion(key, region);
@@ -86,7 +72,7 @@ public class SpriteSheetLoader {
      * Load 4-directional sprite sheet.
      * Assumes rows are: 0=UP, 1=DOWN, 2=LEFT, 3=RIGHT
      */
-    private static void loadFourDirectional(TextureAtlas atlas, Texture texture, SpriteSheetConfig config,
+    private static void loadFourDirectional(TextureAtlas atlas, TextureRegion sheet, SpriteSheetConfig config,
                                             int frameWidth, int frameHeight, int frameCount, int rowCount) {
         // For 4-directional, we need to map to the standard 8-directional row indices
         // Standard mapping: 0=RIGHT, 2=DOWN, 4=LEFT, 6=UP
@@ -100,7 +86,7 @@ public class SpriteSheetLoader {
                 int x = col * frameWidth;
                 int y = srcRow * frameHeight;
 
-                TextureRegion region = new TextureRegion(texture, x, y, frameWidth, frameHeight);
+                TextureRegion region = new TextureRegion(sheet, x, y, frameWidth, frameHeight);
 
                 String key = config.getFrameKey(destRow, col);
                 atlas.addRegion(key, region);
@@ -113,7 +99,7 @@ public class SpriteSheetLoader {
      * Assumes rows are: 0=UP, 1=DOWN, 2=RIGHT
      * LEFT (row 4) is created by mirroring RIGHT (row 2).
      */
-    private static void loadThreeDirectionalMirrored(TextureAtlas atlas, Texture texture, SpriteSheetConfig config,
+    private static void loadThreeDirectionalMirrored(TextureAtlas atlas, TextureRegion sheet, SpriteSheetConfig config,
                                                      int frameWidth, int frameHeight, int frameCount) {
         // Row mapping: 0=UP (dest 6), 1=DOWN (dest 2), 2=RIGHT (dest 0)
         int[] srcRows = {0, 1, 2};
@@ -127,14 +113,14 @@ public class SpriteSheetLoader {
                 int x = col * frameWidth;
                 int y = srcRow * frameHeight;
 
-                TextureRegion region = new TextureRegion(texture, x, y, frameWidth, frameHeight);
+                TextureRegion region = new TextureRegion(sheet, x, y, frameWidth, frameHeight);
 
                 String key = config.getFrameKey(destRow, col);
                 atlas.addRegion(key, region);
 
                 // Mirror RIGHT to create LEFT
                 if (srcRow == 2) { // RIGHT row
-                    TextureRegion mirrored = new TextureRegion(texture, x, y, frameWidth, frameHeight);
+                    TextureRegion mirrored = new TextureRegion(sheet, x, y, frameWidth, frameHeight);
                     mirrored.flip(true, false); // Flip horizontally
 
                     String leftKey = config.getFrameKey(4, col); // LEFT is row 4
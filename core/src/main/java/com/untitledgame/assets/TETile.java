@@ -80,13 +80,21 @@ public class TETile {
         if (spriteBatch == null || textureAtlas == null) {
             return;
         }
-        TextureRegion region = cachedRegion != null ? cachedRegion : textureRegion(textureAtlas);
+        TextureRegion region = resolveRegion();
         if (region == null) {
             return;
         }
         spriteBatch.draw(region, (float) x, (float) y, (float) tileSize, (float) tileSize);
     }
 
+    /**
+     * Region this tile draws with: the cached one, or a lookup in the configured atlas.
+     * @return the texture region, or null if none is available
+     */
+    public TextureRegion resolveRegion() {
+        return cachedRegion != null ? cachedRegion : textureRegion(textureAtlas);
+    }
+
     public TextureRegion textureRegion(TextureAtlas atlas) {
         if (atlas == null || atlasKey == null) {
             return null;
@@ -152,7 +160,7 @@ public class TETile {
      * @param type the TileType to convert
      * @return the corresponding TETile
      */
-    private static TETile tileTypeToTETile(TileType type) {
+    public static TETile tileTypeToTETile(TileType type) {
         if (type == null) {
             return null;
         }
@@ -0,0 +1,137 @@
+package com.untitledgame.debug;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.untitledgame.animation.AnimationController;
+import com.untitledgame.animation.AnimationType;
+import com.untitledgame.logic.Direction;
+
+import java.util.Random;
+
+/**
+ * Times resolving the current frame of many animated entities through the controller's
+ * per-tick frame tables against asking each libGDX {@link Animation} directly, as the
+ * controller used to, with the same clips, frame rate and schedule of animation changes,
+ * intended only for debugging. Each entity owns its animations, as npcs do, and frames are
+ * empty regions, so no GL context is needed.
+ * Usage: AnimationBenchmark [entities] [frames] [seed]
+ */
+public final class AnimationBenchmark {
+    private static final int WARMUP_FRAMES = 120;
+    private static final float FRAME_SECONDS = 1f / 60f;
+    // the spread of clips the game registers: short loops and longer one-shots
+    private static final int FRAMES_PER_CLIP = 6;
+    private static final int TICKS_PER_FRAME = 2;
+    private static final AnimationType[] TYPES = {AnimationType.IDLE, AnimationType.WALK, AnimationType.ATTACK};
+    // chance per entity per frame of switching type or facing, roughly every couple of seconds
+    private static final double CHANGE_CHANCE = 0.01;
+
+    private AnimationBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int entities = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        Direction[] directions = Direction.values();
+        TextureRegion[] regions = new TextureRegion[FRAMES_PER_CLIP];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = new TextureRegion();
+        }
+        @SuppressWarnings("unchecked")
+        Animation<TextureRegion>[][][] clips = new Animation[entities][TYPES.length][directions.length];
+        AnimationController[] controllers = new AnimationController[entities];
+        for (int i = 0; i < entities; i++) {
+            controllers[i] = new AnimationController();
+            for (int t = 0; t < TYPES.length; t++) {
+                Animation.PlayMode mode = TYPES[t] == AnimationType.ATTACK
+                        ? Animation.PlayMode.NORMAL : Animation.PlayMode.LOOP;
+                for (int d = 0; d < directions.length; d++) {
+                    clips[i][t][d] = AnimationController.createAnimation(regions, TICKS_PER_FRAME, mode);
+                    controllers[i].registerAnimation(TYPES[t], directions[d], clips[i][t][d]);
+                }
+            }
+        }
+
+        // both passes replay the same schedule of changes
+        int total = WARMUP_FRAMES + frames;
+        int[][] type = new int[total][entities];
+        int[][] facing = new int[total][entities];
+        Random random = new Random(seed);
+        for (int i = 0; i < entities; i++) {
+            type[0][i] = random.nextInt(TYPES.length);
+            facing[0][i] = random.nextInt(directions.length);
+        }
+        for (int f = 1; f < total; f++) {
+            for (int i = 0; i < entities; i++) {
+                boolean change = random.nextDouble() < CHANGE_CHANCE;
+                type[f][i] = change ? random.nextInt(TYPES.length) : type[f - 1][i];
+                facing[f][i] = change ? random.nextInt(directions.length) : facing[f - 1][i];
+            }
+        }
+
+        long tableSink = 0L;
+        long tableStart = 0L;
+        for (int f = 0; f < total; f++) {
+            if (f == WARMUP_FRAMES) {
+                tableStart = System.nanoTime();
+            }
+            tableSink += tableFrame(controllers, directions, type, facing, f);
+        }
+        long tableNanos = System.nanoTime() - tableStart;
+
+        float[] stateTime = new float[entities];
+        long directSink = 0L;
+        long directStart = 0L;
+        for (int f = 0; f < total; f++) {
+            if (f == WARMUP_FRAMES) {
+                directStart = System.nanoTime();
+            }
+            directSink += directFrame(clips, stateTime, type, facing, f);
+        }
+        long directNanos = System.nanoTime() - directStart;
+
+        double lookups = (double) entities * frames;
+        System.out.printf("%d entities, %d frames after %d warm-up, seed %d%n", entities, frames, WARMUP_FRAMES, seed);
+        System.out.printf("%-10s %12s %14s%n", "path", "ms/frame", "ns/entity");
+        System.out.printf("%-10s %12.3f %14.1f%n", "tables", tableNanos / 1e6 / frames, tableNanos / lookups);
+        System.out.printf("%-10s %12.3f %14.1f%n", "animation", directNanos / 1e6 / frames, directNanos / lookups);
+        // printed so neither loop can be optimized away
+        System.out.printf("frames resolved: %d tables, %d animation%n", tableSink, directSink);
+    }
+
+    // one frame per call rather than one long loop, so the JIT compiles each pass as a method
+    private static int tableFrame(AnimationController[] controllers, Direction[] directions,
+                                  int[][] type, int[][] facing, int f) {
+        int resolved = 0;
+        for (int i = 0; i < controllers.length; i++) {
+            AnimationController controller = controllers[i];
+            if (f == 0 || type[f][i] != type[f - 1][i] || facing[f][i] != facing[f - 1][i]) {
+                controller.setAnimation(TYPES[type[f][i]], directions[facing[f][i]]);
+            }
+            controller.update(FRAME_SECONDS);
+            if (controller.getCurrentFrame() != null) {
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    // what the controller did before the tables: float state time into libGDX every frame
+    private static int directFrame(Animation<TextureRegion>[][][] clips, float[] stateTime,
+                                   int[][] type, int[][] facing, int f) {
+        int resolved = 0;
+        for (int i = 0; i < stateTime.length; i++) {
+            if (f > 0 && type[f][i] != type[f - 1][i]) {
+                stateTime[i] = 0f;
+            }
+            stateTime[i] += FRAME_SECONDS;
+            Animation<TextureRegion> clip = clips[i][type[f][i]][facing[f][i]];
+            if (clip.getKeyFrame(stateTime[i], TYPES[type[f][i]] != AnimationType.ATTACK) != null) {
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+}
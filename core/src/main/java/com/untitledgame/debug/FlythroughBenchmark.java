@@ -0,0 +1,217 @@
+package com.untitledgame.debug;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.untitledgame.Renderer;
+import com.untitledgame.assets.TileType;
+import com.untitledgame.logic.TileGrid;
+import com.untitledgame.render.RenderSnapshot;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic camera fly-through for {@link MapPreviewApp}: the view follows a fixed path
+ * through the seeded level, optionally with synthetic NPCs and loot lights, for a set number
+ * of frames, then reports frame-time percentiles, draw calls, occlusion refreshes and the
+ * heap allocation rate, intended only for debugging.
+ */
+public final class FlythroughBenchmark {
+    /** frames rendered before measuring, so shaders, caches and the JIT have settled */
+    public static final int WARMUP_FRAMES = 120;
+    private static final int WAYPOINTS = 16;
+    private static final double TILES_PER_FRAME = 0.2;
+    // synthetic npcs circle their spawn tile so their lights and sprites keep moving
+    private static final double NPC_ORBIT_TILES = 2.0;
+    private static final double NPC_ORBIT_SPEED = 0.03;
+    private static final double AVATAR_SCALE = 4.0;
+
+    private final long seed;
+    private final int frames;
+    private final double[] pathX = new double[WAYPOINTS];
+    private final double[] pathY = new double[WAYPOINTS];
+    private final int[] npcX;
+    private final int[] npcY;
+    private final int[] lightX;
+    private final int[] lightY;
+    private final long[] frameNanos;
+    private int frame;
+    private int segment;
+    private double segmentProgress;
+
+    private long drawCalls;
+    private int maxDrawCalls;
+    private long textureBindings;
+    private long shaderSwitches;
+    private int occlusionFrames;
+    private long occlusionSlices;
+    private long occlusionBytes;
+    private long measureStartNanos;
+    private long measureEndNanos;
+    private long allocatedAtStart;
+    private long allocatedAtEnd;
+
+    public FlythroughBenchmark(long seed, TileType[][] world, int frames, int npcs, int lights) {
+        this.seed = seed;
+        this.frames = frames;
+        this.frameNanos = new long[frames];
+        Random random = new Random(seed);
+        List<int[]> floors = floorTiles(world);
+        for (int i = 0; i < WAYPOINTS; i++) {
+            int[] floor = floors.get(random.nextInt(floors.size()));
+            pathX[i] = floor[0] + 0.5;
+            pathY[i] = floor[1] + 0.5;
+        }
+        npcX = new int[npcs];
+        npcY = new int[npcs];
+        for (int i = 0; i < npcs; i++) {
+            int[] floor = floors.get(random.nextInt(floors.size()));
+            npcX[i] = floor[0];
+            npcY[i] = floor[1];
+        }
+        lightX = new int[lights];
+        lightY = new int[lights];
+        for (int i = 0; i < lights; i++) {
+            int[] floor = floors.get(random.nextInt(floors.size()));
+            lightX[i] = floor[0];
+            lightY[i] = floor[1];
+        }
+    }
+
+    /**
+     * fill the snapshot for the next frame
+     * @return false once every frame has been measured
+     */
+    public boolean prepare(RenderSnapshot snapshot, TileGrid tiles, TextureRegion npcFrame, double lightRadius) {
+        if (frame >= WARMUP_FRAMES + frames) {
+            return false;
+        }
+        if (frame == WARMUP_FRAMES) {
+            allocatedAtStart = allocatedBytes();
+            measureStartNanos = System.nanoTime();
+        }
+        snapshot.begin(frame, RenderSnapshot.Screen.PLAYING, tiles);
+        snapshot.setLightRadius(lightRadius);
+
+        int next = (segment + 1) % WAYPOINTS;
+        double x = pathX[segment] + (pathX[next] - pathX[segment]) * segmentProgress;
+        double y = pathY[segment] + (pathY[next] - pathY[segment]) * segmentProgress;
+        snapshot.setAvatar(x, y, x - 0.5, y - 0.5, AVATAR_SCALE, null);
+        advance();
+
+        for (int i = 0; i < npcX.length; i++) {
+            double angle = frame * NPC_ORBIT_SPEED + i;
+            double nx = npcX[i] + 0.5 + Math.cos(angle) * NPC_ORBIT_TILES;
+            double ny = npcY[i] + 0.5 + Math.sin(angle) * NPC_ORBIT_TILES;
+            snapshot.addNpc((int) Math.floor(nx), (int) Math.floor(ny), nx - 0.5, ny - 0.5, npcFrame);
+        }
+        for (int i = 0; i < lightX.length; i++) {
+            snapshot.addDrop(lightX[i], lightY[i]);
+        }
+        return true;
+    }
+
+    /**
+     * account for the frame just rendered; the renderer's frame stats must already be latched
+     */
+    public void record(Renderer renderer, long nanos) {
+        int measured = frame - WARMUP_FRAMES;
+        frame++;
+        if (measured < 0) {
+            return;
+        }
+        frameNanos[measured] = nanos;
+        drawCalls += renderer.lastFrameDrawCalls();
+        maxDrawCalls = Math.max(maxDrawCalls, renderer.lastFrameDrawCalls());
+        textureBindings += renderer.lastFrameTextureBindings();
+        shaderSwitches += renderer.lastFrameShaderSwitches();
+        if (renderer.lastOcclusionUploadSlices() > 0) {
+            occlusionFrames++;
+            occlusionSlices += renderer.lastOcclusionUploadSlices();
+            occlusionBytes += renderer.lastOcclusionUploadBytes();
+        }
+        if (measured == frames - 1) {
+            measureEndNanos = System.nanoTime();
+            allocatedAtEnd = allocatedBytes();
+        }
+    }
+
+    public String report() {
+        long[] sorted = Arrays.copyOf(frameNanos, frames);
+        Arrays.sort(sorted);
+        long total = 0L;
+        for (long nanos : sorted) {
+            total += nanos;
+        }
+        double seconds = (measureEndNanos - measureStartNanos) / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "flythrough seed %d: %d frames after %d warm-up, %d npcs, %d loot lights%n",
+                seed, frames, WARMUP_FRAMES, npcX.length, lightX.length));
+        out.append(String.format(Locale.ROOT, "frame ms     p50 %.3f  p95 %.3f  p99 %.3f  max %.3f  mean %.3f%n",
+                percentile(sorted, 50) / 1e6, percentile(sorted, 95) / 1e6, percentile(sorted, 99) / 1e6,
+                sorted[frames - 1] / 1e6, total / 1e6 / frames));
+        out.append(String.format(Locale.ROOT, "draw calls   mean %.1f  max %d  texture binds %.1f  shader switches %.1f%n",
+                (double) drawCalls / frames, maxDrawCalls, (double) textureBindings / frames,
+                (double) shaderSwitches / frames));
+        out.append(String.format(Locale.ROOT, "occlusion    %d refreshes (%.1f%% of frames), %d slices, %d bytes%n",
+                occlusionFrames, 100.0 * occlusionFrames / frames, occlusionSlices, occlusionBytes));
+        if (allocatedAtStart < 0 || allocatedAtEnd < 0) {
+            out.append("allocation   not available on this JVM");
+        } else {
+            long allocated = allocatedAtEnd - allocatedAtStart;
+            out.append(String.format(Locale.ROOT, "allocation   %.2f MB/s, %.1f KB/frame, %.2f MB total",
+                    allocated / 1e6 / seconds, allocated / 1e3 / frames, allocated / 1e6));
+        }
+        return out.toString();
+    }
+
+    private void advance() {
+        int next = (segment + 1) % WAYPOINTS;
+        double length = Math.hypot(pathX[next] - pathX[segment], pathY[next] - pathY[segment]);
+        segmentProgress += length <= 0.0 ? 1.0 : TILES_PER_FRAME / length;
+        if (segmentProgress >= 1.0) {
+            segmentProgress = 0.0;
+            segment = next;
+        }
+    }
+
+    // nearest rank over a sorted array, matching RenderStats
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * heap bytes allocated so far by every live thread, including the shadowcast workers, or -1
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean hotspot)
+                || !hotspot.isThreadAllocatedMemorySupported()) {
+            return -1L;
+        }
+        long total = 0L;
+        for (long bytes : hotspot.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static List<int[]> floorTiles(TileType[][] world) {
+        List<int[]> floors = new ArrayList<>();
+        for (int x = 0; x < world.length; x++) {
+            for (int y = 0; y < world[0].length; y++) {
+                if (world[x][y] == TileType.FLOOR) {
+                    floors.add(new int[]{x, y});
+                }
+            }
+        }
+        return floors;
+    }
+}
@@ -1,6 +1,7 @@
 package com.untitledgame.debug;
 
 import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
@@ -9,13 +10,16 @@ import com.badlogic.gdx.math.Vector2;
 import com.untitledgame.Renderer;
 import com.untitledgame.assets.Tileset;
 import com.untitledgame.assets.TileType;
+import com.untitledgame.logic.TileGrid;
 import com.untitledgame.logic.World;
+import com.untitledgame.render.RenderSnapshot;
 
 import java.util.Random;
 
 /**
  * Minimal map previewer that renders a generated {@link World} with no HUD or gameplay,
- * intended only for debugging.
+ * intended only for debugging. Given a frame count it runs a {@link FlythroughBenchmark}
+ * instead, then prints the report and exits.
  */
 public class MapPreviewApp extends ApplicationAdapter {
     private static final int VIEW_WIDTH = 50;
@@ -26,18 +30,36 @@ public class MapPreviewApp extends ApplicationAdapter {
             "tiles/cave_wall_top.png",
             "tiles/cave_wall_base.png",
             "tiles/cave_wall_left.png",
-            "tiles/cave_wall_right.png"
+            "tiles/cave_wall_right.png",
+            "tiles/test.png"
     };
 
     private final long seed;
+    private final int benchmarkFrames;
+    private final int benchmarkNpcs;
+    private final int benchmarkLights;
+    private FlythroughBenchmark benchmark;
+    private TileGrid tiles;
+    private TextureRegion npcFrame;
     private AssetManager assets;
     private Renderer renderer;
     private TextureAtlas atlas;
     private TileType[][] world;
+    private final RenderSnapshot snapshot = new RenderSnapshot();
     private Vector2 focus;
 
     public MapPreviewApp(long seed) {
+        this(seed, 0, 0, 0);
+    }
+
+    /**
+     * fly through the level for the given number of measured frames; 0 just shows the map
+     */
+    public MapPreviewApp(long seed, int benchmarkFrames, int npcs, int lights) {
         this.seed = seed;
+        this.benchmarkFrames = benchmarkFrames;
+        this.benchmarkNpcs = npcs;
+        this.benchmarkLights = lights;
     }
 
     @Override
@@ -55,16 +77,58 @@ public class MapPreviewApp extends ApplicationAdapter {
         renderer.configureView(World.WIDTH, World.HEIGHT, VIEW_WIDTH, VIEW_HEIGHT, 0);
         renderer.initialize(VIEW_WIDTH, VIEW_HEIGHT, atlas);
         renderer.setAvatarPosition((int) focus.x, (int) focus.y);
+        tiles = new TileGrid(world);
+        if (benchmarkFrames > 0) {
+            benchmark = new FlythroughBenchmark(seed, world, benchmarkFrames, benchmarkNpcs, benchmarkLights);
+            npcFrame = atlas.findRegion("tiles/elevator");
+            renderer.setProfiling(true);
+            return;
+        }
+        // tiles only: no avatar, entities or loot
+        snapshot.begin(0L, RenderSnapshot.Screen.PLAYING, tiles);
+        snapshot.setLightRadius(renderer.getLightRadius());
+        renderer.applySnapshot(snapshot);
     }
 
     @Override
     public void render() {
+        if (benchmark != null) {
+            renderBenchmarkFrame();
+            return;
+        }
+        renderer.clearScreen();
+        renderer.updateCamera();
+        Renderer.RenderContext context = renderer.buildContext(world);
+        renderer.beginBatch();
+        renderer.drawWorld(snapshot, context);
+        renderer.endBatch();
+    }
+
+    /**
+     * one lit frame of the fly-through, timed from snapshot to glFinish so the GPU work counts
+     */
+    private void renderBenchmarkFrame() {
+        long start = System.nanoTime();
+        if (!benchmark.prepare(snapshot, tiles, npcFrame, renderer.getLightRadius())) {
+            System.out.println(benchmark.report());
+            benchmark = null;
+            Gdx.app.exit();
+            return;
+        }
         renderer.clearScreen();
+        renderer.applySnapshot(snapshot);
         renderer.updateCamera();
+        renderer.updateLights(snapshot);
         Renderer.RenderContext context = renderer.buildContext(world);
         renderer.beginBatch();
-        renderer.drawWorld(world, null, null, null, context, null);
+        renderer.drawWorld(snapshot, context);
+        renderer.endBatch();
+        renderer.beginBatch();
+        renderer.applyFullLightingPass(world, context);
         renderer.endBatch();
+        Gdx.gl.glFinish();
+        renderer.endFrameStats();
+        benchmark.record(renderer, System.nanoTime() - start);
     }
 
     @Override
@@ -0,0 +1,197 @@
+package com.untitledgame.debug;
+
+import com.untitledgame.assets.TileType;
+import com.untitledgame.logic.World;
+import com.untitledgame.utils.WorkerPool;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+/**
+ * Generates a run of seeds on the worker pool and writes each level as a PNG thumbnail with
+ * one color per {@link TileType}, drawn straight into a pixel buffer with no GL context,
+ * plus a contact sheet of the first {@value #SHEET_MAX_MAPS} levels. Reports where the time
+ * went (generate, rasterize, encode and write), intended only for debugging.
+ * Usage: MapThumbnailExporter &lt;output dir&gt; [first seed] [count] [pixels per tile] [workers]
+ */
+public final class MapThumbnailExporter {
+    /** levels on the contact sheet, in seed order, row by row */
+    public static final int SHEET_MAX_MAPS = 1024;
+    private static final int SHEET_GAP = 2;
+    private static final int SHEET_BACKGROUND = 0x202020;
+    // indexed by TileType ordinal
+    private static final int[] TILE_COLORS = tileColors();
+
+    private MapThumbnailExporter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: MapThumbnailExporter <output dir> [first seed] [count] [pixels per tile] [workers]");
+            System.exit(2);
+            return;
+        }
+        Path outputDir = Path.of(args[0]);
+        long firstSeed = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        int scale = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        // nothing else is running, so the calling thread works too and every core gets a range
+        int workers = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        Files.createDirectories(outputDir);
+
+        try (WorkerPool pool = new WorkerPool("thumbnails", workers)) {
+            Report report = export(pool, outputDir, firstSeed, count, scale);
+            System.out.printf("%d levels from seed %d on %d workers in %.1f ms (%.1f levels/s)%n",
+                    count, firstSeed, pool.workers(), report.wallNanos() / 1e6, count / (report.wallNanos() / 1e9));
+            System.out.printf("  generate %10.1f ms%n", report.generateNanos() / 1e6);
+            System.out.printf("  rasterize %9.1f ms%n", report.rasterizeNanos() / 1e6);
+            System.out.printf("  encode+write %6.1f ms, %d bytes%n", report.encodeNanos() / 1e6, report.bytes());
+            System.out.printf("  contact sheet %5.1f ms -> %s%n", report.sheetNanos() / 1e6, report.sheet());
+        }
+    }
+
+    /**
+     * per-phase times are summed over workers, so with several workers they exceed the wall time
+     */
+    public record Report(long wallNanos, long generateNanos, long rasterizeNanos, long encodeNanos,
+                         long sheetNanos, long bytes, Path sheet) {
+    }
+
+    public static Report export(WorkerPool pool, Path outputDir, long firstSeed, int count, int scale) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Level count must be positive: " + count);
+        }
+        int tileWidth = World.WIDTH;
+        int tileHeight = World.HEIGHT;
+        int sheetMaps = Math.min(count, SHEET_MAX_MAPS);
+        int columns = Math.max(1, (int) Math.ceil(Math.sqrt(sheetMaps)));
+        int rows = Math.max(1, (sheetMaps + columns - 1) / columns);
+        int cellWidth = tileWidth + SHEET_GAP;
+        int cellHeight = tileHeight + SHEET_GAP;
+        int sheetWidth = columns * cellWidth + SHEET_GAP;
+        int sheetHeight = rows * cellHeight + SHEET_GAP;
+        byte[] sheet = new byte[sheetWidth * sheetHeight * 3];
+        fill(sheet, SHEET_BACKGROUND);
+
+        int workers = pool.workers();
+        long[] generate = new long[workers];
+        long[] rasterize = new long[workers];
+        long[] encode = new long[workers];
+        long[] bytes = new long[workers];
+        byte[][] pixels = new byte[workers][tileWidth * scale * tileHeight * scale * 3];
+        PngEncoder[] encoders = new PngEncoder[workers];
+        try {
+            for (int i = 0; i < workers; i++) {
+                encoders[i] = new PngEncoder(Deflater.BEST_SPEED);
+            }
+
+            long start = System.nanoTime();
+            // each worker owns its scratch and writes only its own cells of the sheet
+            pool.run(count, (worker, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    long seed = firstSeed + i;
+                    long t0 = System.nanoTime();
+                    TileType[][] tiles = new World(seed).generate();
+                    long t1 = System.nanoTime();
+                    rasterize(tiles, scale, pixels[worker], 0, tiles.length * scale * 3);
+                    if (i < sheetMaps) {
+                        int cellX = SHEET_GAP + (i % columns) * cellWidth;
+                        int cellY = SHEET_GAP + (i / columns) * cellHeight;
+                        rasterize(tiles, 1, sheet, (cellY * sheetWidth + cellX) * 3, sheetWidth * 3);
+                    }
+                    long t2 = System.nanoTime();
+                    Path file = outputDir.resolve("seed-" + seed + ".png");
+                    bytes[worker] += writePng(encoders[worker], pixels[worker],
+                            tiles.length * scale, tiles[0].length * scale, file);
+                    long t3 = System.nanoTime();
+                    generate[worker] += t1 - t0;
+                    rasterize[worker] += t2 - t1;
+                    encode[worker] += t3 - t2;
+                }
+            });
+            long sheetStart = System.nanoTime();
+            Path sheetFile = outputDir.resolve("contact-sheet-" + firstSeed + "-" + (firstSeed + sheetMaps - 1) + ".png");
+            long totalBytes = writePng(encoders[0], sheet, sheetWidth, sheetHeight, sheetFile);
+            long end = System.nanoTime();
+            for (long written : bytes) {
+                totalBytes += written;
+            }
+            return new Report(end - start, sum(generate), sum(rasterize), sum(encode), end - sheetStart,
+                    totalBytes, sheetFile);
+        } finally {
+            for (PngEncoder encoder : encoders) {
+                if (encoder != null) {
+                    encoder.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * draw the level with the highest row at the top, scale pixels per tile, starting at the
+     * byte offset with the given row stride in bytes
+     */
+    static void rasterize(TileType[][] tiles, int scale, byte[] target, int offset, int stride) {
+        int width = tiles.length;
+        int height = tiles[0].length;
+        for (int y = 0; y < height; y++) {
+            int rowBase = offset + (height - 1 - y) * scale * stride;
+            for (int x = 0; x < width; x++) {
+                TileType tile = tiles[x][y];
+                int color = TILE_COLORS[tile == null ? 0 : tile.ordinal()];
+                byte r = (byte) (color >>> 16);
+                byte g = (byte) (color >>> 8);
+                byte b = (byte) color;
+                for (int sy = 0; sy < scale; sy++) {
+                    int p = rowBase + sy * stride + x * scale * 3;
+                    for (int sx = 0; sx < scale; sx++) {
+                        target[p++] = r;
+                        target[p++] = g;
+                        target[p++] = b;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int writePng(PngEncoder encoder, byte[] rgb, int width, int height, Path file) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            return encoder.write(rgb, width, height, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + file, e);
+        }
+    }
+
+    private static void fill(byte[] rgb, int color) {
+        for (int i = 0; i < rgb.length; i += 3) {
+            rgb[i] = (byte) (color >>> 16);
+            rgb[i + 1] = (byte) (color >>> 8);
+            rgb[i + 2] = (byte) color;
+        }
+    }
+
+    private static long sum(long[] values) {
+        long total = 0L;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static int[] tileColors() {
+        int[] colors = new int[TileType.values().length];
+        colors[TileType.NOTHING.ordinal()] = 0x000000;
+        colors[TileType.FLOOR.ordinal()] = 0x8A7B66;
+        colors[TileType.WALL_SIDE.ordinal()] = 0x4A4F5C;
+        colors[TileType.WALL_TOP.ordinal()] = 0x6C7385;
+        colors[TileType.LEFT_WALL.ordinal()] = 0x3D5A73;
+        colors[TileType.BACK_WALL.ordinal()] = 0x735A3D;
+        colors[TileType.ELEVATOR.ordinal()] = 0xF2C230;
+        return colors;
+    }
+}
@@ -0,0 +1,70 @@
+package com.untitledgame.debug;
+
+import com.untitledgame.render.EffectEventQueue;
+import com.untitledgame.render.EffectKind;
+import com.untitledgame.render.ParticlePool;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Times the per-frame particle work the renderer does before handing vertices to the GPU:
+ * draining queued bursts, stepping every particle and writing its quad, with the pool
+ * topped up each frame to hold a steady population, intended only for debugging.
+ * Usage: ParticleBenchmark [frames] [seed]
+ */
+public final class ParticleBenchmark {
+    private static final int[] POPULATIONS = {1000, 4000, ParticlePool.DEFAULT_CAPACITY};
+    private static final int WARMUP_FRAMES = 300;
+    private static final float FRAME_SECONDS = 1f / 60f;
+    // bursts land anywhere in a screen-sized patch of the level
+    private static final float SPREAD_TILES = 40f;
+
+    private ParticleBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 1200;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        EffectKind[] kinds = EffectKind.values();
+        System.out.printf("%d frames after %d warm-up, seed %d%n", frames, WARMUP_FRAMES, seed);
+        System.out.printf("%10s %10s %10s %10s %10s%n", "target", "mean live", "p50 ms", "p99 ms", "max ms");
+        for (int population : POPULATIONS) {
+            Random random = new Random(seed);
+            ParticlePool pool = new ParticlePool(ParticlePool.DEFAULT_CAPACITY);
+            EffectEventQueue events = new EffectEventQueue(4096);
+            long[] nanos = new long[frames];
+            long live = 0L;
+            int kind = 0;
+            for (int f = 0; f < WARMUP_FRAMES + frames; f++) {
+                // queue enough bursts to refill what expired, as a busy fight would
+                int missing = population - pool.size();
+                while (missing > 0) {
+                    EffectKind next = kinds[kind++ % kinds.length];
+                    if (!events.offer(next, random.nextFloat() * SPREAD_TILES, random.nextFloat() * SPREAD_TILES)) {
+                        break;
+                    }
+                    missing -= next.count();
+                }
+                long start = System.nanoTime();
+                events.drainTo(pool);
+                pool.update(FRAME_SECONDS);
+                pool.writeVertices(0f, 0f);
+                long elapsed = System.nanoTime() - start;
+                if (f >= WARMUP_FRAMES) {
+                    nanos[f - WARMUP_FRAMES] = elapsed;
+                    live += pool.size();
+                }
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%10d %10d %10.3f %10.3f %10.3f%n", population, live / frames,
+                    percentile(nanos, 50) / 1e6, percentile(nanos, 99) / 1e6, nanos[frames - 1] / 1e6);
+        }
+    }
+
+    // nearest rank over a sorted array, matching RenderStats
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
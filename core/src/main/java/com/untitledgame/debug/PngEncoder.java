@@ -0,0 +1,104 @@
+package com.untitledgame.debug;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Minimal truecolor PNG writer over a packed RGB byte buffer, so tools can write images
+ * without a GL context or AWT. Keeps its deflater and buffers between images; one instance
+ * per thread, closed when done to free the deflater's native memory.
+ */
+public final class PngEncoder implements AutoCloseable {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int FILTER_NONE = 0;
+    private static final byte[] IHDR = {'I', 'H', 'D', 'R'};
+    private static final byte[] IDAT = {'I', 'D', 'A', 'T'};
+    private static final byte[] IEND = {'I', 'E', 'N', 'D'};
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] header = new byte[13];
+    private final byte[] word = new byte[4];
+    private byte[] scanlines = new byte[0];
+    private byte[] compressed = new byte[0];
+
+    public PngEncoder(int compressionLevel) {
+        deflater = new Deflater(compressionLevel);
+    }
+
+    /**
+     * write an image whose rows run top to bottom, three bytes per pixel
+     * @return bytes written
+     */
+    public int write(byte[] rgb, int width, int height, OutputStream out) throws IOException {
+        int stride = width * 3;
+        if (rgb.length < stride * height) {
+            throw new IllegalArgumentException("Pixel buffer too small for " + width + "x" + height);
+        }
+        int rawLength = (stride + 1) * height;
+        if (scanlines.length < rawLength) {
+            scanlines = new byte[rawLength];
+        }
+        for (int row = 0; row < height; row++) {
+            int offset = row * (stride + 1);
+            scanlines[offset] = FILTER_NONE;
+            System.arraycopy(rgb, row * stride, scanlines, offset + 1, stride);
+        }
+
+        deflater.reset();
+        deflater.setInput(scanlines, 0, rawLength);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                byte[] grown = new byte[Math.max(4096, compressed.length * 2)];
+                System.arraycopy(compressed, 0, grown, 0, compressedLength);
+                compressed = grown;
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;
+        header[9] = COLOR_TYPE_RGB;
+        header[10] = 0;
+        header[11] = 0;
+        header[12] = 0;
+
+        out.write(SIGNATURE);
+        int written = SIGNATURE.length;
+        written += writeChunk(out, IHDR, header, header.length);
+        written += writeChunk(out, IDAT, compressed, compressedLength);
+        written += writeChunk(out, IEND, header, 0);
+        return written;
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+    }
+
+    private int writeChunk(OutputStream out, byte[] type, byte[] data, int length) throws IOException {
+        putInt(word, 0, length);
+        out.write(word);
+        out.write(type);
+        out.write(data, 0, length);
+        crc.reset();
+        crc.update(type);
+        crc.update(data, 0, length);
+        putInt(word, 0, (int) crc.getValue());
+        out.write(word);
+        return 12 + length;
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,188 @@
+package com.untitledgame.debug;
+
+import com.untitledgame.Renderer;
+import com.untitledgame.render.QualityTier;
+import com.untitledgame.utils.FileUtils;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Per-frame render counters with a rolling frame-time window for the stats overlay,
+ * plus optional CSV recording of every sampled frame, intended only for debugging.
+ */
+public final class RenderStats {
+    /** frames kept for the percentile and per-second figures */
+    public static final int WINDOW = 600;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final String CSV_HEADER = "frame,time_ms,frame_ms,draw_calls,texture_binds,shader_switches,"
+            + "vertices,ops_queued,ops_culled,lights_active,lights_dropped,tile_light_overflow,"
+            + "occlusion_slices,occlusion_bytes,occlusion_upload_us,occlusion_deferred,quality,"
+            + "particles,particles_dropped,effects_dropped,effects_us\n";
+
+    private final float[] frameMs = new float[WINDOW];
+    private final float[] sortedFrameMs = new float[WINDOW];
+    // sample time of every frame in the window that uploaded occlusion, oldest overwritten first
+    private final long[] uploadTimes = new long[WINDOW];
+    private int uploadHead;
+    private int frameHead;
+    private int filled;
+    private long frames;
+
+    private int drawCalls;
+    private int textureBindings;
+    private int shaderSwitches;
+    private int vertices;
+    private int opsQueued;
+    private int opsCulled;
+    private int lightsActive;
+    private int lightsDropped;
+    private int tileLightOverflow;
+    private int occlusionSlices;
+    private int occlusionBytes;
+    private long occlusionUploadNanos;
+    private int occlusionDeferred;
+    private QualityTier quality = QualityTier.ULTRA;
+    private int particles;
+    private long particlesDropped;
+    private int effectsDropped;
+    private long effectsNanos;
+    private long lastSampleNanos;
+
+    private StringBuilder csv;
+    private long recordingStartNanos;
+
+    public RenderStats() {
+        Arrays.fill(uploadTimes, Long.MIN_VALUE);
+    }
+
+    /**
+     * record one finished frame; the renderer's GL counts must already be latched for it
+     */
+    public void sample(Renderer renderer, float frameSeconds, long nowNanos) {
+        float ms = frameSeconds * 1000f;
+        frameMs[frameHead] = ms;
+        frameHead = (frameHead + 1) % WINDOW;
+        filled = Math.min(WINDOW, filled + 1);
+        frames++;
+        lastSampleNanos = nowNanos;
+
+        drawCalls = renderer.lastFrameDrawCalls();
+        textureBindings = renderer.lastFrameTextureBindings();
+        shaderSwitches = renderer.lastFrameShaderSwitches();
+        vertices = renderer.lastFrameVertices();
+        opsQueued = renderer.renderOpsQueued();
+        opsCulled = renderer.renderOpsCulled();
+        lightsActive = renderer.activeLightCount();
+        lightsDropped = renderer.droppedLightCount();
+        tileLightOverflow = renderer.tileLightOverflow();
+        occlusionSlices = renderer.lastOcclusionUploadSlices();
+        occlusionBytes = renderer.lastOcclusionUploadBytes();
+        occlusionUploadNanos = renderer.lastOcclusionUploadNanos();
+        occlusionDeferred = renderer.lastOcclusionDeferredSlices();
+        quality = renderer.qualityTier();
+        particles = renderer.particleCount();
+        particlesDropped = renderer.droppedParticles();
+        effectsDropped = renderer.droppedEffectEvents();
+        effectsNanos = renderer.lastEffectsNanos();
+        if (occlusionSlices > 0) {
+            uploadTimes[uploadHead] = nowNanos;
+            uploadHead = (uploadHead + 1) % WINDOW;
+        }
+
+        if (csv != null) {
+            csv.append(frames).append(',')
+                    .append(String.format(Locale.ROOT, "%.3f", (nowNanos - recordingStartNanos) / 1_000_000.0)).append(',')
+                    .append(String.format(Locale.ROOT, "%.3f", ms)).append(',')
+                    .append(drawCalls).append(',')
+                    .append(textureBindings).append(',')
+                    .append(shaderSwitches).append(',')
+                    .append(vertices).append(',')
+                    .append(opsQueued).append(',')
+                    .append(opsCulled).append(',')
+                    .append(lightsActive).append(',')
+                    .append(lightsDropped).append(',')
+                    .append(tileLightOverflow).append(',')
+                    .append(occlusionSlices).append(',')
+                    .append(occlusionBytes).append(',')
+                    .append(occlusionUploadNanos / 1000L).append(',')
+                    .append(occlusionDeferred).append(',')
+                    .append(quality.label()).append(',')
+                    .append(particles).append(',')
+                    .append(particlesDropped).append(',')
+                    .append(effectsDropped).append(',')
+                    .append(effectsNanos / 1000L).append('\n');
+        }
+    }
+
+    /**
+     * frame time in ms at the given percentile (0-100) over the window, nearest rank
+     */
+    public float frameTimePercentile(double percentile) {
+        if (filled == 0) {
+            return 0f;
+        }
+        System.arraycopy(frameMs, 0, sortedFrameMs, 0, filled);
+        Arrays.sort(sortedFrameMs, 0, filled);
+        int rank = (int) Math.ceil(percentile / 100.0 * filled);
+        return sortedFrameMs[Math.max(0, Math.min(filled - 1, rank - 1))];
+    }
+
+    /**
+     * frames in the last second of samples that uploaded any occlusion slice
+     */
+    public int occlusionRefreshesPerSecond() {
+        int count = 0;
+        for (long time : uploadTimes) {
+            if (time != Long.MIN_VALUE && lastSampleNanos - time < NANOS_PER_SECOND) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public String[] overlayLines() {
+        float p50 = frameTimePercentile(50);
+        float p95 = frameTimePercentile(95);
+        float p99 = frameTimePercentile(99);
+        return new String[]{
+                String.format(Locale.ROOT, "frame ms  p50 %.2f  p95 %.2f  p99 %.2f  (%d frames)", p50, p95, p99, filled),
+                String.format(Locale.ROOT, "draw calls %d  texture binds %d  shader switches %d",
+                        drawCalls, textureBindings, shaderSwitches),
+                String.format(Locale.ROOT, "vertices %d", vertices),
+                String.format(Locale.ROOT, "render ops queued %d  culled %d", opsQueued, opsCulled),
+                String.format(Locale.ROOT, "lights active %d  dropped %d  tile overflow %d",
+                        lightsActive, lightsDropped, tileLightOverflow),
+                String.format(Locale.ROOT, "occlusion %d/s  last %d slices  %d deferred  %d bytes  %.3f ms",
+                        occlusionRefreshesPerSecond(), occlusionSlices, occlusionDeferred, occlusionBytes,
+                        occlusionUploadNanos / 1_000_000.0),
+                String.format(Locale.ROOT, "quality %s  lighting %.0f%%  blur %d  lights %d  occlusion 1/%d",
+                        quality.label(), quality.lightingScale() * 100f, quality.blurTaps(),
+                        quality.lightBudget(), quality.occlusionInterval()),
+                String.format(Locale.ROOT, "particles %d  dropped %d  bursts dropped %d  %.3f ms",
+                        particles, particlesDropped, effectsDropped, effectsNanos / 1_000_000.0),
+                isRecording() ? "recording csv (F4 to stop)" : "F4 to record csv"
+        };
+    }
+
+    public boolean isRecording() {
+        return csv != null;
+    }
+
+    public void startRecording(long nowNanos) {
+        csv = new StringBuilder(CSV_HEADER);
+        recordingStartNanos = nowNanos;
+    }
+
+    /**
+     * write every frame sampled since {@link #startRecording} to the file and stop recording
+     */
+    public void stopRecording(String filename) {
+        if (csv == null) {
+            return;
+        }
+        String contents = csv.toString();
+        csv = null;
+        FileUtils.writeFile(filename, contents);
+    }
+}
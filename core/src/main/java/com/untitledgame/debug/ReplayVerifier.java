@@ -0,0 +1,37 @@
+package com.untitledgame.debug;
+
+import com.untitledgame.logic.StateChecksumLog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares two per-tick checksum logs written alongside replays and reports
+ * the first tick where the runs diverged, intended only for debugging.
+ */
+public final class ReplayVerifier {
+    private ReplayVerifier() {
+    }
+
+    public static StateChecksumLog.Divergence verify(Path expected, Path actual) throws IOException {
+        return load(expected).firstDivergence(load(actual));
+    }
+
+    public static String describe(StateChecksumLog.Divergence divergence) {
+        if (divergence == null) {
+            return "Replays match";
+        }
+        if (divergence.subsystem() == null) {
+            return "Replays diverge at tick " + divergence.tick() + ": one log ends early";
+        }
+        return "Replays diverge at tick " + divergence.tick() + " in " + divergence.subsystem();
+    }
+
+    private static StateChecksumLog load(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            return StateChecksumLog.read(reader);
+        }
+    }
+}
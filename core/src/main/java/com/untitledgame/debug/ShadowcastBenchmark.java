@@ -0,0 +1,94 @@
+package com.untitledgame.debug;
+
+import com.untitledgame.assets.TileType;
+import com.untitledgame.logic.World;
+import com.untitledgame.render.Shadowcaster;
+import com.untitledgame.render.VisibilityGrid;
+import com.untitledgame.utils.WorkerPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Times a full visibility recompute (every light cast from scratch, as on a new level
+ * or camera jump) on one thread and on the shadowcast worker pool, intended only for debugging.
+ * Usage: ShadowcastBenchmark [seed] [iterations]
+ */
+public final class ShadowcastBenchmark {
+    private static final int[] LIGHT_COUNTS = {16, 64, 256};
+    // the same mix the game lights with: avatar, npcs, dropped items
+    private static final float AVATAR_RADIUS = 20f;
+    private static final float NPC_RADIUS = 5f;
+    private static final float ITEM_RADIUS = 3.5f;
+    private static final int WARMUP_ITERATIONS = 20;
+
+    private ShadowcastBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        TileType[][] world = new World(seed).generate();
+        List<int[]> floors = floorTiles(world);
+        Random random = new Random(seed);
+
+        try (WorkerPool pool = new WorkerPool("shadowcast-bench", WorkerPool.defaultWorkerCount(Integer.MAX_VALUE))) {
+            System.out.printf("world seed %d, %d iterations, %d workers%n", seed, iterations, pool.workers());
+            System.out.printf("%8s %14s %14s %9s%n", "lights", "single ms", "parallel ms", "speedup");
+            for (int count : LIGHT_COUNTS) {
+                int[] tileX = new int[count];
+                int[] tileY = new int[count];
+                int[] radius = new int[count];
+                for (int i = 0; i < count; i++) {
+                    int[] floor = floors.get(random.nextInt(floors.size()));
+                    tileX[i] = floor[0];
+                    tileY[i] = floor[1];
+                    float r = i == 0 ? AVATAR_RADIUS : (i % 3 == 0 ? ITEM_RADIUS : NPC_RADIUS);
+                    radius[i] = (int) Math.ceil(r);
+                }
+                VisibilityGrid[] grids = new VisibilityGrid[count];
+                for (int i = 0; i < count; i++) {
+                    grids[i] = new VisibilityGrid();
+                }
+                Shadowcaster[] casters = new Shadowcaster[pool.workers()];
+                for (int i = 0; i < casters.length; i++) {
+                    casters[i] = new Shadowcaster();
+                }
+                WorkerPool.RangeTask task = (worker, start, end) -> {
+                    for (int i = start; i < end; i++) {
+                        grids[i].reset(tileX[i], tileY[i], radius[i]);
+                        casters[worker].cast(world, grids[i]);
+                    }
+                };
+
+                double single = time(iterations, () -> task.run(0, 0, count));
+                double parallel = time(iterations, () -> pool.run(count, task));
+                System.out.printf("%8d %14.3f %14.3f %8.2fx%n", count, single, parallel, single / parallel);
+            }
+        }
+    }
+
+    private static double time(int iterations, Runnable pass) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            pass.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            pass.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+
+    private static List<int[]> floorTiles(TileType[][] world) {
+        List<int[]> floors = new ArrayList<>();
+        for (int x = 0; x < world.length; x++) {
+            for (int y = 0; y < world[0].length; y++) {
+                if (world[x][y] == TileType.FLOOR) {
+                    floors.add(new int[]{x, y});
+                }
+            }
+        }
+        return floors;
+    }
+}
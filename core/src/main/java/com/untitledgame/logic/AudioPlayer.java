@@ -17,9 +17,12 @@ public class AudioPlayer {
     private float musicVolume = 0.2f;
     private boolean muted = false;
     private Music currentMusic;
+    // sounds and music are only started and stopped on the thread that created the player
+    private final Thread owner;
 
     public AudioPlayer(AssetManager assets) {
         this.assets = assets;
+        this.owner = Thread.currentThread();
     }
 
     public void loadEffects(String... paths) {
@@ -38,7 +41,7 @@ public class AudioPlayer {
     }
 
     public void playRandomEffect() {
-        if (muted || effectPaths.isEmpty()) {
+        if (muted || effectPaths.isEmpty() || deferToOwner(this::playRandomEffect)) {
             return;
         }
         String choice = effectPaths.get(random.nextInt(effectPaths.size()));
@@ -62,7 +65,7 @@ public class AudioPlayer {
      * @param pitch Pitch (0.5 = half speed, 1.0 = normal, 2.0 = double speed)
      */
     public void playEffect(String path, float volume, float pitch) {
-        if (muted || path == null || path.isBlank()) {
+        if (muted || path == null || path.isBlank() || deferToOwner(() -> playEffect(path, volume, pitch))) {
             return;
         }
         if (!assets.isLoaded(path)) {
@@ -104,6 +107,9 @@ public class AudioPlayer {
      * @param dampenFactor Factor to multiply current volume by (e.g., 0.3 for 30% volume)
      */
     public void dampenMusic(float dampenFactor) {
+        if (deferToOwner(() -> dampenMusic(dampenFactor))) {
+            return;
+        }
         if (currentMusic != null) {
             currentMusic.setVolume(muted ? 0f : musicVolume * clamp(dampenFactor));
         }
@@ -113,6 +119,9 @@ public class AudioPlayer {
      * Restore music to its normal volume.
      */
     public void restoreMusicVolume() {
+        if (deferToOwner(this::restoreMusicVolume)) {
+            return;
+        }
         if (currentMusic != null) {
             currentMusic.setVolume(muted ? 0f : musicVolume);
         }
@@ -132,6 +141,9 @@ public class AudioPlayer {
     }
 
     public void stop() {
+        if (deferToOwner(this::stop)) {
+            return;
+        }
         if (currentMusic != null) {
             currentMusic.stop();
             currentMusic = null;
@@ -161,7 +173,7 @@ public class AudioPlayer {
     }
 
     private void playInternal(String path, boolean loop, Runnable callback) {
-        if (path == null || path.isBlank()) {
+        if (path == null || path.isBlank() || deferToOwner(() -> playInternal(path, loop, callback))) {
             return;
         }
         // Music should already be queued during initialization (see Engine.queueAssetLoads)
@@ -187,6 +199,18 @@ public class AudioPlayer {
         }
     }
 
+    /**
+     * queue the action on the owning thread when called from any other, e.g. the simulation thread
+     * @return true if the action was queued and the caller should return
+     */
+    private boolean deferToOwner(Runnable action) {
+        if (Thread.currentThread() == owner || Gdx.app == null) {
+            return false;
+        }
+        Gdx.app.postRunnable(action);
+        return true;
+    }
+
     private float clamp(float v) {
         return Math.max(0f, Math.min(1f, v));
     }
@@ -37,8 +37,13 @@ public class Avatar extends Entity {
 
     // Parry state tracking
     private boolean parryInProgress = false;
-    private double parryWindowRemainingMs = 0.0;
     private static final double PARRY_WINDOW_MS = 200.0;
+    private final TimerWheel.Timer parryWindowTimer = new TimerWheel.Timer() {
+        @Override
+        protected void onExpire() {
+            // window closed, the parry animation itself may still be playing
+        }
+    };
 
     // Dash state tracking
     private boolean dashInProgress = false;
@@ -87,9 +92,8 @@ public class Avatar extends Entity {
         // Reset combat states on respawn
         attacking = false;
         attackQueued = false;
-        parryInProgress = false;
+        endParry();
         kickInProgress = false;
-        parryWindowRemainingMs = 0.0;
         dashInProgress = false;
         dashDistanceRemaining = 0.0;
     }
@@ -221,7 +225,7 @@ public class Avatar extends Entity {
     // Parry state methods
 
     public boolean isParrying() {
-        return parryInProgress && parryWindowRemainingMs > 0.0;
+        return parryInProgress && parryWindowTimer.isScheduled();
     }
 
     public boolean isParryInProgress() {
@@ -233,27 +237,27 @@ public class Avatar extends Entity {
             return;
         }
         parryInProgress = true;
-        parryWindowRemainingMs = PARRY_WINDOW_MS;
+        if (timers() != null) {
+            timers().schedule(parryWindowTimer, TimerWheel.ticksFor(PARRY_WINDOW_MS));
+        }
         setFacing(facing);
         if (animationController != null) {
             animationController.resetStateTime();
         }
     }
 
-    public void tickParry(double deltaSeconds) {
-        if (parryWindowRemainingMs > 0.0) {
-            parryWindowRemainingMs = Math.max(0.0, parryWindowRemainingMs - deltaSeconds * 1000.0);
-        }
-        // Check if parry animation finished
+    /**
+     * end the parry once its animation has played out; the window itself runs on the timer wheel
+     */
+    public void updateParryAnimation() {
         if (parryInProgress && animationController != null && animationController.isAnimationFinished()) {
-            parryInProgress = false;
-            parryWindowRemainingMs = 0.0;
+            endParry();
         }
     }
 
     public void endParry() {
         parryInProgress = false;
-        parryWindowRemainingMs = 0.0;
+        parryWindowTimer.cancel();
     }
 
     // Kick state methods
@@ -319,8 +323,13 @@ public class Avatar extends Entity {
         // Cancel ongoing actions when staggered
         attacking = false;
         attackQueued = false;
-        parryInProgress = false;
-        parryWindowRemainingMs = 0.0;
+        endParry();
         kickInProgress = false;
     }
+
+    @Override
+    protected void cancelTimers() {
+        super.cancelTimers();
+        parryWindowTimer.cancel();
+    }
 }
\ No newline at end of file
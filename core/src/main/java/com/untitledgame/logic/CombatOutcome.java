@@ -0,0 +1,15 @@
+package com.untitledgame.logic;
+
+/**
+ * How a queued hit was resolved by {@link CombatService}.
+ */
+public enum CombatOutcome {
+    /** damage went through armor and invulnerability checks; the applied amount may be zero */
+    APPLIED,
+    /** target rolled out of the way */
+    DODGED,
+    /** target kicked the attacker instead of taking the hit */
+    KICK_COUNTER,
+    /** target parried and staggered the attacker */
+    PARRIED
+}
@@ -0,0 +1,84 @@
+package com.untitledgame.logic;
+
+import java.util.Arrays;
+
+/**
+ * Results of the most recent {@link CombatService#tick()}, published as one batch
+ * for audio, stats and UI to read once per tick. Entities are referenced by combat handle;
+ * resolve them with {@link CombatService#entity(int)} before the next tick.
+ */
+public final class CombatOutcomeBuffer {
+    private static final CombatOutcome[] OUTCOMES = CombatOutcome.values();
+
+    private int[] kinds;
+    private int[] targets;
+    private int[] sources;
+    private int[] attempted;
+    private int[] applied;
+    private int[] flags;
+    private int size;
+
+    CombatOutcomeBuffer(int capacity) {
+        int initial = Math.max(1, capacity);
+        kinds = new int[initial];
+        targets = new int[initial];
+        sources = new int[initial];
+        attempted = new int[initial];
+        applied = new int[initial];
+        flags = new int[initial];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public CombatOutcome outcome(int index) {
+        return OUTCOMES[kinds[index]];
+    }
+
+    public int target(int index) {
+        return targets[index];
+    }
+
+    /**
+     * handle of the attacker, or {@link CombatService#NO_HANDLE} when the hit had no source
+     */
+    public int source(int index) {
+        return sources[index];
+    }
+
+    public int attempted(int index) {
+        return attempted[index];
+    }
+
+    public int applied(int index) {
+        return applied[index];
+    }
+
+    public int flags(int index) {
+        return flags[index];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(CombatOutcome outcome, int target, int source, int attemptedAmount, int appliedAmount, int eventFlags) {
+        if (size == kinds.length) {
+            int capacity = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            attempted = Arrays.copyOf(attempted, capacity);
+            applied = Arrays.copyOf(applied, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        kinds[size] = outcome.ordinal();
+        targets[size] = target;
+        sources[size] = source;
+        attempted[size] = attemptedAmount;
+        applied[size] = appliedAmount;
+        flags[size] = eventFlags;
+        size += 1;
+    }
+}
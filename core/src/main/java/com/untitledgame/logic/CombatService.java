@@ -1,34 +1,38 @@
 package com.untitledgame.logic;
 
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.Queue;
-import java.util.Set;
+import java.util.Arrays;
 
-import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.audio.Sound;
 import com.untitledgame.logic.npc.Npc;
 
 /**
  * central controller for combat - entities enqueue damage and the
  * service resolves any armor, invulnerability frames, and death callbacks each tick.
+ * Pending hits live in a primitive ring buffer keyed by combat handle, and each tick's
+ * results are published as a {@link CombatOutcomeBuffer} instead of side effects.
+ * Timed states (invulnerability, stagger, parry windows, NPC action timers) run on a
+ * {@link TimerWheel} the service owns and the engine advances once per tick.
  */
 public class CombatService {
-    public record DamageEvent(Entity target, Entity source, int amount) { }
-    private final AssetManager assets = new AssetManager();
-    private final AudioPlayer effects = new AudioPlayer(assets);
-    private final Queue<DamageEvent> damageEvents = new ArrayDeque<>();
-    private final Set<Entity> trackedEntities = new HashSet<>();
+    /** handle value for "no entity", used for sourceless hits */
+    public static final int NO_HANDLE = -1;
+    /** set on hits that came from a kick rather than a weapon swing */
+    public static final int FLAG_KICK = 1;
+
+    private static final int INITIAL_EVENT_CAPACITY = 256;
+    private static final int INITIAL_ENTITY_CAPACITY = 64;
+
+    private final DamageEventRing damageEvents = new DamageEventRing(INITIAL_EVENT_CAPACITY);
+    private final CombatOutcomeBuffer outcomes = new CombatOutcomeBuffer(INITIAL_EVENT_CAPACITY);
+    private final TimerWheel timers = new TimerWheel();
+    private Entity[] entities = new Entity[INITIAL_ENTITY_CAPACITY];
+    private int[] freeHandles = new int[INITIAL_ENTITY_CAPACITY];
+    private int freeCount;
+    private int handleCount;
+    // handles released mid-tick stay resolvable until the outcomes they appear in are consumed
+    private int[] releasedHandles = new int[INITIAL_ENTITY_CAPACITY];
+    private int releasedCount;
     private static final double AVATAR_STAGGER_MS = 350.0;
     private static final double NPC_STAGGER_MS = 500.0;
-    private static final String[] TAKE_DAMAGE_MELEE = new String[]{
-            "audio/takedamage1.mp3",
-            "audio/takedamage2.mp3"
-    };
-
-    public interface DamageListener {
-        void onDamageApplied(Entity target, Entity source, int attemptedAmount, int appliedAmount);
-    }
 
     public interface ParryChecker {
         boolean isParrying(Entity target);
@@ -45,21 +49,67 @@ public class CombatService {
     private ParryChecker parryChecker;
     private DodgeChecker dodgeChecker;
     private KickCounterChecker kickCounterChecker;
-    private DamageListener damageListener;
 
 
     public void register(Entity entity) {
-        if (entity != null) {
-            trackedEntities.add(entity);
+        if (entity == null || entity.combatHandle() != NO_HANDLE) {
+            return;
         }
+        int handle;
+        if (freeCount > 0) {
+            freeCount -= 1;
+            handle = freeHandles[freeCount];
+        } else {
+            if (handleCount == entities.length) {
+                entities = Arrays.copyOf(entities, handleCount * 2);
+            }
+            handle = handleCount;
+            handleCount += 1;
+        }
+        entities[handle] = entity;
+        entity.setCombatHandle(handle);
+        entity.bindTimers(timers);
     }
 
     public void unregister(Entity entity) {
-        trackedEntities.remove(entity);
+        if (entity == null) {
+            return;
+        }
+        int handle = entity.combatHandle();
+        if (handle == NO_HANDLE || entities[handle] != entity) {
+            return;
+        }
+        entity.setCombatHandle(NO_HANDLE);
+        entity.cancelTimers();
+        if (releasedCount == releasedHandles.length) {
+            releasedHandles = Arrays.copyOf(releasedHandles, releasedCount * 2);
+        }
+        releasedHandles[releasedCount] = handle;
+        releasedCount += 1;
     }
 
-    public void setDamageListener(DamageListener listener) {
-        this.damageListener = listener;
+    /**
+     * entity for a handle seen in the outcome buffer, or null
+     */
+    public Entity entity(int handle) {
+        if (handle < 0 || handle >= handleCount) {
+            return null;
+        }
+        return entities[handle];
+    }
+
+    /**
+     * clock for every registered entity's timed states
+     */
+    public TimerWheel timers() {
+        return timers;
+    }
+
+    /**
+     * results of the last tick; valid until the next call to {@link #tick()}
+     */
+    public CombatOutcomeBuffer outcomes() {
+        return outcomes;
     }
 
     public void setDodgeChecker(DodgeChecker checker) {
@@ -71,13 +121,18 @@ public class CombatService {
     }
 
     public void queueDamage(Entity target, Entity source, int amount) {
-        if (target == null || target.health() == null) {
+        queueDamage(target, source, amount, 0);
+    }
+
+    /**
+     * queue a hit for the next tick. Targets that are not registered are ignored.
+     */
+    public void queueDamage(Entity target, Entity source, int amount, int flags) {
+        if (target == null || target.health() == null || target.combatHandle() == NO_HANDLE) {
             return;
         }
-        damageEvents.add(new DamageEvent(target, source, Math.max(0, amount)));
-        if (target instanceof Npc) {
-            effects.playRandomEffect(TAKE_DAMAGE_MELEE);
-        };
+        int sourceHandle = source == null ? NO_HANDLE : source.combatHandle();
+        damageEvents.push(target.combatHandle(), sourceHandle, Math.max(0, amount), flags);
     }
 
     public void setParryChecker(ParryChecker checker) {
@@ -104,79 +159,111 @@ public class CombatService {
     }
 
     /**
-     * resolve invulnerability timers and apply queued damage for frame
+     * move the timer wheel forward one tick; the engine calls this every tick, including
+     * ticks that end before combat runs, so timed states never stall
+     */
+    public void advanceTimers() {
+        timers.advance();
+    }
+
+    /**
+     * apply the hits queued since the last tick as one batch
      */
     public void tick() {
-        for (Entity entity : trackedEntities) {
-            if (entity.health() != null) {
-                entity.health().tickInvulnerability();
-            }
-        }
+        recycleReleasedHandles();
+        outcomes.clear();
 
         int eventsToProcess = damageEvents.size();
         for (int i = 0; i < eventsToProcess; i += 1) {
-            DamageEvent event = damageEvents.poll();
-            if (event == null) {
-                continue;
+            int slot = damageEvents.peekSlot();
+            int targetHandle = damageEvents.target(slot);
+            int sourceHandle = damageEvents.source(slot);
+            int amount = damageEvents.amount(slot);
+            int flags = damageEvents.flags(slot);
+            damageEvents.pop();
+            applyDamage(targetHandle, sourceHandle, amount, flags);
+        }
+    }
+
+    public int pendingDamageCount() {
+        return damageEvents.size();
+    }
+
+    /**
+     * hash of the queued hits in order, walked straight off the ring slots
+     */
+    public long pendingDamageHash() {
+        long h = 0L;
+        for (int i = 0; i < damageEvents.size(); i += 1) {
+            int slot = damageEvents.slotAt(i);
+            h = StateChecksum.mix(h, damageEvents.target(slot));
+            h = StateChecksum.mix(h, damageEvents.source(slot));
+            h = StateChecksum.mix(h, damageEvents.amount(slot));
+            h = StateChecksum.mix(h, damageEvents.flags(slot));
+        }
+        return h;
+    }
+
+    private void recycleReleasedHandles() {
+        for (int i = 0; i < releasedCount; i += 1) {
+            int handle = releasedHandles[i];
+            entities[handle] = null;
+            if (freeCount == freeHandles.length) {
+                freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
             }
-            applyDamage(event);
+            freeHandles[freeCount] = handle;
+            freeCount += 1;
         }
+        releasedCount = 0;
     }
 
-    private void applyDamage(DamageEvent event) {
-        HealthComponent health = event.target().health();
+    private void applyDamage(int targetHandle, int sourceHandle, int amount, int flags) {
+        Entity target = entity(targetHandle);
+        Entity source = entity(sourceHandle);
+        if (target == null) {
+            return;
+        }
+        HealthComponent health = target.health();
         if (health == null) {
             return;
         }
         if (dodgeChecker != null && !health.isInvulnerable()
-                && dodgeChecker.shouldDodge(event.target(), event.source())) {
-
-            if (damageListener != null) {
-                damageListener.onDamageApplied(event.target(), event.source(), event.amount(), 0);
-            }
+                && dodgeChecker.shouldDodge(target, source)) {
+            outcomes.add(CombatOutcome.DODGED, targetHandle, sourceHandle, amount, 0, flags);
             return;
         }
 
-        if (kickCounterChecker != null && event.target() instanceof Npc
-                && kickCounterChecker.shouldKickCounter(event.target(), event.source())) {
-
-            if (event.source() != null && event.source().health() != null) {
-                int kickDamage = event.amount();
-                event.source().health().damage(kickDamage, event.target());
-                applyStagger(event.source());
-                applyKnockback(event.source(), event.target());
-            }
+        if (kickCounterChecker != null && target instanceof Npc
+                && kickCounterChecker.shouldKickCounter(target, source)) {
 
-            if (damageListener != null) {
-                damageListener.onDamageApplied(event.target(), event.source(), event.amount(), 0);
+            if (source != null && source.health() != null) {
+                source.health().damage(amount, target);
+                applyStagger(source);
+                applyKnockback(source, target);
             }
+            outcomes.add(CombatOutcome.KICK_COUNTER, targetHandle, sourceHandle, amount, 0, flags);
             return;
         }
 
         // Check if target is parrying
-        if (parryChecker != null && parryChecker.isParrying(event.target())) {
+        if (parryChecker != null && parryChecker.isParrying(target)) {
             // Parry successful! Negate damage and stagger the attacker
-            if (event.source() != null) {
-                applyStagger(event.source());
-            }
-            // Notify listener that parry occurred (0 applied damage)
-            if (damageListener != null) {
-                damageListener.onDamageApplied(event.target(), event.source(), event.amount(), 0);
+            if (source != null) {
+                applyStagger(source);
             }
+            outcomes.add(CombatOutcome.PARRIED, targetHandle, sourceHandle, amount, 0, flags);
             return;
         }
 
-        int applied = health.damage(event.amount(), event.target());
+        int applied = health.damage(amount, target);
         if (applied > 0) {
             if (health.isDepleted()) {
-                event.target().clearStagger();
+                target.clearStagger();
             } else {
-                applyStagger(event.target());
+                applyStagger(target);
             }
         }
-        if (damageListener != null) {
-            damageListener.onDamageApplied(event.target(), event.source(), event.amount(), applied);
-        }
+        outcomes.add(CombatOutcome.APPLIED, targetHandle, sourceHandle, amount, applied, flags);
     }
 
 
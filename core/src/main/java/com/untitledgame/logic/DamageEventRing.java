@@ -0,0 +1,102 @@
+package com.untitledgame.logic;
+
+/**
+ * Fixed-slot FIFO of pending hits stored as parallel primitive arrays,
+ * so queueing damage never allocates. Grows by doubling only if a burst overflows it.
+ */
+final class DamageEventRing {
+    private int[] targets;
+    private int[] sources;
+    private int[] amounts;
+    private int[] flags;
+    private int head;
+    private int size;
+
+    DamageEventRing(int capacity) {
+        int initial = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        targets = new int[initial];
+        sources = new int[initial];
+        amounts = new int[initial];
+        flags = new int[initial];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    void push(int target, int source, int amount, int eventFlags) {
+        if (size == targets.length) {
+            grow();
+        }
+        int slot = (head + size) & (targets.length - 1);
+        targets[slot] = target;
+        sources[slot] = source;
+        amounts[slot] = amount;
+        flags[slot] = eventFlags;
+        size += 1;
+    }
+
+    /**
+     * slot index of the oldest event; read it with the accessors before calling {@link #pop()}
+     */
+    int peekSlot() {
+        return head;
+    }
+
+    void pop() {
+        head = (head + 1) & (targets.length - 1);
+        size -= 1;
+    }
+
+    /**
+     * slot index of the i-th pending event, oldest first
+     */
+    int slotAt(int i) {
+        return (head + i) & (targets.length - 1);
+    }
+
+    int target(int slot) {
+        return targets[slot];
+    }
+
+    int source(int slot) {
+        return sources[slot];
+    }
+
+    int amount(int slot) {
+        return amounts[slot];
+    }
+
+    int flags(int slot) {
+        return flags[slot];
+    }
+
+    private void grow() {
+        int capacity = targets.length * 2;
+        int[] newTargets = new int[capacity];
+        int[] newSources = new int[capacity];
+        int[] newAmounts = new int[capacity];
+        int[] newFlags = new int[capacity];
+        for (int i = 0; i < size; i += 1) {
+            int slot = slotAt(i);
+            newTargets[i] = targets[slot];
+            newSources[i] = sources[slot];
+            newAmounts[i] = amounts[slot];
+            newFlags[i] = flags[slot];
+        }
+        targets = newTargets;
+        sources = newSources;
+        amounts = newAmounts;
+        flags = newFlags;
+        head = 0;
+    }
+}
@@ -12,9 +12,23 @@ public class Entity {
     protected Direction facing = Direction.DOWN;
     protected double velocityX = 0.0;
     protected double velocityY = 0.0;
-    private double staggerRemainingMs = 0.0;
     private boolean staggered = false;
+    private final TimerWheel.Timer staggerTimer = new TimerWheel.Timer() {
+        @Override
+        protected void onExpire() {
+            staggered = false;
+        }
+    };
+    /** wheel that drives this entity's timed states while it is registered for combat */
+    private TimerWheel timers;
+    /** stagger taken while no wheel is bound, scheduled once one is */
+    private double pendingStaggerMs = 0.0;
     protected HealthComponent health;
+    private static final int HIT_CHANNEL_COUNT = HitChannel.values().length;
+    /** swing generation that last hit this entity, per channel; generations start at 1 */
+    private final int[] hitGenerations = new int[HIT_CHANNEL_COUNT];
+    /** slot assigned by {@link CombatService} while registered, otherwise {@link CombatService#NO_HANDLE} */
+    private int combatHandle = CombatService.NO_HANDLE;
 
 
     private boolean knockbackActive;
@@ -118,8 +132,58 @@ public class Entity {
     }
 
 
+    public int combatHandle() {
+        return combatHandle;
+    }
+
+    void setCombatHandle(int combatHandle) {
+        this.combatHandle = combatHandle;
+    }
+
+    protected TimerWheel timers() {
+        return timers;
+    }
+
+    void bindTimers(TimerWheel timers) {
+        if (this.timers != null && this.timers != timers) {
+            cancelTimers();
+        }
+        this.timers = timers;
+        if (health != null) {
+            health.bindTimers(timers);
+        }
+        if (timers != null && pendingStaggerMs > 0.0) {
+            timers.schedule(staggerTimer, TimerWheel.ticksFor(pendingStaggerMs));
+            pendingStaggerMs = 0.0;
+        }
+    }
+
+    /**
+     * drop every pending timer; subclasses with their own timers cancel them here too
+     */
+    protected void cancelTimers() {
+        staggerTimer.cancel();
+        pendingStaggerMs = 0.0;
+        staggered = false;
+    }
+
+    /**
+     * record a hit from the given swing. Returns false when this swing already hit the entity.
+     */
+    public boolean markHit(HitChannel channel, int generation) {
+        int slot = channel.ordinal();
+        if (hitGenerations[slot] == generation) {
+            return false;
+        }
+        hitGenerations[slot] = generation;
+        return true;
+    }
+
     public double staggerRemainingMs() {
-        return staggerRemainingMs;
+        if (timers == null) {
+            return pendingStaggerMs;
+        }
+        return staggerTimer.remainingTicks() * (double) TimerWheel.TICK_MS;
     }
 
     public boolean isStaggered() {
@@ -130,28 +194,23 @@ public class Entity {
         if (durationMs <= 0) {
             return;
         }
-        staggerRemainingMs = Math.max(staggerRemainingMs, durationMs);
+        if (timers != null) {
+            // stagger lasts whole ticks and never shortens an existing one
+            int ticks = Math.max(staggerTimer.remainingTicks(), TimerWheel.ticksFor(durationMs));
+            timers.schedule(staggerTimer, ticks);
+        } else {
+            pendingStaggerMs = Math.max(pendingStaggerMs, durationMs);
+        }
         staggered = true;
         onStaggered();
     }
 
     public void clearStagger() {
-        staggerRemainingMs = 0.0;
+        staggerTimer.cancel();
+        pendingStaggerMs = 0.0;
         staggered = false;
     }
 
-    public void tickStagger(double deltaSeconds) {
-        if (staggerRemainingMs <= 0.0) {
-            staggerRemainingMs = 0.0;
-            staggered = false;
-            return;
-        }
-        staggerRemainingMs = Math.max(0.0, staggerRemainingMs - deltaSeconds * 1000.0);
-        if (staggerRemainingMs <= 0.0) {
-            staggered = false;
-        }
-    }
-
     protected void onStaggered() {
         setVelocity(0.0, 0.0);
     }
@@ -13,7 +13,13 @@ public class HealthComponent {
     private final int max;
     private final int armor;
     private final int invulnerabilityFrames;
-    private int invulnerabilityRemaining;
+    private TimerWheel timers;
+    private final TimerWheel.Timer invulnerabilityTimer = new TimerWheel.Timer() {
+        @Override
+        protected void onExpire() {
+            // nothing to do, being scheduled is the invulnerable state
+        }
+    };
     private final List<Consumer<Entity>> deathCallbacks = new ArrayList<>();
 
     public HealthComponent(int max) {
@@ -43,7 +49,17 @@ public class HealthComponent {
     }
 
     public int invulnerabilityRemaining() {
-        return invulnerabilityRemaining;
+        return invulnerabilityTimer.remainingTicks();
+    }
+
+    /**
+     * invulnerability frames count down on this wheel; without one they expire immediately
+     */
+    void bindTimers(TimerWheel timers) {
+        if (this.timers != timers) {
+            invulnerabilityTimer.cancel();
+        }
+        this.timers = timers;
     }
 
 
@@ -61,12 +77,12 @@ public class HealthComponent {
         }
         int applied = Math.max(0, amount - armor);
         if (applied <= 0) {
-            invulnerabilityRemaining = invulnerabilityFrames;
+            startInvulnerability(invulnerabilityFrames);
             return 0;
         }
         applied = Math.min(applied, current);
         current = Math.max(0, current - applied);
-        invulnerabilityRemaining = invulnerabilityFrames;
+        startInvulnerability(invulnerabilityFrames);
         if (current == 0) {
             fireDeath(owner);
         }
@@ -74,7 +90,7 @@ public class HealthComponent {
     }
 
     public boolean isInvulnerable() {
-        return invulnerabilityRemaining > 0;
+        return invulnerabilityTimer.isScheduled();
     }
 
 
@@ -85,19 +101,21 @@ public class HealthComponent {
         current = Math.min(max, current + amount);
     }
 
-    public void tickInvulnerability() {
-        if (invulnerabilityRemaining > 0) {
-            invulnerabilityRemaining -= 1;
-        }
-    }
-
     public void setInvulnerabilityRemaining(int frames) {
-        invulnerabilityRemaining = Math.max(0, Math.min(invulnerabilityFrames, frames));
+        startInvulnerability(Math.max(0, Math.min(invulnerabilityFrames, frames)));
     }
 
 
     public void resetInvulnerability() {
-        invulnerabilityRemaining = 0;
+        invulnerabilityTimer.cancel();
+    }
+
+    private void startInvulnerability(int frames) {
+        if (frames <= 0 || timers == null) {
+            invulnerabilityTimer.cancel();
+            return;
+        }
+        timers.schedule(invulnerabilityTimer, frames);
     }
 
     public void restoreFull() {
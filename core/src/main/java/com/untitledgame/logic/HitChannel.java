@@ -0,0 +1,10 @@
+package com.untitledgame.logic;
+
+/**
+ * Independent hit-dedup slots on an entity, so an attack and a kick that
+ * overlap in time each land at most once per swing.
+ */
+public enum HitChannel {
+    MELEE,
+    KICK
+}
@@ -0,0 +1,112 @@
+package com.untitledgame.logic;
+
+import com.badlogic.gdx.Gdx;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the simulation on its own daemon thread in fixed steps, so a slow step delays the
+ * next step instead of the next frame. Work from other threads (input, mostly) is posted
+ * with {@link #post} and runs on the simulation thread just before the following step.
+ */
+public final class SimulationLoop implements AutoCloseable {
+    /**
+     * one fixed step; always called on the simulation thread
+     */
+    public interface Step {
+        void run(double deltaSeconds);
+    }
+
+    // after a stall longer than this many steps, drop the backlog instead of fast-forwarding
+    private static final int MAX_CATCH_UP_STEPS = 5;
+
+    private final Step step;
+    private final double stepSeconds;
+    private final long stepNanos;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running;
+
+    public SimulationLoop(String name, long stepMillis, Step step) {
+        if (stepMillis <= 0) {
+            throw new IllegalArgumentException("Step must be positive: " + stepMillis);
+        }
+        this.step = step;
+        this.stepSeconds = stepMillis / 1000.0;
+        this.stepNanos = TimeUnit.MILLISECONDS.toNanos(stepMillis);
+        this.thread = new Thread(this::loop, name);
+        thread.setDaemon(true);
+    }
+
+    /**
+     * whether the machine has a core to spare for a separate simulation thread
+     */
+    public static boolean worthwhile() {
+        return Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * run the command on the simulation thread before the next step
+     */
+    public void post(Runnable command) {
+        commands.add(command);
+    }
+
+    public boolean isSimulationThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    private void loop() {
+        long next = System.nanoTime();
+        try {
+            while (running) {
+                Runnable command;
+                while ((command = commands.poll()) != null) {
+                    command.run();
+                }
+                step.run(stepSeconds);
+
+                next += stepNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (-wait > stepNanos * MAX_CATCH_UP_STEPS) {
+                    next = System.nanoTime();
+                }
+            }
+        } catch (RuntimeException e) {
+            running = false;
+            if (Gdx.app == null) {
+                throw e;
+            }
+            // surface the failure where a crash on the render thread would have shown up
+            Gdx.app.postRunnable(() -> {
+                throw new IllegalStateException("Simulation thread failed", e);
+            });
+        }
+    }
+
+    /**
+     * stop after the current step and wait for the thread to finish
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (!thread.isAlive() || isSimulationThread()) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.untitledgame.logic;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over the world that buckets entities by hitbox center so hit queries
+ * only visit the cells they overlap instead of every entity.
+ * Rebuilt in place with a counting sort; neither rebuilds nor queries allocate.
+ */
+public final class SpatialIndex<T extends Entity> {
+    public interface HitVisitor<T> {
+        void visit(T entity);
+    }
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final double hitboxHalf;
+    private final int[] cellStart;
+    private final int[] cellFill;
+    private Object[] sorted = new Object[16];
+    private int[] entityCell = new int[16];
+    private int size;
+
+    /**
+     * @param worldWidth  world width in tiles
+     * @param worldHeight world height in tiles
+     * @param cellSize    cell edge in tiles, ideally a little larger than a typical query
+     * @param hitboxHalf  half extent of every indexed entity's square hitbox
+     */
+    public SpatialIndex(int worldWidth, int worldHeight, int cellSize, double hitboxHalf) {
+        this.cellSize = Math.max(1, cellSize);
+        this.columns = Math.max(1, (worldWidth + this.cellSize - 1) / this.cellSize);
+        this.rows = Math.max(1, (worldHeight + this.cellSize - 1) / this.cellSize);
+        this.hitboxHalf = hitboxHalf;
+        this.cellStart = new int[columns * rows + 1];
+        this.cellFill = new int[columns * rows];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void rebuild(List<? extends T> entities) {
+        size = entities.size();
+        if (sorted.length < size) {
+            int capacity = Math.max(size, sorted.length * 2);
+            sorted = new Object[capacity];
+            entityCell = new int[capacity];
+        }
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < size; i += 1) {
+            T entity = entities.get(i);
+            int cell = cellIndex(column(entity.posX()), row(entity.posY()));
+            entityCell[i] = cell;
+            cellStart[cell + 1] += 1;
+        }
+        for (int c = 0; c < columns * rows; c += 1) {
+            cellStart[c + 1] += cellStart[c];
+            cellFill[c] = cellStart[c];
+        }
+        Arrays.fill(sorted, size, sorted.length, null);
+        for (int i = 0; i < size; i += 1) {
+            int cell = entityCell[i];
+            sorted[cellFill[cell]] = entities.get(i);
+            cellFill[cell] += 1;
+        }
+    }
+
+    public void clear() {
+        size = 0;
+        Arrays.fill(cellStart, 0);
+        Arrays.fill(sorted, null);
+    }
+
+    /**
+     * visit every entity whose hitbox overlaps the box centered at (centerX, centerY)
+     */
+    public void queryAabb(double centerX, double centerY, double halfX, double halfY, HitVisitor<? super T> visitor) {
+        double reachX = halfX + hitboxHalf;
+        double reachY = halfY + hitboxHalf;
+        int minColumn = column(centerX - reachX);
+        int maxColumn = column(centerX + reachX);
+        int minRow = row(centerY - reachY);
+        int maxRow = row(centerY + reachY);
+        for (int r = minRow; r <= maxRow; r += 1) {
+            for (int c = minColumn; c <= maxColumn; c += 1) {
+                int cell = cellIndex(c, r);
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i += 1) {
+                    T entity = entityAt(i);
+                    if (Math.abs(centerX - entity.posX()) <= reachX
+                            && Math.abs(centerY - entity.posY()) <= reachY) {
+                        visitor.visit(entity);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * visit every entity whose hitbox touches the circular sector swept from the origin
+     * along (dirX, dirY), out to radius and halfAngle radians either side of that heading
+     */
+    public void querySweptArc(double originX, double originY, double dirX, double dirY,
+                              double radius, double halfAngle, HitVisitor<? super T> visitor) {
+        double dirLength = Math.hypot(dirX, dirY);
+        if (dirLength < 1e-9) {
+            return;
+        }
+        double headingX = dirX / dirLength;
+        double headingY = dirY / dirLength;
+        double reach = radius + hitboxHalf;
+        double cosHalf = Math.cos(Math.min(Math.PI, halfAngle));
+        int minColumn = column(originX - reach);
+        int maxColumn = column(originX + reach);
+        int minRow = row(originY - reach);
+        int maxRow = row(originY + reach);
+        for (int r = minRow; r <= maxRow; r += 1) {
+            for (int c = minColumn; c <= maxColumn; c += 1) {
+                int cell = cellIndex(c, r);
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i += 1) {
+                    T entity = entityAt(i);
+                    double dx = entity.posX() - originX;
+                    double dy = entity.posY() - originY;
+                    double distSq = dx * dx + dy * dy;
+                    if (distSq > reach * reach) {
+                        continue;
+                    }
+                    double dist = Math.sqrt(distSq);
+                    if (dist <= hitboxHalf || halfAngle >= Math.PI) {
+                        visitor.visit(entity);
+                        continue;
+                    }
+                    double cos = (dx * headingX + dy * headingY) / dist;
+                    if (cos >= cosHalf) {
+                        visitor.visit(entity);
+                        continue;
+                    }
+                    // Hitbox may poke into the arc even though its center lies outside
+                    double widen = Math.asin(Math.min(1.0, hitboxHalf / dist));
+                    if (Math.acos(Math.max(-1.0, Math.min(1.0, cos))) <= halfAngle + widen) {
+                        visitor.visit(entity);
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T entityAt(int index) {
+        return (T) sorted[index];
+    }
+
+    private int column(double x) {
+        int c = (int) Math.floor(x / cellSize);
+        return Math.max(0, Math.min(columns - 1, c));
+    }
+
+    private int row(double y) {
+        int r = (int) Math.floor(y / cellSize);
+        return Math.max(0, Math.min(rows - 1, r));
+    }
+
+    private int cellIndex(int column, int row) {
+        return row * columns + column;
+    }
+}
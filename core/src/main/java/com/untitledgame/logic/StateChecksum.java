@@ -0,0 +1,167 @@
+package com.untitledgame.logic;
+
+import com.untitledgame.logic.items.DroppedItem;
+import com.untitledgame.logic.npc.Npc;
+import com.untitledgame.logic.npc.NpcManager;
+
+import java.util.List;
+
+/**
+ * Per-tick hash of the simulation state, split by subsystem so a mismatch
+ * can be traced back to the part of the game that diverged.
+ * Capturing walks the live state with indexed loops and never allocates.
+ */
+public final class StateChecksum {
+    public enum Subsystem { AVATAR, NPCS, COMBAT, DROPS, RNG }
+
+    public static final int SUBSYSTEM_COUNT = Subsystem.values().length;
+    private static final Subsystem[] SUBSYSTEMS = Subsystem.values();
+
+    // positions are compared at 1/256 tile so float noise below that is ignored
+    private static final double POSITION_QUANTUM = 256.0;
+    private static final long SEED = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+    private final long[] hashes = new long[SUBSYSTEM_COUNT];
+    private long tick = -1L;
+
+    /**
+     * hash the current state for the given tick, replacing the previous capture
+     */
+    public void capture(long tick, Avatar avatar, NpcManager npcManager, CombatService combatService,
+                        List<DroppedItem> droppedItems, TrackedRandom lootRng) {
+        this.tick = tick;
+        hashes[Subsystem.AVATAR.ordinal()] = hashAvatar(avatar);
+        hashes[Subsystem.NPCS.ordinal()] = hashNpcs(npcManager);
+        hashes[Subsystem.COMBAT.ordinal()] = hashCombat(combatService);
+        hashes[Subsystem.DROPS.ordinal()] = hashDrops(droppedItems);
+        hashes[Subsystem.RNG.ordinal()] = hashRng(npcManager, lootRng);
+    }
+
+    public long tick() {
+        return tick;
+    }
+
+    public long hash(Subsystem subsystem) {
+        return hashes[subsystem.ordinal()];
+    }
+
+    public long hash(int subsystemIndex) {
+        return hashes[subsystemIndex];
+    }
+
+    /**
+     * single value covering every subsystem, for a quick equality check
+     */
+    public long combined() {
+        long h = SEED;
+        for (int i = 0; i < SUBSYSTEM_COUNT; i += 1) {
+            h = mix(h, hashes[i]);
+        }
+        return h;
+    }
+
+    public static Subsystem subsystem(int index) {
+        return SUBSYSTEMS[index];
+    }
+
+    public static long mix(long h, long value) {
+        h ^= value * GOLDEN;
+        return Long.rotateLeft(h, 31) * PRIME;
+    }
+
+    public static long mix(long h, double value) {
+        return mix(h, quantize(value));
+    }
+
+    public static long quantize(double value) {
+        return Math.round(value * POSITION_QUANTUM);
+    }
+
+    private static long hashAvatar(Avatar avatar) {
+        long h = SEED;
+        if (avatar == null) {
+            return h;
+        }
+        h = hashEntity(h, avatar);
+        h = mix(h, avatar.isAttacking() ? 1L : 0L);
+        h = mix(h, avatar.isKicking() ? 1L : 0L);
+        h = mix(h, avatar.isDashing() ? 1L : 0L);
+        return h;
+    }
+
+    private static long hashNpcs(NpcManager npcManager) {
+        long h = SEED;
+        if (npcManager == null) {
+            return h;
+        }
+        List<Npc> npcs = npcManager.npcs();
+        h = mix(h, npcs.size());
+        for (int i = 0; i < npcs.size(); i += 1) {
+            Npc npc = npcs.get(i);
+            h = hashEntity(h, npc);
+            h = mix(h, npc.isAttacking() ? 1L : 0L);
+            h = mix(h, npc.isDodging() ? 1L : 0L);
+            h = mix(h, npc.isKicking() ? 1L : 0L);
+            h = mix(h, npc.isDying() ? 1L : 0L);
+        }
+        h = mix(h, npcManager.corpses().size());
+        return h;
+    }
+
+    private static long hashEntity(long h, Entity entity) {
+        h = mix(h, entity.posX());
+        h = mix(h, entity.posY());
+        h = mix(h, entity.velocityX());
+        h = mix(h, entity.velocityY());
+        h = mix(h, entity.facing().ordinal());
+        h = mix(h, entity.isStaggered() ? 1L : 0L);
+        HealthComponent health = entity.health();
+        if (health != null) {
+            h = mix(h, health.current());
+            h = mix(h, health.max());
+            h = mix(h, health.invulnerabilityRemaining());
+        }
+        return h;
+    }
+
+    private static long hashCombat(CombatService combatService) {
+        long h = SEED;
+        if (combatService == null) {
+            return h;
+        }
+        h = mix(h, combatService.pendingDamageCount());
+        return mix(h, combatService.pendingDamageHash());
+    }
+
+    private static long hashDrops(List<DroppedItem> droppedItems) {
+        long h = SEED;
+        if (droppedItems == null) {
+            return h;
+        }
+        h = mix(h, droppedItems.size());
+        for (int i = 0; i < droppedItems.size(); i += 1) {
+            DroppedItem drop = droppedItems.get(i);
+            h = mix(h, drop.x());
+            h = mix(h, drop.y());
+            h = mix(h, drop.item().id().hashCode());
+            h = mix(h, drop.quantity());
+        }
+        return h;
+    }
+
+    private static long hashRng(NpcManager npcManager, TrackedRandom lootRng) {
+        long h = SEED;
+        h = mix(h, lootRng == null ? 0L : lootRng.draws());
+        if (npcManager == null) {
+            return h;
+        }
+        h = mix(h, npcManager.rngDraws());
+        List<Npc> npcs = npcManager.npcs();
+        for (int i = 0; i < npcs.size(); i += 1) {
+            h = mix(h, TrackedRandom.drawsOf(npcs.get(i).rng()));
+        }
+        return h;
+    }
+}
@@ -0,0 +1,202 @@
+package com.untitledgame.logic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Growable record of per-tick checksums, written next to a replay so two runs
+ * of the same input can be compared tick by tick. A log with a tick limit keeps only
+ * the newest ticks, overwriting the oldest, so it can run for a whole session.
+ */
+public final class StateChecksumLog {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final String HEADER_PREFIX = "# replay ";
+
+    private long[] ticks = new long[INITIAL_CAPACITY];
+    private long[] hashes = new long[INITIAL_CAPACITY * StateChecksum.SUBSYSTEM_COUNT];
+    private int size;
+    // slot of the oldest tick; nonzero only once a bounded log has wrapped
+    private int start;
+    // 0 for no limit
+    private final int maxTicks;
+    private String replayInput = "";
+
+    public StateChecksumLog() {
+        this(0);
+    }
+
+    /**
+     * @param maxTicks newest ticks to keep, or 0 to keep every tick
+     */
+    public StateChecksumLog(int maxTicks) {
+        if (maxTicks < 0) {
+            throw new IllegalArgumentException("Tick limit must not be negative: " + maxTicks);
+        }
+        this.maxTicks = maxTicks;
+        if (maxTicks > 0 && maxTicks < INITIAL_CAPACITY) {
+            ticks = new long[maxTicks];
+            hashes = new long[maxTicks * StateChecksum.SUBSYSTEM_COUNT];
+        }
+    }
+
+    /**
+     * first point where two logs disagree; a null subsystem means one log ended early
+     */
+    public record Divergence(long tick, StateChecksum.Subsystem subsystem) { }
+
+    public void record(StateChecksum checksum) {
+        int slot;
+        if (maxTicks > 0 && size == maxTicks) {
+            slot = start;
+            start = (start + 1) % ticks.length;
+        } else {
+            ensureCapacity(size + 1);
+            slot = slot(size);
+            size += 1;
+        }
+        ticks[slot] = checksum.tick();
+        int base = slot * StateChecksum.SUBSYSTEM_COUNT;
+        for (int i = 0; i < StateChecksum.SUBSYSTEM_COUNT; i += 1) {
+            hashes[base + i] = checksum.hash(i);
+        }
+    }
+
+    public void clear() {
+        size = 0;
+        start = 0;
+        replayInput = "";
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * tick of the index-th kept entry, oldest first
+     */
+    public long tickAt(int index) {
+        return ticks[slot(index)];
+    }
+
+    public long hashAt(int index, StateChecksum.Subsystem subsystem) {
+        return hashes[slot(index) * StateChecksum.SUBSYSTEM_COUNT + subsystem.ordinal()];
+    }
+
+    public String replayInput() {
+        return replayInput;
+    }
+
+    public void setReplayInput(String replayInput) {
+        this.replayInput = replayInput == null ? "" : replayInput;
+    }
+
+    /**
+     * compare against another log and report the earliest tick and subsystem that differ,
+     * or null when both logs match over their whole length. Ticks one log dropped for its
+     * limit are skipped, so comparison starts at the first tick both still hold.
+     */
+    public Divergence firstDivergence(StateChecksumLog other) {
+        int from = 0;
+        int otherFrom = 0;
+        if (size > 0 && other.size > 0) {
+            long firstShared = Math.max(tickAt(0), other.tickAt(0));
+            while (from < size && tickAt(from) < firstShared) {
+                from += 1;
+            }
+            while (otherFrom < other.size && other.tickAt(otherFrom) < firstShared) {
+                otherFrom += 1;
+            }
+        }
+        int shared = Math.min(size - from, other.size - otherFrom);
+        for (int i = 0; i < shared; i += 1) {
+            int mine = slot(from + i);
+            int theirs = other.slot(otherFrom + i);
+            if (ticks[mine] != other.ticks[theirs]) {
+                return new Divergence(Math.min(ticks[mine], other.ticks[theirs]), null);
+            }
+            int base = mine * StateChecksum.SUBSYSTEM_COUNT;
+            int otherBase = theirs * StateChecksum.SUBSYSTEM_COUNT;
+            for (int s = 0; s < StateChecksum.SUBSYSTEM_COUNT; s += 1) {
+                if (hashes[base + s] != other.hashes[otherBase + s]) {
+                    return new Divergence(ticks[mine], StateChecksum.subsystem(s));
+                }
+            }
+        }
+        if (size - from != other.size - otherFrom) {
+            long tick = size - from > shared ? tickAt(from + shared) : other.tickAt(otherFrom + shared);
+            return new Divergence(tick, null);
+        }
+        return null;
+    }
+
+    /**
+     * one line per tick: the tick number followed by each subsystem hash in hex
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write(HEADER_PREFIX);
+        writer.write(replayInput);
+        writer.write('\n');
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < size; i += 1) {
+            line.setLength(0);
+            int slot = slot(i);
+            line.append(ticks[slot]);
+            int base = slot * StateChecksum.SUBSYSTEM_COUNT;
+            for (int s = 0; s < StateChecksum.SUBSYSTEM_COUNT; s += 1) {
+                line.append(' ').append(Long.toHexString(hashes[base + s]));
+            }
+            line.append('\n');
+            writer.write(line.toString());
+        }
+    }
+
+    public static StateChecksumLog read(BufferedReader reader) throws IOException {
+        StateChecksumLog log = new StateChecksumLog();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(HEADER_PREFIX)) {
+                log.replayInput = line.substring(HEADER_PREFIX.length());
+                continue;
+            }
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length != StateChecksum.SUBSYSTEM_COUNT + 1) {
+                throw new IOException("Malformed checksum line: " + line);
+            }
+            log.ensureCapacity(log.size + 1);
+            try {
+                log.ticks[log.size] = Long.parseLong(parts[0]);
+                int base = log.size * StateChecksum.SUBSYSTEM_COUNT;
+                for (int s = 0; s < StateChecksum.SUBSYSTEM_COUNT; s += 1) {
+                    log.hashes[base + s] = Long.parseUnsignedLong(parts[s + 1], 16);
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed checksum line: " + line, e);
+            }
+            log.size += 1;
+        }
+        return log;
+    }
+
+    private int slot(int index) {
+        int slot = start + index;
+        return slot < ticks.length ? slot : slot - ticks.length;
+    }
+
+    // only called before a bounded log is full, while start is still 0
+    private void ensureCapacity(int required) {
+        if (required <= ticks.length) {
+            return;
+        }
+        int capacity = Math.max(required, ticks.length * 2);
+        if (maxTicks > 0) {
+            capacity = Math.min(capacity, maxTicks);
+        }
+        ticks = Arrays.copyOf(ticks, capacity);
+        hashes = Arrays.copyOf(hashes, capacity * StateChecksum.SUBSYSTEM_COUNT);
+    }
+}
@@ -0,0 +1,40 @@
+package com.untitledgame.logic;
+
+/**
+ * Continuous collision helpers for circular hitboxes, so fast movers such as a dash
+ * or knockback cannot step past another entity within a single frame.
+ */
+public final class SweptCollision {
+    /** returned when the path never touches the obstacle within the step */
+    public static final double NO_IMPACT = Double.POSITIVE_INFINITY;
+
+    private SweptCollision() {
+    }
+
+    /**
+     * fraction of the step (dx, dy) at which a circle starting at (startX, startY) first touches
+     * a stationary circle at (otherX, otherY), where radius is the sum of both radii.
+     * Returns {@link #NO_IMPACT} when the circles never meet during the step, when they
+     * already overlap, or when the mover is heading away; overlap is left to push-out resolution.
+     */
+    public static double timeOfImpact(double startX, double startY, double dx, double dy,
+                                      double otherX, double otherY, double radius) {
+        double relX = startX - otherX;
+        double relY = startY - otherY;
+        double c = relX * relX + relY * relY - radius * radius;
+        if (c <= 0.0) {
+            return NO_IMPACT;
+        }
+        double b = relX * dx + relY * dy;
+        if (b >= 0.0) {
+            return NO_IMPACT;
+        }
+        double a = dx * dx + dy * dy;
+        double disc = b * b - a * c;
+        if (disc < 0.0) {
+            return NO_IMPACT;
+        }
+        double t = (-b - Math.sqrt(disc)) / a;
+        return t >= 0.0 && t <= 1.0 ? t : NO_IMPACT;
+    }
+}
@@ -0,0 +1,103 @@
+package com.untitledgame.logic;
+
+import com.untitledgame.assets.TileType;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The level's tiles plus a modification version and dirty-rectangle notifications.
+ * Readers that only need to know whether anything changed compare {@link #version()};
+ * caches built from the tiles register a {@link Listener} and rebuild just the touched area.
+ * The backing array is shared, so all edits must go through {@link #set} or {@link #markDirty}.
+ */
+public final class TileGrid {
+    /**
+     * told about every edit, with the inclusive tile rectangle it touched
+     */
+    public interface Listener {
+        void tilesChanged(TileGrid grid, int minX, int minY, int maxX, int maxY);
+    }
+
+    private final TileType[][] tiles;
+    // the renderer registers from its own thread while edits arrive on the simulation thread
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private long version;
+
+    public TileGrid(TileType[][] tiles) {
+        if (tiles == null || tiles.length == 0 || tiles[0].length == 0) {
+            throw new IllegalArgumentException("Tile grid must be non-empty");
+        }
+        this.tiles = tiles;
+    }
+
+    /**
+     * the backing array for read-heavy code; never write to it directly
+     */
+    public TileType[][] tiles() {
+        return tiles;
+    }
+
+    public int width() {
+        return tiles.length;
+    }
+
+    public int height() {
+        return tiles[0].length;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < tiles.length && y < tiles[0].length;
+    }
+
+    public TileType get(int x, int y) {
+        return tiles[x][y];
+    }
+
+    /**
+     * bumped on every edit; equal versions mean identical tiles
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * change one tile; a no-op if it already has that type
+     */
+    public void set(int x, int y, TileType type) {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException("Tile out of bounds: " + x + "," + y);
+        }
+        if (tiles[x][y] == type) {
+            return;
+        }
+        tiles[x][y] = type;
+        markDirty(x, y, x, y);
+    }
+
+    /**
+     * report a batch of edits covering the inclusive rectangle, clipped to the grid
+     */
+    public void markDirty(int minX, int minY, int maxX, int maxY) {
+        int x0 = Math.max(0, Math.min(minX, maxX));
+        int y0 = Math.max(0, Math.min(minY, maxY));
+        int x1 = Math.min(tiles.length - 1, Math.max(minX, maxX));
+        int y1 = Math.min(tiles[0].length - 1, Math.max(minY, maxY));
+        if (x1 < x0 || y1 < y0) {
+            return;
+        }
+        version++;
+        for (Listener listener : listeners) {
+            listener.tilesChanged(this, x0, y0, x1, y1);
+        }
+    }
+
+    public void addListener(Listener listener) {
+        if (listener != null) {
+            listeners.addIfAbsent(listener);
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,185 @@
+package com.untitledgame.logic;
+
+/**
+ * Hierarchical timing wheel measured in simulation ticks. Components schedule a
+ * {@link Timer} for some number of ticks ahead and get a callback when it expires,
+ * so nothing has to count down per entity per tick.
+ * Timers are intrusive list nodes owned by the component; scheduling and cancelling
+ * are O(1) and never allocate.
+ */
+public final class TimerWheel {
+    /** length of one simulation tick, the resolution of every timer */
+    public static final int TICK_MS = 40;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // 64^4 ticks is a little over a week at 40ms; longer delays are clamped
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final Timer[] heads = new Timer[SLOTS * LEVELS];
+    private long now;
+    private int scheduledCount;
+
+    /**
+     * callback node. Subclasses are usually anonymous fields on the owning component.
+     */
+    public abstract static class Timer {
+        private TimerWheel wheel;
+        private Timer prev;
+        private Timer next;
+        private long deadline;
+        private int bucket = -1;
+
+        protected abstract void onExpire();
+
+        public boolean isScheduled() {
+            return wheel != null;
+        }
+
+        /**
+         * ticks left before this timer fires, zero when it is not scheduled
+         */
+        public int remainingTicks() {
+            return wheel == null ? 0 : (int) Math.max(0L, deadline - wheel.now);
+        }
+
+        public void cancel() {
+            if (wheel != null) {
+                wheel.unlink(this);
+            }
+        }
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public int scheduledCount() {
+        return scheduledCount;
+    }
+
+    /**
+     * whole ticks covering a duration in milliseconds, rounded up
+     */
+    public static int ticksFor(double durationMs) {
+        if (durationMs <= 0.0) {
+            return 0;
+        }
+        return (int) Math.ceil(durationMs / TICK_MS);
+    }
+
+    /**
+     * (re)schedule a timer to fire after the given number of ticks; zero or less fires on the next advance
+     */
+    public void schedule(Timer timer, long delayTicks) {
+        if (timer.wheel != null) {
+            timer.wheel.unlink(timer);
+        }
+        long delay = Math.max(1L, Math.min(MAX_DELAY, delayTicks));
+        timer.deadline = now + delay;
+        timer.wheel = this;
+        scheduledCount += 1;
+        insert(timer);
+    }
+
+    /**
+     * move time forward one tick and fire everything that is now due
+     */
+    public void advance() {
+        now += 1;
+        if ((now & SLOT_MASK) == 0) {
+            cascade();
+        }
+        int bucket = (int) (now & SLOT_MASK);
+        Timer timer = heads[bucket];
+        while (timer != null) {
+            unlink(timer);
+            if (timer.deadline <= now) {
+                timer.onExpire();
+            } else {
+                timer.wheel = this;
+                scheduledCount += 1;
+                insert(timer);
+            }
+            timer = heads[bucket];
+        }
+    }
+
+    /**
+     * drop every timer without firing it, e.g. when a new level starts
+     */
+    public void clear() {
+        for (int i = 0; i < heads.length; i += 1) {
+            Timer timer = heads[i];
+            while (timer != null) {
+                Timer next = timer.next;
+                detach(timer);
+                timer = next;
+            }
+            heads[i] = null;
+        }
+        scheduledCount = 0;
+    }
+
+    // a higher level rolls one slot down into the levels below whenever the level beneath it wraps
+    private void cascade() {
+        int level = 1;
+        while (level < LEVELS) {
+            int slot = (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK);
+            int bucket = level * SLOTS + slot;
+            Timer timer = heads[bucket];
+            heads[bucket] = null;
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                insert(timer);
+                timer = next;
+            }
+            if (slot != 0) {
+                break;
+            }
+            level += 1;
+        }
+    }
+
+    private void insert(Timer timer) {
+        long delta = timer.deadline - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level += 1;
+        }
+        int slot = (int) ((timer.deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        int bucket = level * SLOTS + slot;
+        Timer head = heads[bucket];
+        timer.bucket = bucket;
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        heads[bucket] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            heads[timer.bucket] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        detach(timer);
+        scheduledCount -= 1;
+    }
+
+    private static void detach(Timer timer) {
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = -1;
+        timer.wheel = null;
+    }
+}
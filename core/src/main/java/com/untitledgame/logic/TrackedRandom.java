@@ -0,0 +1,32 @@
+package com.untitledgame.logic;
+
+import java.util.Random;
+
+/**
+ * Random that counts how many values it has produced so state checksums
+ * can tell when two runs have drawn from the same stream a different number of times.
+ */
+public class TrackedRandom extends Random {
+    private long draws;
+
+    public TrackedRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    protected int next(int bits) {
+        draws += 1;
+        return super.next(bits);
+    }
+
+    public long draws() {
+        return draws;
+    }
+
+    /**
+     * draw count of any random, untracked streams report zero
+     */
+    public static long drawsOf(Random random) {
+        return random instanceof TrackedRandom tracked ? tracked.draws() : 0L;
+    }
+}
@@ -6,6 +6,8 @@ import java.util.List;
 
 public class Inventory {
     private final List<ItemStack> slots;
+    // bumped on every change to a stack, so readers can tell when a copy is stale
+    private long version;
 
     public Inventory(int slotCount) {
         int sanitizedSlots = Math.max(1, slotCount);
@@ -16,6 +18,10 @@ public class Inventory {
         return Collections.unmodifiableList(slots);
     }
 
+    public long version() {
+        return version;
+    }
+
     public int add(Item item, int quantity) {
         int remaining = quantity;
 
@@ -38,6 +44,9 @@ public class Inventory {
             remaining -= toPlace;
         }
 
+        if (remaining != quantity) {
+            version++;
+        }
         return remaining;
     }
 
@@ -54,6 +63,9 @@ public class Inventory {
                 slots.set(i, null);
             }
         }
+        if (remaining != quantity) {
+            version++;
+        }
         return remaining == 0;
     }
 
@@ -67,6 +79,20 @@ public class Inventory {
         return results;
     }
 
+    /**
+     * Independent copy with the same slot layout, for readers on another thread.
+     */
+    public Inventory copy() {
+        Inventory copy = new Inventory(slots.size());
+        for (int i = 0; i < slots.size(); i += 1) {
+            ItemStack stack = slots.get(i);
+            if (stack != null) {
+                copy.slots.set(i, new ItemStack(stack.item(), stack.quantity()));
+            }
+        }
+        return copy;
+    }
+
     /**
      * Remove and return all stored stacks, leaving the inventory empty.
      */
@@ -79,6 +105,7 @@ public class Inventory {
             }
             slots.set(i, null);
         }
+        version++;
         return removed;
     }
 }
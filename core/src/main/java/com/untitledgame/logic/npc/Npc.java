@@ -8,10 +8,12 @@ import com.untitledgame.logic.AiBehavior;
 import com.untitledgame.logic.Direction;
 import com.untitledgame.logic.Entity;
 import com.untitledgame.logic.HealthComponent;
+import com.untitledgame.logic.TimerWheel;
 import com.untitledgame.assets.TETile;
 
 import java.util.EnumMap;
 import java.util.Random;
+import java.util.function.DoubleSupplier;
 
 /**
  * Minimal NPC representation with random-walk behavior.
@@ -32,8 +34,16 @@ public class Npc extends Entity {
 
     // Dodge state tracking
     private boolean dodging = false;
-    private int dodgeAnimationTicks = 0;
+    private final TimerWheel.Timer dodgeTimer = new TimerWheel.Timer() {
+        @Override
+        protected void onExpire() {
+            dodging = false;
+            setVelocity(0.0, 0.0);
+        }
+    };
     private Direction dodgeDirection = Direction.DOWN;
+    private AnimationType dodgeAnimation = AnimationType.DODGE1;
+    private int dodgeCount = 0;
     private static final int DODGE_ANIMATION_DURATION_TICKS = 12; // Duration of dodge roll
     private static final double DODGE_SPEED = 8.0; // Speed multiplier during dodge
     public static final double DODGE_PROBABILITY = 0.50; // 30% chance to dodge attacks
@@ -42,7 +52,12 @@ public class Npc extends Entity {
 
     // Kick counter-attack state tracking
     private boolean kicking = false;
-    private int kickAnimationTicks = 0;
+    private final TimerWheel.Timer kickTimer = new TimerWheel.Timer() {
+        @Override
+        protected void onExpire() {
+            kicking = false;
+        }
+    };
     private static final int KICK_ANIMATION_DURATION_TICKS = 15; // Duration of kick animation
     public static final double KICK_COUNTER_PROBABILITY = 0.30; // 20% chance to kick counter player attacks
 
@@ -54,12 +69,29 @@ public class Npc extends Entity {
 
     // Centralized animation system using shared timing constants
     private final AnimationController animationController;
+    // simulation seconds from the manager, advanced every fixed step; null leaves the clock alone
+    private DoubleSupplier animationClock;
 
     // Attack state tracking
     private boolean attacking = false;
-    private int attackCooldownTicks = 0;
-    private int attackAnimationTicks = 0; // Tracks how long attack animation has been playing
+    private long attackStartTick; // wheel time the current attack animation started
     private boolean damageQueuedThisAttack = false;
+    private final TimerWheel.Timer attackTimer = new TimerWheel.Timer() {
+        @Override
+        protected void onExpire() {
+            // Attack animation done - transition to cooldown
+            attacking = false;
+            if (timers() != null) {
+                timers().schedule(cooldownTimer, ATTACK_COOLDOWN_TICKS);
+            }
+        }
+    };
+    private final TimerWheel.Timer cooldownTimer = new TimerWheel.Timer() {
+        @Override
+        protected void onExpire() {
+            // ready to attack again, AttackBehavior will call markAttacking()
+        }
+    };
 
     // Attack sound callback
     private Runnable attackSoundCallback;
@@ -156,6 +188,7 @@ public class Npc extends Entity {
         if (animationController == null) {
             return true;
         }
+        resolveAnimation();
         return animationController.isAnimationFinished();
     }
 
@@ -164,13 +197,22 @@ public class Npc extends Entity {
         if (kicking || isStaggered() || health() == null || health().isDepleted()) {
             return;
         }
+        if (timers() == null) {
+            return;
+        }
         kicking = true;
-        kickAnimationTicks = 0;
+        timers().schedule(kickTimer, KICK_ANIMATION_DURATION_TICKS);
         setFacing(kickDirection);
     }
 
+    /**
+     * ticks since the current attack started, counting the tick it started on as zero
+     */
     public int getAttackAnimationTicks() {
-        return attackAnimationTicks;
+        if (!attacking || timers() == null) {
+            return 0;
+        }
+        return (int) (timers().now() - attackStartTick);
     }
     /**
      * Advance one tick of NPC simulation: possibly move.
@@ -183,41 +225,23 @@ public class Npc extends Entity {
         }
         moveTick += 1;
 
-        // Handle kick animation
+        // Kick and dodge end on their timers
         if (kicking) {
-            kickAnimationTicks++;
             setVelocity(0.0, 0.0); // Stop moving during kick
-
-            // Check if kick animation is complete
-            if (kickAnimationTicks >= KICK_ANIMATION_DURATION_TICKS) {
-                kicking = false;
-                kickAnimationTicks = 0;
-            }
             return;
         }
 
         if (dodging) {
-            dodgeAnimationTicks++;
-
             // Keep moving in dodge direction
             double dx = dodgeDirection.getDx();
             double dy = dodgeDirection.getDy();
             setVelocity(dx * DODGE_SPEED, dy * DODGE_SPEED);
-
-            // Check if dodge animation is complete
-            if (dodgeAnimationTicks >= DODGE_ANIMATION_DURATION_TICKS) {
-                dodging = false;
-                dodgeAnimationTicks = 0;
-                setVelocity(0.0, 0.0);
-            }
             return;
         }
 
         if (isStaggered()) {
             // Halt movement and attacks while staggered
-            attacking = false;
-            attackAnimationTicks = 0;
-            damageQueuedThisAttack = false;
+            cancelAttack();
             setVelocity(0.0, 0.0);
             return;
         }
@@ -232,34 +256,13 @@ public class Npc extends Entity {
         if (stateChanged) {
             // Clear attacking flag and cooldown when transitioning away FROM ATTACK state
             if (state == State.ATTACK && desiredState != State.ATTACK) {
-                attacking = false;
-                attackCooldownTicks = 0;
-                attackAnimationTicks = 0;
-                damageQueuedThisAttack = false;
+                cancelAttack();
+                cooldownTimer.cancel();
             }
             switchState(desiredState);
         }
-
-        // Handle attack cooldown system when in ATTACK state
-        if (state == State.ATTACK) {
-            if (attackCooldownTicks > 0) {
-                // In cooldown period - count down
-                attackCooldownTicks--;
-                attacking = false; // Show idle animation during cooldown
-            } else if (attacking) {
-                // Currently attacking - increment animation timer
-                attackAnimationTicks++;
-
-                // Check if attack animation duration has elapsed
-                if (attackAnimationTicks >= ATTACK_ANIMATION_DURATION_TICKS) {
-                    // Transition to cooldown
-                    attacking = false;
-                    attackCooldownTicks = ATTACK_COOLDOWN_TICKS;
-                    attackAnimationTicks = 0;
-                }
-            }
-            // If not attacking and no cooldown, ready to attack (behavior will call markAttacking())
-        }
+        // In ATTACK state the attack and cooldown timers hand over to each other;
+        // when neither is running the behavior may call markAttacking()
 
         activeBehavior.onTick(this, view);
         Direction move = null;
@@ -307,10 +310,14 @@ public class Npc extends Entity {
     }
 
     /**
-     * Update animation state time. Should be called each frame with delta time.
-     * @param deltaSeconds Time elapsed since last frame in seconds
+     * Bring the animation up to the simulation clock. Nothing advances between calls, so
+     * only NPCs whose frame is drawn or whose animation is queried pay for it; the state
+     * time comes from when the current animation started on that clock.
      */
-    public void updateAnimation(float deltaSeconds) {
+    private void resolveAnimation() {
+        if (animationClock != null) {
+            animationController.advanceTo(animationClock.getAsDouble());
+        }
         // Determine animation type based on state and velocity (not waypoints)
         AnimationType desiredType = AnimationType.IDLE;
         if (dying) {
@@ -318,10 +325,7 @@ public class Npc extends Entity {
         } else if (kicking) {
             desiredType = AnimationType.KICK;
         } else if (dodging) {
-            boolean b = Math.random() <= 0.5;
-            if (b) {
-                desiredType = AnimationType.DODGE1;
-            } else desiredType = AnimationType.DODGE2;
+            desiredType = dodgeAnimation;
         } else if (isStaggered()) {
             desiredType = AnimationType.TAKE_DAMAGE;
         } else if (attacking) {
@@ -331,9 +335,14 @@ public class Npc extends Entity {
             desiredType = AnimationType.WALK;
         }
 
-        // Update animation
         animationController.setAnimation(desiredType, facing);
-        animationController.update(deltaSeconds);
+    }
+
+    /**
+     * Clock the animation reads when a frame is resolved, in seconds of simulation time.
+     */
+    public void setAnimationClock(DoubleSupplier animationClock) {
+        this.animationClock = animationClock;
     }
 
     /**
@@ -343,9 +352,10 @@ public class Npc extends Entity {
      */
     public void markAttacking() {
         // Only start a new attack if able to attack
-        if (canAttack()) {
+        if (canAttack() && timers() != null) {
             attacking = true;
-            attackAnimationTicks = 0; // Start tracking animation duration
+            attackStartTick = timers().now();
+            timers().schedule(attackTimer, ATTACK_ANIMATION_DURATION_TICKS);
             damageQueuedThisAttack = false;
 
 
@@ -368,7 +378,13 @@ public class Npc extends Entity {
      * Check if the NPC can attack (not currently attacking and not in cooldown).
      */
     public boolean canAttack() {
-        return !attacking && attackCooldownTicks == 0;
+        return !attacking && !cooldownTimer.isScheduled();
+    }
+
+    private void cancelAttack() {
+        attacking = false;
+        attackTimer.cancel();
+        damageQueuedThisAttack = false;
     }
 
 
@@ -381,15 +397,18 @@ public class Npc extends Entity {
             // Default to facing direction if null
             direction = this.facing;
         }
+        if (timers() == null) {
+            return;
+        }
         dodging = true;
-        dodgeAnimationTicks = 0;
+        timers().schedule(dodgeTimer, DODGE_ANIMATION_DURATION_TICKS);
+        // pick the roll once per dodge, from the seed rather than the AI's random stream
+        dodgeAnimation = ((rngSeed + ++dodgeCount * 0x9E3779B97F4A7C15L) >>> 63) == 0
+                ? AnimationType.DODGE1 : AnimationType.DODGE2;
         dodgeDirection = direction;
         facing = direction;
         // Cancel any ongoing attack animation but preserve cooldown
-        attacking = false;
-        attackAnimationTicks = 0;
-        damageQueuedThisAttack = false;
-        // Preserve attackCooldownTicks - don't reset to 0
+        cancelAttack();
     }
 
 
@@ -398,7 +417,7 @@ public class Npc extends Entity {
      * Get the current attack cooldown in ticks.
      */
     public int getAttackCooldownTicks() {
-        return attackCooldownTicks;
+        return cooldownTimer.remainingTicks();
     }
 
     /**
@@ -407,6 +426,7 @@ public class Npc extends Entity {
      * @return The current frame of the NPC's animation
      */
     public TextureRegion currentFrame() {
+            resolveAnimation();
             // Special handling for TAKE_DAMAGE animation
             if (animationController.getCurrentAnimationType() == AnimationType.TAKE_DAMAGE && isStaggered()) {
                 int currentFrameIndex = animationController.getCurrentFrameIndex();
@@ -501,6 +521,17 @@ public class Npc extends Entity {
         justStaggered = true; // Mark that we just got hit
     }
 
+    @Override
+    protected void cancelTimers() {
+        super.cancelTimers();
+        kicking = false;
+        kickTimer.cancel();
+        dodging = false;
+        dodgeTimer.cancel();
+        cancelAttack();
+        cooldownTimer.cancel();
+    }
+
     private enum State {
         IDLE,
         SEEK,
@@ -7,6 +7,9 @@ import com.untitledgame.logic.Avatar;
 import com.untitledgame.logic.CombatService;
 import com.untitledgame.logic.Entity;
 import com.untitledgame.logic.HealthComponent;
+import com.untitledgame.logic.SpatialIndex;
+import com.untitledgame.logic.TrackedRandom;
+import com.untitledgame.logic.World;
 import com.untitledgame.assets.TileType;
 
 import java.util.ArrayList;
@@ -17,6 +20,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
 
 /**
  * Coordinator for NPC creation, updates, and lifecycle management.
@@ -34,11 +38,22 @@ public class NpcManager {
     private final int maxAttempts = 500;
     /**lookup of NPCs by tile for hitbox collision */
     private final Map<Entity.Position, List<Npc>> npcByTile = new HashMap<>();
+    /** grid of NPC hitboxes for hit queries, rebuilt alongside the tile lookup */
+    private final SpatialIndex<Npc> hitIndex = new SpatialIndex<>(World.WIDTH, World.HEIGHT, HIT_CELL_SIZE, Npc.HITBOX_HALF);
+    // one visitor for every damageInArea call, fed through these fields, so a query captures nothing
+    private final SpatialIndex.HitVisitor<Npc> areaDamageVisitor = this::queueAreaDamage;
+    private Entity areaDamageSource;
+    private int areaDamageAmount;
+    private static final int HIT_CELL_SIZE = 4;
     private List<Integer> availableVariants = new ArrayList<>(List.of(0));
     private static final double NPC_SPEED = 2.0;
 
     private static final int DEFAULT_NPC_COUNT = 10;
 
+    // seconds of NPC simulation, shared by every NPC's animation
+    private double animationSeconds;
+    private final DoubleSupplier animationClock = () -> animationSeconds;
+
     public NpcManager(Random rng, CombatService combatService, TextureAtlas textureAtlas) {
         this.rng = rng;
         this.combatService = combatService;
@@ -49,6 +64,20 @@ public class NpcManager {
         return npcs;
     }
 
+    /**
+     * move the NPC animation clock forward by one simulation step
+     */
+    public void advanceClock(double deltaSeconds) {
+        animationSeconds += deltaSeconds;
+    }
+
+    /**
+     * number of values drawn from the spawn stream, zero when it is not tracked
+     */
+    public long rngDraws() {
+        return TrackedRandom.drawsOf(rng);
+    }
+
     public double moveSpeed() {
         return NPC_SPEED;
     }
@@ -97,7 +126,8 @@ public class NpcManager {
             // Create animation controller with all animation types
             AnimationController animationController = AnimationFactory.createNpcController(textureAtlas, variant);
             
-            Npc npc = new Npc(x, y, new Random(npcSeed), npcSeed, variant, animationController, health);
+            Npc npc = new Npc(x, y, new TrackedRandom(npcSeed), npcSeed, variant, animationController, health);
+            npc.setAnimationClock(animationClock);
             health.addDeathCallback(entity -> handleNpcDeath((Npc) entity));
             // Set attack sound callback if available
             if (attackSoundCallback != null) {
@@ -107,6 +137,7 @@ public class NpcManager {
             npcs.add(npc);
             addNpcPosition(new Entity.Position(x, y), npc);
         }
+        hitIndex.rebuild(npcs);
     }
 
     /**
@@ -143,6 +174,9 @@ public class NpcManager {
             // Create corpse using static tile representation
             corpses.add(new Corpse(npc.x(), npc.y(), com.untitledgame.assets.Tileset.NPC_CORPSE));
         }
+        if (!toRemove.isEmpty()) {
+            hitIndex.rebuild(npcs);
+        }
     }
 
     public List<Corpse> corpses() {
@@ -153,13 +187,30 @@ public class NpcManager {
         if (amount <= 0) {
             return;
         }
-        for (Npc npc : npcs) {
-            double dx = Math.abs(centerX - npc.posX());
-            double dy = Math.abs(centerY - npc.posY());
-            if (dx <= (halfWidth + Npc.HITBOX_HALF) && dy <= (halfHeight + Npc.HITBOX_HALF)) {
-                combatService.queueDamage(npc, source, amount);
-            }
-        }
+        areaDamageSource = source;
+        areaDamageAmount = amount;
+        hitIndex.queryAabb(centerX, centerY, halfWidth, halfHeight, areaDamageVisitor);
+        areaDamageSource = null;
+    }
+
+    private void queueAreaDamage(Npc npc) {
+        combatService.queueDamage(npc, areaDamageSource, areaDamageAmount);
+    }
+
+    /**
+     * visit NPCs whose hitbox overlaps the box centered at (centerX, centerY)
+     */
+    public void queryAabb(double centerX, double centerY, double halfWidth, double halfHeight,
+                          SpatialIndex.HitVisitor<? super Npc> visitor) {
+        hitIndex.queryAabb(centerX, centerY, halfWidth, halfHeight, visitor);
+    }
+
+    /**
+     * visit NPCs whose hitbox touches the arc swept from the origin along (dirX, dirY)
+     */
+    public void querySweptArc(double originX, double originY, double dirX, double dirY,
+                              double radius, double halfAngle, SpatialIndex.HitVisitor<? super Npc> visitor) {
+        hitIndex.querySweptArc(originX, originY, dirX, dirY, radius, halfAngle, visitor);
     }
 
     private Set<Entity.Position> buildOccupiedSet(Entity.Position avatarPos) {
@@ -228,6 +279,7 @@ public class NpcManager {
         for (Npc npc : npcs) {
             addNpcPosition(new Entity.Position(npc.x(), npc.y()), npc);
         }
+        hitIndex.rebuild(npcs);
     }
 
     private int selectVariant() {
@@ -261,6 +313,7 @@ public class NpcManager {
         if (restoredCorpses != null) {
             corpses.addAll(restoredCorpses);
         }
+        hitIndex.rebuild(npcs);
     }
 
     private void addNpcPosition(Entity.Position position, Npc npc) {
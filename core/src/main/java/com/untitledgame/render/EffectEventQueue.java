@@ -0,0 +1,85 @@
+package com.untitledgame.render;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free queue of effect requests from the simulation thread to the render thread,
+ * stored as parallel primitive arrays so neither side allocates. Unlike the triple-buffered
+ * snapshot, nothing is skipped when the renderer falls behind: every burst queued is
+ * drained once. The capacity is fixed; when the renderer is too far behind to drain,
+ * new requests are dropped and counted rather than blocking the simulation.
+ */
+public final class EffectEventQueue {
+    private static final EffectKind[] KINDS = EffectKind.values();
+
+    private final int mask;
+    private final int[] kinds;
+    private final float[] xs;
+    private final float[] ys;
+    // next slot to read; written only by the consumer
+    private final AtomicInteger head = new AtomicInteger();
+    // next slot to write; written only by the producer
+    private final AtomicInteger tail = new AtomicInteger();
+    private volatile int dropped;
+
+    public EffectEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.kinds = new int[size];
+        this.xs = new float[size];
+        this.ys = new float[size];
+    }
+
+    /**
+     * queue a burst at a world position; producer thread only
+     * @return false when the queue was full and the burst was dropped
+     */
+    public boolean offer(EffectKind kind, double x, double y) {
+        int t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++;
+            return false;
+        }
+        int slot = t & mask;
+        kinds[slot] = kind.ordinal();
+        xs[slot] = (float) x;
+        ys[slot] = (float) y;
+        // release the slot's contents with the new tail
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * spawn every queued burst into the pool; consumer thread only
+     * @return bursts drained
+     */
+    public int drainTo(ParticlePool particles) {
+        int h = head.get();
+        int t = tail.get();
+        for (int i = h; i != t; i++) {
+            int slot = i & mask;
+            particles.spawn(KINDS[kinds[slot]], xs[slot], ys[slot]);
+        }
+        head.lazySet(t);
+        return t - h;
+    }
+
+    /**
+     * throw away every queued burst without spawning it, e.g. when a new level starts;
+     * consumer thread only
+     * @return bursts discarded
+     */
+    public int discard() {
+        int h = head.get();
+        int t = tail.get();
+        head.lazySet(t);
+        return t - h;
+    }
+
+    /**
+     * bursts dropped so far because the queue was full
+     */
+    public int dropped() {
+        return dropped;
+    }
+}
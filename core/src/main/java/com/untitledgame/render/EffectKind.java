@@ -0,0 +1,79 @@
+package com.untitledgame.render;
+
+/**
+ * Particle bursts the simulation can ask for, each with the look of its particles.
+ * Speeds are in tiles per second, sizes in tiles, colors packed as 0xRRGGBB.
+ */
+public enum EffectKind {
+    /** damage went through: warm sparks thrown outwards */
+    HIT(12, 3.5f, 0.35f, 0.12f, 0xFFB050, 4f, -2f),
+    /** a parried blow: fast, bright, short-lived sparks */
+    PARRY(16, 5f, 0.25f, 0.1f, 0xD8ECFF, 6f, 0f),
+    /** a roll out of the way: slow dust hanging near the ground */
+    DODGE(10, 1.2f, 0.5f, 0.16f, 0x9A8F80, 3f, 0f),
+    /** an entity died: a wide, lingering burst that sinks */
+    DEATH(32, 2.5f, 0.9f, 0.14f, 0xB02828, 2f, -1.5f),
+    /** a light shard was picked up: motes drifting upwards */
+    SHARD_PICKUP(24, 1.5f, 1f, 0.1f, 0x9FE8FF, 1.5f, 2f);
+
+    private final int count;
+    private final float speed;
+    private final float lifeSeconds;
+    private final float size;
+    private final int rgb;
+    private final float drag;
+    private final float rise;
+
+    EffectKind(int count, float speed, float lifeSeconds, float size, int rgb, float drag, float rise) {
+        this.count = count;
+        this.speed = speed;
+        this.lifeSeconds = lifeSeconds;
+        this.size = size;
+        this.rgb = rgb;
+        this.drag = drag;
+        this.rise = rise;
+    }
+
+    /**
+     * particles per burst
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * fastest launch speed; each particle gets between half and all of it
+     */
+    public float speed() {
+        return speed;
+    }
+
+    /**
+     * longest particle life; each particle gets between half and all of it
+     */
+    public float lifeSeconds() {
+        return lifeSeconds;
+    }
+
+    public float size() {
+        return size;
+    }
+
+    public int rgb() {
+        return rgb;
+    }
+
+    /**
+     * share of velocity lost per second
+     */
+    public float drag() {
+        return drag;
+    }
+
+    /**
+     * vertical acceleration in tiles per second squared; negative sinks
+     */
+    public float rise() {
+        return rise;
+    }
+}
@@ -0,0 +1,69 @@
+package com.untitledgame.render;
+
+import java.util.Arrays;
+
+/**
+ * One bit per tile, set once the avatar's light has reached the tile. A 4096x4096 level
+ * takes 2 MB, and asking whether a reveal is new costs a single word test.
+ */
+public final class ExploredMap {
+    private final int width;
+    private final int height;
+    private final long[] bits;
+    private int explored;
+
+    public ExploredMap(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Explored map must be non-empty: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.bits = new long[(int) (((long) width * height + 63) >>> 6)];
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * mark the tile explored; true only the first time, so callers can paint just new tiles
+     */
+    public boolean reveal(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        int index = y * width + x;
+        long mask = 1L << index;
+        int word = index >>> 6;
+        if ((bits[word] & mask) != 0) {
+            return false;
+        }
+        bits[word] |= mask;
+        explored++;
+        return true;
+    }
+
+    public boolean isExplored(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        int index = y * width + x;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * number of tiles revealed so far
+     */
+    public int exploredCount() {
+        return explored;
+    }
+
+    public void clear() {
+        Arrays.fill(bits, 0L);
+        explored = 0;
+    }
+}
@@ -0,0 +1,244 @@
+package com.untitledgame.render;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * CPU side of tiled lighting. The view is split into square screen tiles and each light is
+ * binned into the tiles its radius touches, most important first, so a pixel only loops over
+ * the few lights near it. Results are packed for two RGBA8888 textures:
+ * <ul>
+ *     <li>light data, one column per light: position, color, then radius and intensity,
+ *     with the scalars stored as 16-bit fixed point across two channels</li>
+ *     <li>tile lists, one row per tile row and {@link #LIGHTS_PER_TILE} texels per tile,
+ *     each holding a light index in R/G with A set; the first empty texel ends the list</li>
+ * </ul>
+ */
+public final class LightTileBinner {
+    /** side of a screen tile in world tiles */
+    public static final int TILE_SIZE = 4;
+    /** per-tile light budget; lights past it in a crowded tile are dropped from that tile only */
+    public static final int LIGHTS_PER_TILE = 16;
+    public static final int DATA_ROWS = 3;
+
+    // positions are view-relative so 16 bits keep 1/64 tile anywhere within 128 tiles of the view
+    public static final float POSITION_SCALE = 64f;
+    public static final float POSITION_BIAS = 128f;
+    public static final float RADIUS_SCALE = 256f;
+    public static final float INTENSITY_SCALE = 256f;
+    private static final int FIXED_MAX = 0xFFFF;
+    private static final int BYTES_PER_TEXEL = 4;
+
+    private final int capacity;
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] radii;
+    private final float[] intensities;
+    private final float[] reds;
+    private final float[] greens;
+    private final float[] blues;
+    private final float[] importance;
+    private final long[] order;
+    private int count;
+
+    private int tilesX;
+    private int tilesY;
+    private int[] tileCounts = new int[0];
+    private final byte[] lightData;
+    private final byte[] lightDataScratch;
+    private byte[] tileLists = new byte[0];
+    private byte[] tileListsScratch = new byte[0];
+    private int overflow;
+
+    public LightTileBinner(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        xs = new float[this.capacity];
+        ys = new float[this.capacity];
+        radii = new float[this.capacity];
+        intensities = new float[this.capacity];
+        reds = new float[this.capacity];
+        greens = new float[this.capacity];
+        blues = new float[this.capacity];
+        importance = new float[this.capacity];
+        order = new long[this.capacity];
+        lightData = new byte[this.capacity * DATA_ROWS * BYTES_PER_TEXEL];
+        lightDataScratch = new byte[lightData.length];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int tilesX() {
+        return tilesX;
+    }
+
+    public int tilesY() {
+        return tilesY;
+    }
+
+    /**
+     * tile entries dropped by the per-tile budget in the last {@link #bin}
+     */
+    public int overflow() {
+        return overflow;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * add a light; its index is its insertion order. Higher importance wins tile slots.
+     */
+    public void add(double x, double y, float radius, float intensity,
+                    float red, float green, float blue, float lightImportance) {
+        if (count == capacity) {
+            throw new IllegalStateException("Light binner is full");
+        }
+        xs[count] = (float) x;
+        ys[count] = (float) y;
+        radii[count] = radius;
+        intensities[count] = intensity;
+        reds[count] = red;
+        greens[count] = green;
+        blues[count] = blue;
+        importance[count] = Math.max(0f, lightImportance);
+        count++;
+    }
+
+    /**
+     * bin the lights against a view whose bottom-left corner sits at (viewOriginX + offsetX,
+     * viewOriginY + offsetY) in world tiles. Returns true when either packed buffer changed,
+     * i.e. when the textures need uploading.
+     */
+    public boolean bin(int viewWidth, int viewHeight, int viewOriginX, int viewOriginY,
+                       double offsetX, double offsetY) {
+        int newTilesX = Math.max(1, (viewWidth + TILE_SIZE - 1) / TILE_SIZE);
+        int newTilesY = Math.max(1, (viewHeight + TILE_SIZE - 1) / TILE_SIZE);
+        boolean resized = newTilesX != tilesX || newTilesY != tilesY;
+        if (resized) {
+            tilesX = newTilesX;
+            tilesY = newTilesY;
+            tileCounts = new int[tilesX * tilesY];
+            tileLists = new byte[tilesX * tilesY * LIGHTS_PER_TILE * BYTES_PER_TEXEL];
+            tileListsScratch = new byte[tileLists.length];
+        }
+
+        Arrays.fill(lightDataScratch, (byte) 0);
+        for (int i = 0; i < count; i++) {
+            encodeLight(i, viewOriginX, viewOriginY);
+        }
+
+        Arrays.fill(tileCounts, 0);
+        Arrays.fill(tileListsScratch, (byte) 0);
+        overflow = 0;
+        // importance is non-negative, so its float bits sort like the value; index breaks ties
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) Float.floatToIntBits(importance[i]) << 32) | (count - 1 - i);
+        }
+        Arrays.sort(order, 0, count);
+        double left = viewOriginX + offsetX;
+        double bottom = viewOriginY + offsetY;
+        for (int k = count - 1; k >= 0; k--) {
+            int light = count - 1 - (int) order[k];
+            binLight(light, left, bottom);
+        }
+
+        boolean changed = resized
+                || !Arrays.equals(lightData, lightDataScratch)
+                || !Arrays.equals(tileLists, tileListsScratch);
+        if (changed) {
+            System.arraycopy(lightDataScratch, 0, lightData, 0, lightData.length);
+            System.arraycopy(tileListsScratch, 0, tileLists, 0, tileLists.length);
+        }
+        return changed;
+    }
+
+    /**
+     * write the light data texture, capacity x DATA_ROWS texels, row 0 first
+     */
+    public void copyLightData(ByteBuffer dst) {
+        dst.position(0);
+        dst.put(lightData);
+        dst.position(0);
+    }
+
+    /**
+     * write the tile list texture, (tilesX * LIGHTS_PER_TILE) x tilesY texels, bottom tile row first
+     */
+    public void copyTileLists(ByteBuffer dst) {
+        dst.position(0);
+        dst.put(tileLists);
+        dst.position(0);
+    }
+
+    private void encodeLight(int light, int viewOriginX, int viewOriginY) {
+        int rowStride = capacity * BYTES_PER_TEXEL;
+        int position = light * BYTES_PER_TEXEL;
+        putFixed(lightDataScratch, position, (xs[light] - viewOriginX + POSITION_BIAS) * POSITION_SCALE);
+        putFixed(lightDataScratch, position + 2, (ys[light] - viewOriginY + POSITION_BIAS) * POSITION_SCALE);
+        int color = rowStride + position;
+        lightDataScratch[color] = toByte(reds[light]);
+        lightDataScratch[color + 1] = toByte(greens[light]);
+        lightDataScratch[color + 2] = toByte(blues[light]);
+        lightDataScratch[color + 3] = (byte) 0xFF;
+        int shape = rowStride * 2 + position;
+        putFixed(lightDataScratch, shape, radii[light] * RADIUS_SCALE);
+        putFixed(lightDataScratch, shape + 2, intensities[light] * INTENSITY_SCALE);
+    }
+
+    private void binLight(int light, double left, double bottom) {
+        float radius = radii[light];
+        if (radius <= 0f) {
+            return;
+        }
+        double lx = xs[light] - left;
+        double ly = ys[light] - bottom;
+        int minX = Math.max(0, (int) Math.floor((lx - radius) / TILE_SIZE));
+        int maxX = Math.min(tilesX - 1, (int) Math.floor((lx + radius) / TILE_SIZE));
+        int minY = Math.max(0, (int) Math.floor((ly - radius) / TILE_SIZE));
+        int maxY = Math.min(tilesY - 1, (int) Math.floor((ly + radius) / TILE_SIZE));
+        double radiusSq = (double) radius * radius;
+        for (int ty = minY; ty <= maxY; ty++) {
+            double nearestY = clamp(ly, ty * TILE_SIZE, (ty + 1) * TILE_SIZE);
+            for (int tx = minX; tx <= maxX; tx++) {
+                double nearestX = clamp(lx, tx * TILE_SIZE, (tx + 1) * TILE_SIZE);
+                double dx = lx - nearestX;
+                double dy = ly - nearestY;
+                if (dx * dx + dy * dy > radiusSq) {
+                    continue;
+                }
+                int tile = ty * tilesX + tx;
+                int slot = tileCounts[tile];
+                if (slot == LIGHTS_PER_TILE) {
+                    overflow++;
+                    continue;
+                }
+                tileCounts[tile] = slot + 1;
+                int texel = (ty * tilesX * LIGHTS_PER_TILE + tx * LIGHTS_PER_TILE + slot) * BYTES_PER_TEXEL;
+                tileListsScratch[texel] = (byte) (light & 0xFF);
+                tileListsScratch[texel + 1] = (byte) (light >>> 8);
+                tileListsScratch[texel + 3] = (byte) 0xFF;
+            }
+        }
+    }
+
+    private static void putFixed(byte[] dst, int index, float value) {
+        int fixed = Math.max(0, Math.min(FIXED_MAX, Math.round(value)));
+        dst[index] = (byte) (fixed >>> 8);
+        dst[index + 1] = (byte) fixed;
+    }
+
+    private static byte toByte(float channel) {
+        return (byte) Math.max(0, Math.min(255, Math.round(channel * 255f)));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return value < min ? min : Math.min(value, max);
+    }
+}
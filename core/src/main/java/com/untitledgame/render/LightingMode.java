@@ -0,0 +1,26 @@
+package com.untitledgame.render;
+
+/**
+ * How per-light occlusion is computed for the lighting pass.
+ */
+public enum LightingMode {
+    /** shadowcast on the CPU into a per-light occlusion texture */
+    CPU_SHADOWCAST("CPU shadowcast"),
+    /** raymarch a static wall mask in the fragment shader */
+    GPU_RAYMARCH("GPU raymarch");
+
+    private final String label;
+
+    LightingMode(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public LightingMode next() {
+        LightingMode[] modes = values();
+        return modes[(ordinal() + 1) % modes.length];
+    }
+}
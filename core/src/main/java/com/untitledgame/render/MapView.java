@@ -0,0 +1,28 @@
+package com.untitledgame.render;
+
+/**
+ * How much of the explored map is shown over the world.
+ */
+public enum MapView {
+    /** no map */
+    OFF("off"),
+    /** a corner panel of the area around the avatar */
+    MINIMAP("minimap"),
+    /** the whole level fitted to the screen */
+    FULL("full map");
+
+    private final String label;
+
+    MapView(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public MapView next() {
+        MapView[] views = values();
+        return views[(ordinal() + 1) % views.length];
+    }
+}
@@ -0,0 +1,243 @@
+package com.untitledgame.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.untitledgame.assets.TileType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The explored part of the level as a texture with one texel per tile, shown as a corner
+ * panel or a full-screen map. The avatar's light is shadowcast once per tile it steps on;
+ * only tiles that cast reveals for the first time (or explored tiles that were edited) are
+ * written, as one glTexSubImage2D of their bounding rectangle, so the map is never redrawn.
+ */
+public final class Minimap {
+    /** tiles across the corner panel, fewer on smaller levels */
+    private static final int PANEL_SPAN = 64;
+    private static final float PANEL_SIZE = 192f;
+    private static final float PANEL_MARGIN = 12f;
+    private static final float FULL_MARGIN = 48f;
+    private static final float MARKER_SIZE = 5f;
+    // luminance per tile kind; unexplored texels stay fully transparent
+    private static final byte FLOOR_SHADE = (byte) 0x60;
+    private static final byte WALL_SHADE = (byte) 0xC0;
+    private static final byte ELEVATOR_SHADE = (byte) 0xFF;
+
+    private final Shadowcaster caster = new Shadowcaster();
+    private final VisibilityGrid visibility = new VisibilityGrid();
+    private TileType[][] world;
+    private ExploredMap explored;
+    private Texture texture;
+    private Texture white;
+    private ByteBuffer staging;
+    // inclusive tile rectangle awaiting upload, empty when minX > maxX
+    private int dirtyMinX = Integer.MAX_VALUE;
+    private int dirtyMinY = Integer.MAX_VALUE;
+    private int dirtyMaxX = Integer.MIN_VALUE;
+    private int dirtyMaxY = Integer.MIN_VALUE;
+
+    /**
+     * start a fresh map when the level changes; null clears it
+     */
+    public void bind(TileType[][] tiles) {
+        if (tiles == world) {
+            return;
+        }
+        world = tiles;
+        visibility.invalidate();
+        clearDirty();
+        if (texture != null) {
+            // a new level starts unexplored; the replacement texture is created transparent
+            texture.dispose();
+            texture = null;
+        }
+        explored = tiles == null ? null : new ExploredMap(tiles.length, tiles[0].length);
+    }
+
+    /**
+     * reveal what a light of the given radius at the avatar's position sees; only casts when
+     * the avatar's tile or the radius changed since the last call
+     */
+    public void reveal(double x, double y, double radius) {
+        if (explored == null || radius <= 0.0) {
+            return;
+        }
+        int tileX = (int) Math.floor(x);
+        int tileY = (int) Math.floor(y);
+        int castRadius = (int) Math.ceil(radius);
+        if (visibility.matches(tileX, tileY, castRadius)) {
+            return;
+        }
+        visibility.reset(tileX, tileY, castRadius);
+        caster.cast(world, visibility);
+        for (int ty = tileY - castRadius; ty <= tileY + castRadius; ty++) {
+            for (int tx = tileX - castRadius; tx <= tileX + castRadius; tx++) {
+                if (visibility.isVisible(tx, ty) && explored.reveal(tx, ty)) {
+                    markDirty(tx, ty, tx, ty);
+                }
+            }
+        }
+    }
+
+    /**
+     * repaint edited tiles and recast if the edit was in sight, since walls may have opened
+     */
+    public void invalidateRegion(int minX, int minY, int maxX, int maxY) {
+        if (explored == null) {
+            return;
+        }
+        if (visibility.overlaps(minX, minY, maxX, maxY)) {
+            visibility.invalidate();
+        }
+        markDirty(Math.max(0, minX), Math.max(0, minY),
+                Math.min(explored.width() - 1, maxX), Math.min(explored.height() - 1, maxY));
+    }
+
+    /**
+     * send the texels revealed since the last upload to the texture; needs a GL context
+     */
+    public void upload() {
+        if (explored == null) {
+            return;
+        }
+        int width = explored.width();
+        int height = explored.height();
+        if (texture == null) {
+            texture = new Texture(width, height, Pixmap.Format.LuminanceAlpha);
+            texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+            texture.setWrap(Texture.TextureWrap.ClampToEdge, Texture.TextureWrap.ClampToEdge);
+        }
+        if (white == null) {
+            Pixmap pixel = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+            pixel.setColor(1f, 1f, 1f, 1f);
+            pixel.fill();
+            white = new Texture(pixel);
+            pixel.dispose();
+        }
+        if (dirtyMinX > dirtyMaxX || dirtyMinY > dirtyMaxY) {
+            return;
+        }
+        int regionWidth = dirtyMaxX - dirtyMinX + 1;
+        int regionHeight = dirtyMaxY - dirtyMinY + 1;
+        int bytes = regionWidth * regionHeight * 2;
+        if (staging == null || staging.capacity() < bytes) {
+            staging = BufferUtils.newByteBuffer(bytes);
+        }
+        staging.clear();
+        // texture row 0 is the top of the level, so sprite batch draws it the right way up
+        for (int y = dirtyMaxY; y >= dirtyMinY; y--) {
+            for (int x = dirtyMinX; x <= dirtyMaxX; x++) {
+                if (explored.isExplored(x, y) && world[x][y] != null && world[x][y] != TileType.NOTHING) {
+                    staging.put(shade(world[x][y])).put((byte) 0xFF);
+                } else {
+                    staging.put((byte) 0).put((byte) 0);
+                }
+            }
+        }
+        staging.flip();
+        // upload on unit 1 so whatever the batch has bound on unit 0 is untouched
+        texture.bind(1);
+        Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+        Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, dirtyMinX, height - 1 - dirtyMaxY,
+                regionWidth, regionHeight, GL20.GL_LUMINANCE_ALPHA, GL20.GL_UNSIGNED_BYTE, staging);
+        Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 4);
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+        clearDirty();
+    }
+
+    /**
+     * draw the map in screen coordinates; the batch must be drawing with a screen projection
+     */
+    public void draw(SpriteBatch batch, MapView view, double avatarX, double avatarY,
+                     float screenWidth, float screenHeight) {
+        if (view == MapView.OFF || texture == null || white == null) {
+            return;
+        }
+        int width = explored.width();
+        int height = explored.height();
+        int left;
+        int bottom;
+        int spanX;
+        int spanY;
+        float scale;
+        float x;
+        float y;
+        if (view == MapView.FULL) {
+            left = 0;
+            bottom = 0;
+            spanX = width;
+            spanY = height;
+            scale = Math.min((screenWidth - 2f * FULL_MARGIN) / width, (screenHeight - 2f * FULL_MARGIN) / height);
+            x = (screenWidth - width * scale) / 2f;
+            y = (screenHeight - height * scale) / 2f;
+            batch.setColor(0f, 0f, 0f, 0.75f);
+            batch.draw(white, 0f, 0f, screenWidth, screenHeight);
+        } else {
+            spanX = Math.min(PANEL_SPAN, width);
+            spanY = Math.min(PANEL_SPAN, height);
+            left = clamp((int) Math.floor(avatarX) - spanX / 2, 0, width - spanX);
+            bottom = clamp((int) Math.floor(avatarY) - spanY / 2, 0, height - spanY);
+            scale = PANEL_SIZE / Math.max(spanX, spanY);
+            x = screenWidth - PANEL_MARGIN - spanX * scale;
+            y = screenHeight - PANEL_MARGIN - spanY * scale;
+            batch.setColor(0f, 0f, 0f, 0.6f);
+            batch.draw(white, x, y, spanX * scale, spanY * scale);
+        }
+        batch.setColor(0.95f, 0.85f, 0.7f, 1f);
+        batch.draw(texture, x, y, spanX * scale, spanY * scale,
+                left, height - (bottom + spanY), spanX, spanY, false, false);
+        float markerX = x + (float) (avatarX - left) * scale - MARKER_SIZE / 2f;
+        float markerY = y + (float) (avatarY - bottom) * scale - MARKER_SIZE / 2f;
+        batch.setColor(1f, 0.45f, 0.1f, 1f);
+        batch.draw(white, markerX, markerY, MARKER_SIZE, MARKER_SIZE);
+        batch.setColor(1f, 1f, 1f, 1f);
+    }
+
+    public void dispose() {
+        if (texture != null) {
+            texture.dispose();
+            texture = null;
+        }
+        if (white != null) {
+            white.dispose();
+            white = null;
+        }
+        staging = null;
+    }
+
+    private static byte shade(TileType tile) {
+        if (tile == TileType.ELEVATOR) {
+            return ELEVATOR_SHADE;
+        }
+        if (Shadowcaster.isBlockingTile(tile)) {
+            return WALL_SHADE;
+        }
+        return FLOOR_SHADE;
+    }
+
+    private void markDirty(int minX, int minY, int maxX, int maxY) {
+        if (maxX < minX || maxY < minY) {
+            return;
+        }
+        dirtyMinX = Math.min(dirtyMinX, minX);
+        dirtyMinY = Math.min(dirtyMinY, minY);
+        dirtyMaxX = Math.max(dirtyMaxX, maxX);
+        dirtyMaxY = Math.max(dirtyMaxY, maxY);
+    }
+
+    private void clearDirty() {
+        dirtyMinX = Integer.MAX_VALUE;
+        dirtyMinY = Integer.MAX_VALUE;
+        dirtyMaxX = Integer.MIN_VALUE;
+        dirtyMaxY = Integer.MIN_VALUE;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,199 @@
+package com.untitledgame.render;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.NumberUtils;
+
+/**
+ * Fixed-capacity pool of short-lived effect particles stored as parallel primitive arrays.
+ * Live particles are packed at the front, so a step is one pass over contiguous floats and
+ * an expired particle is replaced by the last live one. Drawing writes one quad per particle
+ * into a vertex array handed to the batch in a single call, so every particle shares one
+ * texture and one draw call. Nothing allocates after construction; a burst that does not
+ * fit is cut short and counted.
+ */
+public final class ParticlePool {
+    public static final int DEFAULT_CAPACITY = 8192;
+    // x, y, packed color, u, v for each of a quad's four corners, as SpriteBatch expects
+    private static final int VERTEX_FLOATS = 20;
+    // sample the middle of the white texel so filtering never reaches an edge
+    private static final float TEXEL_CENTER = 0.5f;
+
+    private final int capacity;
+    private final float[] x;
+    private final float[] y;
+    private final float[] vx;
+    private final float[] vy;
+    private final float[] age;
+    private final float[] life;
+    private final float[] size;
+    private final float[] drag;
+    private final float[] rise;
+    // 0x00BBGGRR, the packed color layout without alpha
+    private final int[] bgr;
+    private final float[] vertices;
+    private int count;
+    private long dropped;
+    private int randomState = 0x2545F491;
+
+    public ParticlePool(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        x = new float[this.capacity];
+        y = new float[this.capacity];
+        vx = new float[this.capacity];
+        vy = new float[this.capacity];
+        age = new float[this.capacity];
+        life = new float[this.capacity];
+        size = new float[this.capacity];
+        drag = new float[this.capacity];
+        rise = new float[this.capacity];
+        bgr = new int[this.capacity];
+        vertices = new float[this.capacity * VERTEX_FLOATS];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * live particles
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * particles not spawned so far because the pool was full
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * emit one burst of the kind's particles from a world position
+     */
+    public void spawn(EffectKind kind, float originX, float originY) {
+        int spawned = Math.min(kind.count(), capacity - count);
+        dropped += kind.count() - spawned;
+        int rgb = kind.rgb();
+        int packedBgr = ((rgb >>> 16) & 0xFF) | (rgb & 0xFF00) | ((rgb & 0xFF) << 16);
+        for (int n = 0; n < spawned; n++) {
+            int i = count++;
+            double angle = nextFloat() * Math.PI * 2.0;
+            float speed = kind.speed() * (0.5f + 0.5f * nextFloat());
+            x[i] = originX;
+            y[i] = originY;
+            vx[i] = (float) Math.cos(angle) * speed;
+            vy[i] = (float) Math.sin(angle) * speed;
+            age[i] = 0f;
+            life[i] = kind.lifeSeconds() * (0.5f + 0.5f * nextFloat());
+            size[i] = kind.size();
+            drag[i] = kind.drag();
+            rise[i] = kind.rise();
+            bgr[i] = packedBgr;
+        }
+    }
+
+    /**
+     * advance every particle and retire the expired ones
+     */
+    public void update(float deltaSeconds) {
+        if (deltaSeconds <= 0f) {
+            return;
+        }
+        int i = 0;
+        while (i < count) {
+            float a = age[i] + deltaSeconds;
+            if (a >= life[i]) {
+                moveLast(i);
+                continue;
+            }
+            age[i] = a;
+            float keep = Math.max(0f, 1f - drag[i] * deltaSeconds);
+            float nextVx = vx[i] * keep;
+            float nextVy = vy[i] * keep + rise[i] * deltaSeconds;
+            vx[i] = nextVx;
+            vy[i] = nextVy;
+            x[i] += nextVx * deltaSeconds;
+            y[i] += nextVy * deltaSeconds;
+            i++;
+        }
+    }
+
+    /**
+     * draw every live particle as a square fading out over its life; the batch must be
+     * drawing and the texture should be a single white texel
+     * @param offsetX added to world x to get batch coordinates
+     * @param offsetY added to world y to get batch coordinates
+     */
+    public void draw(SpriteBatch batch, Texture texture, float offsetX, float offsetY) {
+        int floats = writeVertices(offsetX, offsetY);
+        if (floats > 0) {
+            batch.draw(texture, vertices, 0, floats);
+        }
+    }
+
+    /**
+     * fill {@link #vertices()} with one quad per live particle, as {@link #draw} does
+     * @return floats written
+     */
+    public int writeVertices(float offsetX, float offsetY) {
+        float[] v = vertices;
+        int o = 0;
+        for (int i = 0; i < count; i++) {
+            float half = size[i] * 0.5f;
+            float left = x[i] + offsetX - half;
+            float bottom = y[i] + offsetY - half;
+            float right = left + size[i];
+            float top = bottom + size[i];
+            int alpha = (int) (255f * (1f - age[i] / life[i]));
+            float color = NumberUtils.intToFloatColor((alpha << 24) | bgr[i]);
+            o = corner(v, o, left, bottom, color);
+            o = corner(v, o, left, top, color);
+            o = corner(v, o, right, top, color);
+            o = corner(v, o, right, bottom, color);
+        }
+        return o;
+    }
+
+    public float[] vertices() {
+        return vertices;
+    }
+
+    private static int corner(float[] v, int o, float cornerX, float cornerY, float color) {
+        v[o] = cornerX;
+        v[o + 1] = cornerY;
+        v[o + 2] = color;
+        v[o + 3] = TEXEL_CENTER;
+        v[o + 4] = TEXEL_CENTER;
+        return o + 5;
+    }
+
+    private void moveLast(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        age[i] = age[last];
+        life[i] = life[last];
+        size[i] = size[last];
+        drag[i] = drag[last];
+        rise[i] = rise[last];
+        bgr[i] = bgr[last];
+    }
+
+    // xorshift; particle spread is cosmetic and must not draw from the simulation's random streams
+    private float nextFloat() {
+        int s = randomState;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        randomState = s;
+        return (s >>> 8) * 0x1.0p-24f;
+    }
+}
@@ -0,0 +1,116 @@
+package com.untitledgame.render;
+
+/**
+ * Steps the {@link QualityTier} down when frames miss the target rate and back up when
+ * render work leaves clear headroom. The two thresholds are far apart, a step down needs
+ * most of a window of slow frames, and a step up needs several seconds of headroom, so one
+ * hitch or a tier sitting right at the edge does not flip back and forth. An upgrade that is
+ * undone soon after doubles the wait before the next try.
+ */
+public final class QualityGovernor {
+    /** frames judged together when deciding to step down */
+    private static final int WINDOW = 30;
+    // a frame is slow past this share of the budget; with vsync a missed frame lands near 2x
+    private static final double SLOW_RATIO = 1.2;
+    // render work under this share of the budget counts as headroom
+    private static final double HEADROOM_RATIO = 0.6;
+    private static final int HEADROOM_FRAMES = 180;
+    // frames ignored after a change, while the new tier rebuilds buffers and recasts lights
+    private static final int SETTLE_FRAMES = 30;
+    // an upgrade undone within this many frames failed; one that lasts halves the backoff
+    private static final int FAILED_UPGRADE_FRAMES = 600;
+    private static final int MAX_BACKOFF = 16;
+
+    private final long budgetNanos;
+    private final boolean[] slow = new boolean[WINDOW];
+    private int head;
+    private int filled;
+    private int slowCount;
+    private int headroomFrames;
+    private int settleFrames = SETTLE_FRAMES;
+    private int framesSinceUpgrade = Integer.MAX_VALUE;
+    private int backoff = 1;
+    private QualityTier tier;
+
+    public QualityGovernor(int targetFps, QualityTier initial) {
+        if (targetFps <= 0) {
+            throw new IllegalArgumentException("Target frame rate must be positive: " + targetFps);
+        }
+        this.budgetNanos = 1_000_000_000L / targetFps;
+        this.tier = initial;
+    }
+
+    public QualityTier tier() {
+        return tier;
+    }
+
+    /**
+     * account for one frame: frameNanos is the time since the previous frame, workNanos the
+     * part of it spent rendering rather than waiting on vsync
+     * @return true when the tier changed
+     */
+    public boolean sample(long frameNanos, long workNanos) {
+        if (framesSinceUpgrade < Integer.MAX_VALUE) {
+            framesSinceUpgrade++;
+            if (framesSinceUpgrade == FAILED_UPGRADE_FRAMES) {
+                backoff = Math.max(1, backoff / 2);
+            }
+        }
+        if (settleFrames > 0) {
+            settleFrames--;
+            return false;
+        }
+        boolean isSlow = frameNanos > budgetNanos * SLOW_RATIO;
+        if (filled == WINDOW) {
+            if (slow[head]) {
+                slowCount--;
+            }
+        } else {
+            filled++;
+        }
+        slow[head] = isSlow;
+        if (isSlow) {
+            slowCount++;
+        }
+        head = (head + 1) % WINDOW;
+
+        if (filled == WINDOW && slowCount * 2 > WINDOW && tier != QualityTier.MINIMUM) {
+            if (framesSinceUpgrade < FAILED_UPGRADE_FRAMES) {
+                backoff = Math.min(MAX_BACKOFF, backoff * 2);
+            }
+            framesSinceUpgrade = Integer.MAX_VALUE;
+            return change(tier.lower());
+        }
+        if (!isSlow && workNanos < budgetNanos * HEADROOM_RATIO) {
+            headroomFrames++;
+        } else {
+            headroomFrames = 0;
+        }
+        if (headroomFrames >= HEADROOM_FRAMES * backoff && tier != QualityTier.ULTRA) {
+            framesSinceUpgrade = 0;
+            return change(tier.higher());
+        }
+        return false;
+    }
+
+    /**
+     * forget recent frames and ignore the next few, e.g. while paused or after a level load
+     */
+    public void settle() {
+        clearWindow();
+        settleFrames = SETTLE_FRAMES;
+    }
+
+    private boolean change(QualityTier next) {
+        tier = next;
+        settle();
+        return true;
+    }
+
+    private void clearWindow() {
+        head = 0;
+        filled = 0;
+        slowCount = 0;
+        headroomFrames = 0;
+    }
+}
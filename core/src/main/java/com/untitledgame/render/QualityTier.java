@@ -0,0 +1,70 @@
+package com.untitledgame.render;
+
+/**
+ * Rendering quality steps the {@link QualityGovernor} moves between, cheapest first.
+ */
+public enum QualityTier {
+    /** quarter-area lighting, unblurred occlusion, few lights refreshed every fourth frame */
+    MINIMUM("minimum", 0.5f, 1, 8, 4),
+    LOW("low", 0.5f, 3, 16, 3),
+    MEDIUM("medium", 0.75f, 3, 32, 2),
+    HIGH("high", 1f, 5, 64, 1),
+    /** everything at full rate: what the renderer did before there were tiers */
+    ULTRA("ultra", 1f, 5, 256, 1);
+
+    private final String label;
+    private final float lightingScale;
+    private final int blurTaps;
+    private final int lightBudget;
+    private final int occlusionInterval;
+
+    QualityTier(String label, float lightingScale, int blurTaps, int lightBudget, int occlusionInterval) {
+        this.label = label;
+        this.lightingScale = lightingScale;
+        this.blurTaps = blurTaps;
+        this.lightBudget = lightBudget;
+        this.occlusionInterval = occlusionInterval;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * fraction of the screen resolution the lighting pass is shaded at, per axis
+     */
+    public float lightingScale() {
+        return lightingScale;
+    }
+
+    /**
+     * occlusion blur kernel width: 5, 3 or 1 (no blur)
+     */
+    public int blurTaps() {
+        return blurTaps;
+    }
+
+    /**
+     * most lights kept per frame; the rest are dropped by importance
+     */
+    public int lightBudget() {
+        return lightBudget;
+    }
+
+    /**
+     * frames between refreshes of lights that only moved; new and removed lights and view
+     * scrolls are always refreshed at once
+     */
+    public int occlusionInterval() {
+        return occlusionInterval;
+    }
+
+    public QualityTier lower() {
+        return this == MINIMUM ? this : values()[ordinal() - 1];
+    }
+
+    public QualityTier higher() {
+        QualityTier[] tiers = values();
+        return ordinal() == tiers.length - 1 ? this : tiers[ordinal() + 1];
+    }
+}
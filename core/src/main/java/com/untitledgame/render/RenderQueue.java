@@ -0,0 +1,173 @@
+package com.untitledgame.render;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Arrays;
+
+/**
+ * Per-frame list of sprite draws held in preallocated parallel arrays.
+ * Each draw gets a packed 64-bit sort key (layer, then Y descending, then X ascending,
+ * then insertion order) and the keys are radix sorted, so a frame allocates nothing
+ * once the arrays have grown to the scene size.
+ */
+public final class RenderQueue {
+    public static final int MAX_LAYERS = 1 << 4;
+    /** draws per frame are capped by the index field of the key */
+    public static final int MAX_DRAWS = 1 << 20;
+
+    // key layout from high to low: layer 4 bits | reversed y 20 bits | x 20 bits | index 20 bits
+    private static final int INDEX_BITS = 20;
+    private static final int COORD_BITS = 20;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final long COORD_MAX = (1L << COORD_BITS) - 1;
+    private static final int X_SHIFT = INDEX_BITS;
+    private static final int Y_SHIFT = X_SHIFT + COORD_BITS;
+    private static final int LAYER_SHIFT = Y_SHIFT + COORD_BITS;
+    // coordinates are kept to 1/16 tile within +/-32768 tiles of the origin
+    private static final double COORD_SCALE = 16.0;
+    private static final double COORD_BIAS = 32768.0;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX - 1;
+    private static final int INSERTION_SORT_LIMIT = 32;
+
+    private long[] keys;
+    private long[] scratch;
+    private final int[] counts = new int[RADIX];
+    private TextureRegion[] regions;
+    private float[] xs;
+    private float[] ys;
+    private float[] widths;
+    private float[] heights;
+    private int size;
+
+    public RenderQueue(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        keys = new long[capacity];
+        scratch = new long[capacity];
+        regions = new TextureRegion[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        widths = new float[capacity];
+        heights = new float[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        // drop region references so the queue never keeps frames alive between levels
+        Arrays.fill(regions, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * queue one sprite. Draws with the same layer and sort position keep insertion order.
+     */
+    public void add(int layer, double sortY, double sortX, TextureRegion region,
+                    float x, float y, float width, float height) {
+        if (region == null) {
+            return;
+        }
+        if (layer < 0 || layer >= MAX_LAYERS) {
+            throw new IllegalArgumentException("Layer out of range: " + layer);
+        }
+        if (size == MAX_DRAWS) {
+            throw new IllegalStateException("Render queue is full");
+        }
+        ensureCapacity(size + 1);
+        long qy = quantize(COORD_BIAS - sortY);
+        long qx = quantize(sortX + COORD_BIAS);
+        keys[size] = ((long) layer << LAYER_SHIFT) | (qy << Y_SHIFT) | (qx << X_SHIFT) | size;
+        regions[size] = region;
+        xs[size] = x;
+        ys[size] = y;
+        widths[size] = width;
+        heights[size] = height;
+        size++;
+    }
+
+    /**
+     * order the queued draws; keys start in insertion order so only the bits above the index are sorted
+     */
+    public void sort() {
+        if (size < 2) {
+            return;
+        }
+        if (size <= INSERTION_SORT_LIMIT) {
+            insertionSort();
+            return;
+        }
+        long[] src = keys;
+        long[] dst = scratch;
+        for (int shift = INDEX_BITS; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                counts[(int) ((src[i] >>> shift) & RADIX_MASK)]++;
+            }
+            // every key shares this digit, the pass would be a copy
+            if (counts[(int) ((src[0] >>> shift) & RADIX_MASK)] == size) {
+                continue;
+            }
+            int total = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int c = counts[d];
+                counts[d] = total;
+                total += c;
+            }
+            for (int i = 0; i < size; i++) {
+                long key = src[i];
+                dst[counts[(int) ((key >>> shift) & RADIX_MASK)]++] = key;
+            }
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        keys = src;
+        scratch = dst;
+    }
+
+    /**
+     * draw everything in sorted order; call {@link #sort()} first
+     */
+    public void draw(Batch batch) {
+        for (int i = 0; i < size; i++) {
+            int slot = (int) (keys[i] & INDEX_MASK);
+            batch.draw(regions[slot], xs[slot], ys[slot], widths[slot], heights[slot]);
+        }
+    }
+
+    private void insertionSort() {
+        for (int i = 1; i < size; i++) {
+            long key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && Long.compareUnsigned(keys[j], key) > 0) {
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            keys[j + 1] = key;
+        }
+    }
+
+    private static long quantize(double value) {
+        long q = Math.round(value * COORD_SCALE);
+        return Math.max(0L, Math.min(COORD_MAX, q));
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= keys.length) {
+            return;
+        }
+        int capacity = Math.min(MAX_DRAWS, Math.max(required, keys.length * 2));
+        keys = Arrays.copyOf(keys, capacity);
+        scratch = new long[capacity];
+        regions = Arrays.copyOf(regions, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+    }
+}
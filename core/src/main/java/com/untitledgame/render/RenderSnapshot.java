@@ -0,0 +1,306 @@
+package com.untitledgame.render;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.untitledgame.assets.TileType;
+import com.untitledgame.logic.TileGrid;
+import com.untitledgame.logic.items.Inventory;
+
+import java.util.Arrays;
+
+/**
+ * Everything one frame draws, copied out of the simulation after a step so the renderer
+ * never reads live game objects. Filled by the simulation thread through the capture
+ * methods, then only read once published; instances are recycled by a triple buffer.
+ */
+public final class RenderSnapshot {
+    /**
+     * which screen the frame shows on top of (or instead of) the world
+     */
+    public enum Screen { LOADING, MENU, PLAYING, PAUSED, DEAD, ENDED }
+
+    private long sequence;
+    private Screen screen = Screen.LOADING;
+    private TileGrid tiles;
+
+    private boolean hasAvatar;
+    private double avatarX;
+    private double avatarY;
+    private double avatarDrawX;
+    private double avatarDrawY;
+    private double avatarScale;
+    private TextureRegion avatarFrame;
+    private double lightRadius;
+
+    private int npcCount;
+    private int[] npcTileX = new int[16];
+    private int[] npcTileY = new int[16];
+    private double[] npcDrawX = new double[16];
+    private double[] npcDrawY = new double[16];
+    private TextureRegion[] npcFrames = new TextureRegion[16];
+
+    private int corpseCount;
+    private int[] corpseX = new int[16];
+    private int[] corpseY = new int[16];
+    private TextureRegion[] corpseFrames = new TextureRegion[16];
+
+    private int dropCount;
+    private int[] dropX = new int[16];
+    private int[] dropY = new int[16];
+
+    private int health;
+    private int maxHealth = 1;
+    private String hudMessage = "";
+    private long hudMessageExpireMs;
+    private int hudMessageVersion;
+    private Inventory inventory;
+    private int level;
+    private long playTimeMs;
+    private int enemiesFelled;
+    private int damageTaken;
+
+    /**
+     * start a new capture, dropping every entity from the previous one
+     */
+    public void begin(long sequence, Screen screen, TileGrid tiles) {
+        this.sequence = sequence;
+        this.screen = screen;
+        this.tiles = tiles;
+        hasAvatar = false;
+        avatarFrame = null;
+        inventory = null;
+        Arrays.fill(npcFrames, 0, npcCount, null);
+        Arrays.fill(corpseFrames, 0, corpseCount, null);
+        npcCount = 0;
+        corpseCount = 0;
+        dropCount = 0;
+    }
+
+    /**
+     * @param x continuous position the camera and avatar light follow
+     * @param drawX bottom-left of the sprite's tile
+     */
+    public void setAvatar(double x, double y, double drawX, double drawY, double scale, TextureRegion frame) {
+        hasAvatar = true;
+        avatarX = x;
+        avatarY = y;
+        avatarDrawX = drawX;
+        avatarDrawY = drawY;
+        avatarScale = scale;
+        avatarFrame = frame;
+    }
+
+    public void setLightRadius(double lightRadius) {
+        this.lightRadius = lightRadius;
+    }
+
+    public void addNpc(int tileX, int tileY, double drawX, double drawY, TextureRegion frame) {
+        if (npcCount == npcFrames.length) {
+            int capacity = npcCount * 2;
+            npcTileX = Arrays.copyOf(npcTileX, capacity);
+            npcTileY = Arrays.copyOf(npcTileY, capacity);
+            npcDrawX = Arrays.copyOf(npcDrawX, capacity);
+            npcDrawY = Arrays.copyOf(npcDrawY, capacity);
+            npcFrames = Arrays.copyOf(npcFrames, capacity);
+        }
+        npcTileX[npcCount] = tileX;
+        npcTileY[npcCount] = tileY;
+        npcDrawX[npcCount] = drawX;
+        npcDrawY[npcCount] = drawY;
+        npcFrames[npcCount] = frame;
+        npcCount++;
+    }
+
+    public void addCorpse(int x, int y, TextureRegion frame) {
+        if (corpseCount == corpseFrames.length) {
+            int capacity = corpseCount * 2;
+            corpseX = Arrays.copyOf(corpseX, capacity);
+            corpseY = Arrays.copyOf(corpseY, capacity);
+            corpseFrames = Arrays.copyOf(corpseFrames, capacity);
+        }
+        corpseX[corpseCount] = x;
+        corpseY[corpseCount] = y;
+        corpseFrames[corpseCount] = frame;
+        corpseCount++;
+    }
+
+    public void addDrop(int x, int y) {
+        if (dropCount == dropX.length) {
+            int capacity = dropCount * 2;
+            dropX = Arrays.copyOf(dropX, capacity);
+            dropY = Arrays.copyOf(dropY, capacity);
+        }
+        dropX[dropCount] = x;
+        dropY[dropCount] = y;
+        dropCount++;
+    }
+
+    /**
+     * @param messageVersion bumped by the simulation on every message change so the HUD
+     *                       only restarts its fade when the text really changed
+     */
+    public void setHud(int health, int maxHealth, String message, long messageExpireMs, int messageVersion) {
+        this.health = health;
+        this.maxHealth = maxHealth;
+        this.hudMessage = message;
+        this.hudMessageExpireMs = messageExpireMs;
+        this.hudMessageVersion = messageVersion;
+    }
+
+    /**
+     * a read-only copy of the inventory, shared by snapshots until the inventory changes;
+     * only captured while the overlay is open
+     */
+    public void setInventory(Inventory inventory) {
+        this.inventory = inventory;
+    }
+
+    public void setEndStats(int level, long playTimeMs, int enemiesFelled, int damageTaken) {
+        this.level = level;
+        this.playTimeMs = playTimeMs;
+        this.enemiesFelled = enemiesFelled;
+        this.damageTaken = damageTaken;
+    }
+
+    /**
+     * increases with every capture; equal sequences mean the same simulation state
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    public Screen screen() {
+        return screen;
+    }
+
+    public TileGrid tileGrid() {
+        return tiles;
+    }
+
+    public TileType[][] tiles() {
+        return tiles == null ? null : tiles.tiles();
+    }
+
+    public boolean hasAvatar() {
+        return hasAvatar;
+    }
+
+    public double avatarX() {
+        return avatarX;
+    }
+
+    public double avatarY() {
+        return avatarY;
+    }
+
+    public double avatarDrawX() {
+        return avatarDrawX;
+    }
+
+    public double avatarDrawY() {
+        return avatarDrawY;
+    }
+
+    public double avatarScale() {
+        return avatarScale;
+    }
+
+    public TextureRegion avatarFrame() {
+        return avatarFrame;
+    }
+
+    public double lightRadius() {
+        return lightRadius;
+    }
+
+    public int npcCount() {
+        return npcCount;
+    }
+
+    public int npcTileX(int i) {
+        return npcTileX[i];
+    }
+
+    public int npcTileY(int i) {
+        return npcTileY[i];
+    }
+
+    public double npcDrawX(int i) {
+        return npcDrawX[i];
+    }
+
+    public double npcDrawY(int i) {
+        return npcDrawY[i];
+    }
+
+    public TextureRegion npcFrame(int i) {
+        return npcFrames[i];
+    }
+
+    public int corpseCount() {
+        return corpseCount;
+    }
+
+    public int corpseX(int i) {
+        return corpseX[i];
+    }
+
+    public int corpseY(int i) {
+        return corpseY[i];
+    }
+
+    public TextureRegion corpseFrame(int i) {
+        return corpseFrames[i];
+    }
+
+    public int dropCount() {
+        return dropCount;
+    }
+
+    public int dropX(int i) {
+        return dropX[i];
+    }
+
+    public int dropY(int i) {
+        return dropY[i];
+    }
+
+    public int health() {
+        return health;
+    }
+
+    public int maxHealth() {
+        return maxHealth;
+    }
+
+    public String hudMessage() {
+        return hudMessage;
+    }
+
+    public long hudMessageExpireMs() {
+        return hudMessageExpireMs;
+    }
+
+    public int hudMessageVersion() {
+        return hudMessageVersion;
+    }
+
+    public Inventory inventory() {
+        return inventory;
+    }
+
+    public int level() {
+        return level;
+    }
+
+    public long playTimeMs() {
+        return playTimeMs;
+    }
+
+    public int enemiesFelled() {
+        return enemiesFelled;
+    }
+
+    public int damageTaken() {
+        return damageTaken;
+    }
+}
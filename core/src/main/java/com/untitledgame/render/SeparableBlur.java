@@ -0,0 +1,86 @@
+package com.untitledgame.render;
+
+/**
+ * 5-tap binomial blur ([1 4 6 4 1] / 16) applied as a horizontal then a vertical pass,
+ * the separable stand-in for the 5x5 Gaussian the light shader used to run per pixel.
+ * Cheaper 3-tap and unblurred variants read the same source layout, so lower quality
+ * tiers can swap them in without resizing anything.
+ */
+public final class SeparableBlur {
+    /** cells the source needs on every side of the output */
+    public static final int MARGIN = 2;
+
+    private SeparableBlur() {
+    }
+
+    /**
+     * blur a (width + 2 * MARGIN) x (height + 2 * MARGIN) grid of 0..255 values, bottom row first,
+     * into a width x height block of dst. Rows are written top row first starting at dstOffset,
+     * dstStride apart. scratch must hold at least (width * (height + 2 * MARGIN)) ints.
+     */
+    public static void blur(int[] src, int width, int height, int[] scratch,
+                            byte[] dst, int dstOffset, int dstStride) {
+        int srcWidth = width + MARGIN * 2;
+        int srcHeight = height + MARGIN * 2;
+        for (int y = 0; y < srcHeight; y++) {
+            int in = y * srcWidth;
+            int out = y * width;
+            for (int x = 0; x < width; x++) {
+                int i = in + x;
+                scratch[out + x] = src[i] + 4 * src[i + 1] + 6 * src[i + 2] + 4 * src[i + 3] + src[i + 4];
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            int rowStart = dstOffset + (height - 1 - y) * dstStride;
+            int in = y * width;
+            for (int x = 0; x < width; x++) {
+                int i = in + x;
+                int sum = scratch[i] + 4 * scratch[i + width] + 6 * scratch[i + 2 * width]
+                        + 4 * scratch[i + 3 * width] + scratch[i + 4 * width];
+                // both passes scale by 16; round back to 0..255
+                dst[rowStart + x] = (byte) ((sum + 128) >> 8);
+            }
+        }
+    }
+
+    /**
+     * as {@link #blur} with a 3-tap [1 2 1] / 4 kernel; the outer margin cell is not read
+     */
+    public static void blurNarrow(int[] src, int width, int height, int[] scratch,
+                                  byte[] dst, int dstOffset, int dstStride) {
+        int srcWidth = width + MARGIN * 2;
+        int srcHeight = height + MARGIN * 2;
+        for (int y = 0; y < srcHeight; y++) {
+            int in = y * srcWidth + 1;
+            int out = y * width;
+            for (int x = 0; x < width; x++) {
+                int i = in + x;
+                scratch[out + x] = src[i] + 2 * src[i + 1] + src[i + 2];
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            int rowStart = dstOffset + (height - 1 - y) * dstStride;
+            int in = (y + 1) * width;
+            for (int x = 0; x < width; x++) {
+                int i = in + x;
+                int sum = scratch[i] + 2 * scratch[i + width] + scratch[i + 2 * width];
+                // both passes scale by 4
+                dst[rowStart + x] = (byte) ((sum + 8) >> 4);
+            }
+        }
+    }
+
+    /**
+     * copy the unblurred interior of src into dst in the same layout {@link #blur} writes
+     */
+    public static void copy(int[] src, int width, int height, byte[] dst, int dstOffset, int dstStride) {
+        int srcWidth = width + MARGIN * 2;
+        for (int y = 0; y < height; y++) {
+            int rowStart = dstOffset + (height - 1 - y) * dstStride;
+            int in = (y + MARGIN) * srcWidth + MARGIN;
+            for (int x = 0; x < width; x++) {
+                dst[rowStart + x] = (byte) src[in + x];
+            }
+        }
+    }
+}
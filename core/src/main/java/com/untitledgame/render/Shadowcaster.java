@@ -0,0 +1,132 @@
+package com.untitledgame.render;
+
+import com.untitledgame.assets.TileType;
+
+import java.util.Arrays;
+
+/**
+ * Recursive-shadowcasting field of view over the tile grid, one octant at a time.
+ * Shadow intervals live in reusable primitive arrays, so casting allocates nothing.
+ * An instance is not thread safe; give each thread its own.
+ */
+public final class Shadowcaster {
+    private float[] shadowStarts = new float[16];
+    private float[] shadowEnds = new float[16];
+    private int shadowCount;
+
+    /**
+     * fill the grid with every tile visible from its origin within its radius
+     */
+    public void cast(TileType[][] world, VisibilityGrid grid) {
+        int originX = grid.originX();
+        int originY = grid.originY();
+        int radius = grid.radius();
+        grid.markVisible(originX, originY);
+        if (radius <= 0) {
+            return;
+        }
+        castOctant(world, grid, radius, 1, 0, 0, 1);
+        castOctant(world, grid, radius, 1, 0, 0, -1);
+        castOctant(world, grid, radius, -1, 0, 0, 1);
+        castOctant(world, grid, radius, -1, 0, 0, -1);
+        castOctant(world, grid, radius, 0, 1, 1, 0);
+        castOctant(world, grid, radius, 0, 1, -1, 0);
+        castOctant(world, grid, radius, 0, -1, 1, 0);
+        castOctant(world, grid, radius, 0, -1, -1, 0);
+    }
+
+    private void castOctant(TileType[][] world, VisibilityGrid grid, int radius,
+                            int xx, int xy, int yx, int yy) {
+        int originX = grid.originX();
+        int originY = grid.originY();
+        shadowCount = 0;
+        for (int row = 1; row <= radius; row++) {
+            if (isFullyShadowed()) {
+                break;
+            }
+            for (int col = 0; col <= row; col++) {
+                int deltaX = -col;
+                int deltaY = -row;
+                float leftSlope = (deltaX - 0.5f) / (deltaY + 0.5f);
+                float rightSlope = (deltaX + 0.5f) / (deltaY - 0.5f);
+                float startSlope = Math.min(leftSlope, rightSlope);
+                float endSlope = Math.max(leftSlope, rightSlope);
+                if (isShadowed(startSlope, endSlope)) {
+                    continue;
+                }
+                int currentX = originX + deltaX * xx + deltaY * xy;
+                int currentY = originY + deltaX * yx + deltaY * yy;
+                grid.markVisible(currentX, currentY);
+                if (isBlocking(world, currentX, currentY)) {
+                    addShadow(startSlope, endSlope);
+                }
+            }
+        }
+    }
+
+    private void addShadow(float start, float end) {
+        int insertAt = 0;
+        while (insertAt < shadowCount && shadowStarts[insertAt] <= start) {
+            insertAt++;
+        }
+        if (shadowCount == shadowStarts.length) {
+            shadowStarts = Arrays.copyOf(shadowStarts, shadowCount * 2);
+            shadowEnds = Arrays.copyOf(shadowEnds, shadowCount * 2);
+        }
+        System.arraycopy(shadowStarts, insertAt, shadowStarts, insertAt + 1, shadowCount - insertAt);
+        System.arraycopy(shadowEnds, insertAt, shadowEnds, insertAt + 1, shadowCount - insertAt);
+        shadowStarts[insertAt] = start;
+        shadowEnds[insertAt] = end;
+        shadowCount++;
+        mergeShadows();
+    }
+
+    // intervals are sorted by start, so overlapping ones are neighbours
+    private void mergeShadows() {
+        if (shadowCount <= 1) {
+            return;
+        }
+        int write = 0;
+        for (int i = 1; i < shadowCount; i++) {
+            if (shadowStarts[i] <= shadowEnds[write]) {
+                shadowEnds[write] = Math.max(shadowEnds[write], shadowEnds[i]);
+            } else {
+                write++;
+                shadowStarts[write] = shadowStarts[i];
+                shadowEnds[write] = shadowEnds[i];
+            }
+        }
+        shadowCount = write + 1;
+    }
+
+    private boolean isShadowed(float start, float end) {
+        for (int i = 0; i < shadowCount; i++) {
+            if (start >= shadowStarts[i] && end <= shadowEnds[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isFullyShadowed() {
+        return shadowCount > 0 && shadowStarts[0] <= 0f && shadowEnds[0] >= 1f;
+    }
+
+    public static boolean isBlocking(TileType[][] world, int worldX, int worldY) {
+        if (world == null) {
+            return true;
+        }
+        if (worldX < 0 || worldY < 0 || worldX >= world.length || worldY >= world[0].length) {
+            return true;
+        }
+        return isBlockingTile(world[worldX][worldY]);
+    }
+
+    public static boolean isBlockingTile(TileType tile) {
+        if (tile == null) {
+            return true;
+        }
+        return tile == TileType.WALL_TOP || tile == TileType.WALL_SIDE
+                || tile == TileType.LEFT_WALL || tile == TileType.BACK_WALL;
+    }
+}
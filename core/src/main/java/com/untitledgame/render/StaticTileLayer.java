@@ -0,0 +1,284 @@
+package com.untitledgame.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.untitledgame.assets.TETile;
+import com.untitledgame.assets.TileType;
+
+/**
+ * Floors and walls baked once per level into chunked SpriteCaches.
+ * The background layer is drawn under everything and the cover layer (wall tops)
+ * over entities, so only entities and items go through the per-frame sorted pass.
+ */
+public final class StaticTileLayer implements Disposable {
+    public enum Layer { BACKGROUND, COVER }
+
+    /** tiles per chunk side; a view touches at most a few chunks per layer */
+    public static final int CHUNK_SIZE = 32;
+    private static final int NO_CACHE = -1;
+
+    private SpriteCache cache;
+    private int cacheCapacity;
+    private int chunksX;
+    private int chunksY;
+    private int[][] cacheIds = new int[Layer.values().length][0];
+    // sprites each chunk cache was created with; a redefined cache may not grow past it
+    private int[][] cacheSizes = new int[Layer.values().length][0];
+    private boolean[] dirtyChunks = new boolean[0];
+    private boolean anyDirtyChunks;
+    private TileType[][] bakedWorld;
+    private boolean dirty = true;
+    private int bakeCount;
+    private int chunkRebakeCount;
+    private int lastDrawCalls;
+    private final Matrix4 transform = new Matrix4();
+
+    /**
+     * force a rebake on the next frame, for edits made in place on the current world array
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * rebake only the chunks overlapping the inclusive tile rectangle on the next frame
+     */
+    public void invalidateRegion(int minX, int minY, int maxX, int maxY) {
+        if (bakedWorld == null || dirty) {
+            return;
+        }
+        int firstChunkX = Math.max(0, minX / CHUNK_SIZE);
+        int lastChunkX = Math.min(chunksX - 1, maxX / CHUNK_SIZE);
+        int firstChunkY = Math.max(0, minY / CHUNK_SIZE);
+        int lastChunkY = Math.min(chunksY - 1, maxY / CHUNK_SIZE);
+        for (int cy = firstChunkY; cy <= lastChunkY; cy++) {
+            for (int cx = firstChunkX; cx <= lastChunkX; cx++) {
+                dirtyChunks[cy * chunksX + cx] = true;
+                anyDirtyChunks = true;
+            }
+        }
+    }
+
+    /**
+     * bake the world if it is new or has been invalidated since the last bake,
+     * otherwise rebake any chunks marked by {@link #invalidateRegion}
+     */
+    public void ensureBaked(TileType[][] world) {
+        if (world == null || world.length == 0) {
+            return;
+        }
+        if (!dirty && world == bakedWorld) {
+            if (anyDirtyChunks) {
+                rebakeDirtyChunks(world);
+            }
+            return;
+        }
+        bake(world);
+    }
+
+    public int bakeCount() {
+        return bakeCount;
+    }
+
+    /**
+     * chunks rebaked in place after region invalidations, without a full bake
+     */
+    public int chunkRebakeCount() {
+        return chunkRebakeCount;
+    }
+
+    /**
+     * cache draws issued by the last {@link #draw} call
+     */
+    public int lastDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    /**
+     * draw every chunk of a layer that overlaps the tile window [startX, endX) x [startY, endY).
+     * Tiles are baked in world tile units and shifted by (offsetX, offsetY) to screen space.
+     */
+    public void draw(Layer layer, Matrix4 projection, float offsetX, float offsetY,
+                     int startX, int endX, int startY, int endY) {
+        lastDrawCalls = 0;
+        if (cache == null || bakedWorld == null) {
+            return;
+        }
+        int[] ids = cacheIds[layer.ordinal()];
+        int firstChunkX = Math.max(0, startX / CHUNK_SIZE);
+        int lastChunkX = Math.min(chunksX - 1, (endX - 1) / CHUNK_SIZE);
+        int firstChunkY = Math.max(0, startY / CHUNK_SIZE);
+        int lastChunkY = Math.min(chunksY - 1, (endY - 1) / CHUNK_SIZE);
+        if (lastChunkX < firstChunkX || lastChunkY < firstChunkY) {
+            return;
+        }
+
+        transform.setToTranslation(offsetX, offsetY, 0f);
+        cache.setProjectionMatrix(projection);
+        cache.setTransformMatrix(transform);
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        cache.begin();
+        for (int cy = firstChunkY; cy <= lastChunkY; cy++) {
+            for (int cx = firstChunkX; cx <= lastChunkX; cx++) {
+                int id = ids[cy * chunksX + cx];
+                if (id != NO_CACHE) {
+                    cache.draw(id);
+                    lastDrawCalls++;
+                }
+            }
+        }
+        cache.end();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    private void bake(TileType[][] world) {
+        int worldWidth = world.length;
+        int worldHeight = world[0].length;
+        // every tile lands in exactly one layer, so the whole world fits in one cache
+        int capacity = Math.max(1, worldWidth * worldHeight);
+        if (cache == null || capacity > cacheCapacity) {
+            if (cache != null) {
+                cache.dispose();
+            }
+            cache = new SpriteCache(capacity, false);
+            cacheCapacity = capacity;
+        } else {
+            cache.clear();
+        }
+
+        chunksX = (worldWidth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunksY = (worldHeight + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        for (Layer layer : Layer.values()) {
+            int[] ids = new int[chunksX * chunksY];
+            int[] sizes = new int[chunksX * chunksY];
+            for (int cy = 0; cy < chunksY; cy++) {
+                for (int cx = 0; cx < chunksX; cx++) {
+                    int chunk = cy * chunksX + cx;
+                    sizes[chunk] = chunkSpriteCount(world, layer, cx, cy);
+                    ids[chunk] = sizes[chunk] == 0 ? NO_CACHE : bakeChunk(world, layer, cx, cy, NO_CACHE);
+                }
+            }
+            cacheIds[layer.ordinal()] = ids;
+            cacheSizes[layer.ordinal()] = sizes;
+        }
+        dirtyChunks = new boolean[chunksX * chunksY];
+        anyDirtyChunks = false;
+        bakedWorld = world;
+        dirty = false;
+        bakeCount++;
+    }
+
+    /**
+     * redefine the dirty chunk caches in place; anything that no longer fits its original
+     * cache, or a chunk gaining its first sprite, falls back to a full bake
+     */
+    private void rebakeDirtyChunks(TileType[][] world) {
+        for (int chunk = 0; chunk < dirtyChunks.length; chunk++) {
+            if (!dirtyChunks[chunk]) {
+                continue;
+            }
+            int cx = chunk % chunksX;
+            int cy = chunk / chunksX;
+            for (Layer layer : Layer.values()) {
+                int count = chunkSpriteCount(world, layer, cx, cy);
+                int[] ids = cacheIds[layer.ordinal()];
+                if (count > cacheSizes[layer.ordinal()][chunk] || (ids[chunk] == NO_CACHE && count > 0)) {
+                    bake(world);
+                    return;
+                }
+            }
+        }
+        for (int chunk = 0; chunk < dirtyChunks.length; chunk++) {
+            if (!dirtyChunks[chunk]) {
+                continue;
+            }
+            int cx = chunk % chunksX;
+            int cy = chunk / chunksX;
+            for (Layer layer : Layer.values()) {
+                int[] ids = cacheIds[layer.ordinal()];
+                if (ids[chunk] != NO_CACHE) {
+                    bakeChunk(world, layer, cx, cy, ids[chunk]);
+                }
+            }
+            dirtyChunks[chunk] = false;
+            chunkRebakeCount++;
+        }
+        anyDirtyChunks = false;
+    }
+
+    private int bakeChunk(TileType[][] world, Layer layer, int chunkX, int chunkY, int existingId) {
+        int startX = chunkX * CHUNK_SIZE;
+        int endX = Math.min(world.length, startX + CHUNK_SIZE);
+        int startY = chunkY * CHUNK_SIZE;
+        int endY = Math.min(world[0].length, startY + CHUNK_SIZE);
+        if (existingId == NO_CACHE) {
+            cache.beginCache();
+        } else {
+            cache.beginCache(existingId);
+        }
+        for (int x = startX; x < endX; x++) {
+            for (int y = startY; y < endY; y++) {
+                TileType tile = world[x][y];
+                if (tile == null) {
+                    throw new IllegalArgumentException("Tile at " + x + "," + y + " is null.");
+                }
+                if (layerOf(tile) != layer) {
+                    continue;
+                }
+                TextureRegion region = regionOf(tile);
+                if (region != null) {
+                    cache.add(region, x, y, 1f, 1f);
+                }
+            }
+        }
+        return cache.endCache();
+    }
+
+    private int chunkSpriteCount(TileType[][] world, Layer layer, int chunkX, int chunkY) {
+        int startX = chunkX * CHUNK_SIZE;
+        int endX = Math.min(world.length, startX + CHUNK_SIZE);
+        int startY = chunkY * CHUNK_SIZE;
+        int endY = Math.min(world[0].length, startY + CHUNK_SIZE);
+        int count = 0;
+        for (int x = startX; x < endX; x++) {
+            for (int y = startY; y < endY; y++) {
+                TileType tile = world[x][y];
+                if (tile != null && layerOf(tile) == layer && regionOf(tile) != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static TextureRegion regionOf(TileType tile) {
+        TETile teTile = TETile.tileTypeToTETile(tile);
+        return teTile == null ? null : teTile.resolveRegion();
+    }
+
+    /**
+     * wall tops always cover entities; floors and side walls sit underneath them
+     */
+    public static Layer layerOf(TileType tile) {
+        if (tile == TileType.WALL_TOP || tile == TileType.BACK_WALL) {
+            return Layer.COVER;
+        }
+        return Layer.BACKGROUND;
+    }
+
+    @Override
+    public void dispose() {
+        if (cache != null) {
+            cache.dispose();
+            cache = null;
+        }
+        cacheCapacity = 0;
+        bakedWorld = null;
+        dirty = true;
+    }
+}
@@ -0,0 +1,87 @@
+package com.untitledgame.render;
+
+import java.util.Arrays;
+
+/**
+ * Small pool of {@link VisibilityGrid}s keyed on light tile and cast radius.
+ * A light that stays in its tile keeps hitting the same grid; misses take the
+ * least recently used grid that no light has claimed this frame.
+ */
+public final class VisibilityCache {
+    private VisibilityGrid[] grids;
+    private int casts;
+
+    public VisibilityCache(int capacity) {
+        grids = new VisibilityGrid[Math.max(1, capacity)];
+        for (int i = 0; i < grids.length; i++) {
+            grids[i] = new VisibilityGrid();
+        }
+    }
+
+    /**
+     * grid already cast for this key, or null. A hit is pinned for the given frame.
+     */
+    public VisibilityGrid find(int tileX, int tileY, int castRadius, long frame) {
+        for (VisibilityGrid grid : grids) {
+            if (grid.matches(tileX, tileY, castRadius)) {
+                grid.lastUsedFrame = frame;
+                return grid;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * reset a grid for the key so the caller can cast into it; it stays pinned for the frame
+     */
+    public VisibilityGrid claim(int tileX, int tileY, int castRadius, long frame) {
+        VisibilityGrid victim = null;
+        for (VisibilityGrid grid : grids) {
+            if (grid.lastUsedFrame == frame) {
+                continue;
+            }
+            if (victim == null || grid.lastUsedFrame < victim.lastUsedFrame) {
+                victim = grid;
+            }
+        }
+        if (victim == null) {
+            int oldLength = grids.length;
+            grids = Arrays.copyOf(grids, oldLength * 2);
+            for (int i = oldLength; i < grids.length; i++) {
+                grids[i] = new VisibilityGrid();
+            }
+            victim = grids[oldLength];
+        }
+        victim.reset(tileX, tileY, castRadius);
+        victim.lastUsedFrame = frame;
+        casts++;
+        return victim;
+    }
+
+    /**
+     * drop every cached result, e.g. when the tiles they were cast against changed
+     */
+    public void invalidateAll() {
+        for (VisibilityGrid grid : grids) {
+            grid.invalidate();
+        }
+    }
+
+    /**
+     * drop only the results cast over tiles in the inclusive rectangle
+     */
+    public void invalidateRegion(int minX, int minY, int maxX, int maxY) {
+        for (VisibilityGrid grid : grids) {
+            if (grid.overlaps(minX, minY, maxX, maxY)) {
+                grid.invalidate();
+            }
+        }
+    }
+
+    /**
+     * number of grids handed out for casting since creation
+     */
+    public int casts() {
+        return casts;
+    }
+}
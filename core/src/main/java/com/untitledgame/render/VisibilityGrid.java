@@ -0,0 +1,91 @@
+package com.untitledgame.render;
+
+import java.util.Arrays;
+
+/**
+ * Shadowcast result for one light, stored in light-local world space so it stays
+ * valid while the light sits in the same tile no matter where the camera is.
+ * A cell is set when the tile can be seen from the light's tile within the cast radius.
+ */
+public final class VisibilityGrid {
+    private int originX;
+    private int originY;
+    private int radius;
+    private int side;
+    private byte[] cells = new byte[0];
+    private boolean valid;
+    private int generation;
+    long lastUsedFrame = -1L;
+
+    /**
+     * clear the grid and key it to a new light tile and radius
+     */
+    public void reset(int originX, int originY, int radius) {
+        this.originX = originX;
+        this.originY = originY;
+        this.radius = Math.max(0, radius);
+        this.side = this.radius * 2 + 1;
+        int required = side * side;
+        if (cells.length < required) {
+            cells = new byte[required];
+        } else {
+            Arrays.fill(cells, 0, required, (byte) 0);
+        }
+        valid = true;
+        generation++;
+    }
+
+    public boolean matches(int tileX, int tileY, int castRadius) {
+        return valid && originX == tileX && originY == tileY && radius == castRadius;
+    }
+
+    public void invalidate() {
+        valid = false;
+    }
+
+    public int originX() {
+        return originX;
+    }
+
+    public int originY() {
+        return originY;
+    }
+
+    public int radius() {
+        return radius;
+    }
+
+    /**
+     * bumped on every reset so holders can tell a reused grid from the one they saw
+     */
+    public int generation() {
+        return generation;
+    }
+
+    /**
+     * whether the cast could have read any tile in the inclusive rectangle
+     */
+    public boolean overlaps(int minX, int minY, int maxX, int maxY) {
+        return valid
+                && originX - radius <= maxX && originX + radius >= minX
+                && originY - radius <= maxY && originY + radius >= minY;
+    }
+
+    public boolean isVisible(int worldX, int worldY) {
+        int lx = worldX - originX + radius;
+        int ly = worldY - originY + radius;
+        if (lx < 0 || ly < 0 || lx >= side || ly >= side) {
+            return false;
+        }
+        return cells[ly * side + lx] != 0;
+    }
+
+    void markVisible(int worldX, int worldY) {
+        int lx = worldX - originX + radius;
+        int ly = worldY - originY + radius;
+        if (lx < 0 || ly < 0 || lx >= side || ly >= side) {
+            return;
+        }
+        cells[ly * side + lx] = 1;
+    }
+}
@@ -0,0 +1,135 @@
+package com.untitledgame.utils;
+
+import java.util.Arrays;
+
+/**
+ * Runs a frame's queued jobs in priority order, a batch at a time, until a time budget is
+ * spent, leaving the rest for the caller to retry next frame. Each batch is sized from a
+ * running estimate of the cost per job to fill half of the budget left, so an estimate that
+ * runs low costs at most that half; the first batch always runs so the most urgent work is
+ * never starved. Jobs are plain ints the caller maps to its own state, so any per-frame
+ * refresh (light slices, map regions, path fields) can share it; use one instance per kind
+ * of work, since the cost estimate is per instance.
+ */
+public final class FrameBudgetScheduler {
+    /**
+     * run the jobs at sorted positions [from, to); look each one up with {@link #job(int)}
+     */
+    public interface Batch {
+        void run(int from, int to);
+    }
+
+    // weight of the newest batch in the cost per job estimate
+    private static final double COST_SMOOTHING = 0.25;
+
+    private final int minBatch;
+    private long budgetNanos;
+    // priority bits in the high word, job in the low word, so a sort orders by both
+    private long[] keys = new long[16];
+    private int count;
+    private int completed;
+    private double nanosPerJob;
+    private long lastRunNanos;
+
+    /**
+     * @param minBatch smallest batch to hand out, e.g. the worker count so every worker gets a job
+     */
+    public FrameBudgetScheduler(long budgetNanos, int minBatch) {
+        this.budgetNanos = Math.max(0L, budgetNanos);
+        this.minBatch = Math.max(1, minBatch);
+    }
+
+    public long budgetNanos() {
+        return budgetNanos;
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = Math.max(0L, budgetNanos);
+    }
+
+    /**
+     * forget the previous frame's queue
+     */
+    public void clear() {
+        count = 0;
+        completed = 0;
+    }
+
+    /**
+     * queue a job; lower priorities run first, equal ones in job order
+     * @param job non-negative id the caller maps back to its own work
+     * @param priority zero or more
+     */
+    public void add(int job, float priority) {
+        if (job < 0 || !(priority >= 0f)) {
+            throw new IllegalArgumentException("Bad job " + job + " or priority " + priority);
+        }
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+        }
+        // non-negative floats sort the same as their bit patterns
+        keys[count++] = ((long) Float.floatToIntBits(priority) << 32) | job;
+    }
+
+    /**
+     * run queued jobs, most urgent first, until the budget is spent
+     * @return jobs run; positions from there to {@link #queued()} were deferred
+     */
+    public int run(Batch batch) {
+        Arrays.sort(keys, 0, count);
+        long start = System.nanoTime();
+        int done = 0;
+        while (done < count) {
+            long elapsed = System.nanoTime() - start;
+            if (done > 0 && elapsed >= budgetNanos) {
+                break;
+            }
+            int end = Math.min(count, done + batchSize(budgetNanos - elapsed));
+            long batchStart = System.nanoTime();
+            batch.run(done, end);
+            observe(end - done, System.nanoTime() - batchStart);
+            done = end;
+        }
+        completed = done;
+        lastRunNanos = System.nanoTime() - start;
+        return done;
+    }
+
+    /**
+     * job id at a sorted position; valid after {@link #run} until the next {@link #clear}
+     */
+    public int job(int position) {
+        return (int) keys[position];
+    }
+
+    public int queued() {
+        return count;
+    }
+
+    public int completed() {
+        return completed;
+    }
+
+    public int deferred() {
+        return count - completed;
+    }
+
+    public long lastRunNanos() {
+        return lastRunNanos;
+    }
+
+    // as many whole multiples of minBatch as the estimate fits in half of what is left
+    private int batchSize(long remainingNanos) {
+        if (nanosPerJob <= 0.0 || remainingNanos <= 0L) {
+            return minBatch;
+        }
+        long fit = (long) (remainingNanos / 2.0 / nanosPerJob);
+        long batches = Math.max(1L, fit / minBatch);
+        return (int) Math.min(Integer.MAX_VALUE, batches * minBatch);
+    }
+
+    private void observe(int jobs, long nanos) {
+        double cost = (double) nanos / jobs;
+        nanosPerJob = nanosPerJob <= 0.0 ? cost : nanosPerJob + (cost - nanosPerJob) * COST_SMOOTHING;
+    }
+}
@@ -0,0 +1,53 @@
+package com.untitledgame.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free hand-off of whole values from one writer thread to one reader thread.
+ * The writer fills {@link #back()} and calls {@link #publish()}; the reader calls {@link #acquire()}
+ * and keeps the returned value until its next acquire. Neither side ever waits on the other,
+ * and the reader always sees the newest published value, skipping any it was too slow to read.
+ */
+public final class TripleBuffer<T> {
+    // set on the shared slot when it holds a publish the reader has not taken yet
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final Object[] slots = new Object[3];
+    private final AtomicInteger shared = new AtomicInteger(1);
+    private int back = 2;
+    private int front;
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = factory.get();
+        }
+    }
+
+    /**
+     * the writer's slot; only the writer thread may touch it
+     */
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) slots[back];
+    }
+
+    /**
+     * make the back slot the newest value and take the old shared slot as the next back slot
+     */
+    public void publish() {
+        back = shared.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * the newest published value, or the previous one again if nothing new was published
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((shared.get() & FRESH) != 0) {
+            front = shared.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) slots[front];
+    }
+}
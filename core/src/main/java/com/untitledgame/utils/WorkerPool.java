@@ -0,0 +1,159 @@
+package com.untitledgame.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed set of daemon threads that split an indexed batch of work into contiguous
+ * ranges, one per worker. The calling thread runs the first range itself and waits
+ * for the rest, so a pool of one worker runs everything inline. Each thread owns one
+ * reusable job slot and is woken by parking rather than through an executor queue, so
+ * a batch allocates nothing. Batches are run by one caller at a time.
+ */
+public final class WorkerPool implements AutoCloseable {
+    /**
+     * work for indices [start, end); worker is a stable id in [0, workers()) for per-thread scratch
+     */
+    public interface RangeTask {
+        void run(int worker, int start, int end);
+    }
+
+    private final int workers;
+    // index 0 is the caller's own range and has no thread
+    private final Worker[] threads;
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile Thread caller;
+    private volatile boolean closed;
+
+    public WorkerPool(String name, int workers) {
+        this.workers = Math.max(1, workers);
+        this.threads = new Worker[this.workers];
+        for (int worker = 1; worker < this.workers; worker++) {
+            threads[worker] = new Worker(worker);
+            Thread thread = new Thread(threads[worker], name + "-" + worker);
+            thread.setDaemon(true);
+            threads[worker].thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * one worker per core, leaving one for the caller's other work, capped at the given limit
+     */
+    public static int defaultWorkerCount(int limit) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(limit, cores - 1));
+    }
+
+    public int workers() {
+        return workers;
+    }
+
+    /**
+     * run the task over [0, count) and return once every range is done
+     */
+    public void run(int count, RangeTask task) {
+        if (count <= 0) {
+            return;
+        }
+        int active = Math.min(workers, count);
+        if (active == 1) {
+            task.run(0, 0, count);
+            return;
+        }
+        if (closed) {
+            throw new IllegalStateException("Worker pool is closed");
+        }
+        caller = Thread.currentThread();
+        remaining.set(active - 1);
+        for (int worker = 1; worker < active; worker++) {
+            threads[worker].assign(task, rangeStart(worker, active, count), rangeStart(worker + 1, active, count));
+        }
+        RuntimeException callerFailure = null;
+        try {
+            task.run(0, 0, rangeStart(1, active, count));
+        } catch (RuntimeException e) {
+            callerFailure = e;
+        }
+        awaitWorkers();
+        Throwable workerFailure = failure.getAndSet(null);
+        if (callerFailure != null) {
+            throw callerFailure;
+        }
+        if (workerFailure != null) {
+            throw new IllegalStateException("Worker failed", workerFailure);
+        }
+    }
+
+    // the workers hold references to the task and ranges, so wait even when interrupted
+    private void awaitWorkers() {
+        boolean interrupted = false;
+        while (remaining.get() > 0) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int rangeStart(int worker, int active, int count) {
+        return (int) ((long) count * worker / active);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (int worker = 1; worker < workers; worker++) {
+            LockSupport.unpark(threads[worker].thread);
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final int id;
+        private Thread thread;
+        private RangeTask task;
+        private int start;
+        private int end;
+        // bumped by the caller after the fields above are written; publishes them to the worker
+        private volatile int round;
+        private int seen;
+
+        private Worker(int id) {
+            this.id = id;
+        }
+
+        void assign(RangeTask task, int start, int end) {
+            this.task = task;
+            this.start = start;
+            this.end = end;
+            round = round + 1;
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                int next = round;
+                if (next == seen) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                seen = next;
+                try {
+                    task.run(id, start, end);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+                task = null;
+                if (remaining.decrementAndGet() == 0) {
+                    LockSupport.unpark(caller);
+                }
+            }
+        }
+    }
+}
@@ -9,85 +9,90 @@ uniform vec2 u_viewOrigin;
 
 uniform float u_falloff;
 uniform float u_ambient;
-uniform int u_lightCount;
 
-const int MAX_LIGHTS = 16;
-
-uniform vec2  u_lightPos[MAX_LIGHTS];
-uniform vec3  u_lightColor[MAX_LIGHTS];
-uniform float u_lightIntensity[MAX_LIGHTS];
-uniform float u_lightRadius[MAX_LIGHTS];
+// light data: one column per light, rows = position, color, radius/intensity
+uniform sampler2D u_lightData;
+// per screen tile light lists, LIGHTS_PER_TILE texels per tile, ended by a zero alpha
+uniform sampler2D u_tileLights;
+uniform float u_lightCapacity;
+uniform float u_tileSize;
+uniform vec2 u_tileCount;
+// occlusion slices are laid out as a columns x rows atlas
+uniform vec2 u_occlusionGrid;
+
+// must match LightTileBinner
+const int LIGHTS_PER_TILE = 16;
+const float DATA_ROWS = 3.0;
+const float POSITION_SCALE = 64.0;
+const float POSITION_BIAS = 128.0;
+const float RADIUS_SCALE = 256.0;
+const float INTENSITY_SCALE = 256.0;
 
 varying vec4 v_color;
 varying vec2 v_texCoords;
 
-/* 5x5 Gaussian kernel */
-const float gaussianKernel[25] = float[25](
-1.0,  4.0,  7.0,  4.0, 1.0,
-4.0, 16.0, 26.0, 16.0, 4.0,
-7.0, 26.0, 41.0, 26.0, 7.0,
-4.0, 16.0, 26.0, 16.0, 4.0,
-1.0,  4.0,  7.0,  4.0, 1.0
-);
+float decodeFixed(vec2 hiLo) {
+    return floor(hiLo.x * 255.0 + 0.5) * 256.0 + floor(hiLo.y * 255.0 + 0.5);
+}
 
-const float gaussianSum = 273.0;
+vec4 fetchLight(float index, float row) {
+    return texture2D(u_lightData, vec2((index + 0.5) / u_lightCapacity, (row + 0.5) / DATA_ROWS));
+}
 
 void main() {
 
     // - Screen -> world position -
     vec2 pixel = v_texCoords * u_viewSize;
+    vec2 local = vec2(pixel.x, u_viewSize.y - pixel.y);
 
-    vec2 worldPos = vec2(
-    u_viewOrigin.x + pixel.x + u_cameraOffset.x,
-    u_viewOrigin.y + (u_viewSize.y - pixel.y) + u_cameraOffset.y
-    );
+    vec2 worldPos = u_viewOrigin + local + u_cameraOffset;
 
     // - Base lighting -
     vec3 totalLight = vec3(u_ambient);
 
-    // Precompute once
-    float invMaxLights = 1.0 / float(MAX_LIGHTS);
-    vec2 blurStep = vec2(
-    invMaxLights / u_viewSize.x,
-    1.0 / u_viewSize.y
-    );
+    // slices arrive already blurred, so one filtered fetch per light;
+    // keep the bilinear footprint inside the slice so neighbouring lights never bleed in
+    vec2 halfTexel = 0.5 / u_viewSize;
+    vec2 sliceUV = clamp(v_texCoords, halfTexel, 1.0 - halfTexel);
 
     float falloffExp = max(u_falloff, 0.0001);
 
-    // - Light loop -
-    for (int i = 0; i < MAX_LIGHTS; ++i) {
-        if (i >= u_lightCount) break;
+    // - This pixel's screen tile -
+    vec2 tile = clamp(floor(local / u_tileSize), vec2(0.0), u_tileCount - 1.0);
+    float listWidth = u_tileCount.x * float(LIGHTS_PER_TILE);
+    float listV = (tile.y + 0.5) / u_tileCount.y;
+
+    // - Light loop over the tile's list -
+    for (int j = 0; j < LIGHTS_PER_TILE; ++j) {
+        vec4 entry = texture2D(u_tileLights, vec2((tile.x * float(LIGHTS_PER_TILE) + float(j) + 0.5) / listWidth, listV));
+        if (entry.a < 0.5) break;
+        float index = floor(entry.r * 255.0 + 0.5) + floor(entry.g * 255.0 + 0.5) * 256.0;
+
+        vec4 posData = fetchLight(index, 0.0);
+        vec3 color = fetchLight(index, 1.0).rgb;
+        vec4 shapeData = fetchLight(index, 2.0);
+        vec2 lightPos = u_viewOrigin
+                + vec2(decodeFixed(posData.rg), decodeFixed(posData.ba)) / POSITION_SCALE - POSITION_BIAS;
+        float radius = decodeFixed(shapeData.rg) / RADIUS_SCALE;
+        float intensity = decodeFixed(shapeData.ba) / INTENSITY_SCALE;
 
         // UV into this light's occlusion slice
-        vec2 baseUV = vec2(
-        (v_texCoords.x + float(i)) * invMaxLights,
-        v_texCoords.y
-        );
-
-        //  Gaussian filtered visibility 
-        float visibility = 0.0;
-        int k = 0;
-
-        for (int y = -2; y <= 2; ++y) {
-            for (int x = -2; x <= 2; ++x) {
-                vec2 offset = vec2(float(x), float(y)) * blurStep;
-                visibility += texture2D(u_occlusionMap, baseUV + offset).a
-                * gaussianKernel[k++];
-            }
-        }
+        float column = mod(index, u_occlusionGrid.x);
+        float row = floor(index / u_occlusionGrid.x);
+        vec2 occlusionUV = (vec2(column, row) + sliceUV) / u_occlusionGrid;
 
-        visibility *= (1.0 / gaussianSum);
+        float visibility = texture2D(u_occlusionMap, occlusionUV).a;
 
         //  Distance attenuation 
-        float dist = distance(worldPos, u_lightPos[i]);
-        float normDist = clamp(dist / u_lightRadius[i], 0.0, 1.0);
+        float dist = distance(worldPos, lightPos);
+        float normDist = clamp(dist / radius, 0.0, 1.0);
 
         float falloff = pow(normDist, falloffExp);
         float distanceLight = 1.0 - smoothstep(0.0, 1.0, falloff);
 
         //  Accumulate 
-        float strength = visibility * distanceLight * u_lightIntensity[i];
-        totalLight += u_lightColor[i] * strength;
+        float strength = visibility * distanceLight * intensity;
+        totalLight += color * strength;
     }
 
     // - Convert lighting -> alpha mask -
@@ -0,0 +1,152 @@
+#version 120
+
+uniform sampler2D u_texture;
+uniform sampler2D u_wallMask;
+
+uniform vec2 u_cameraOffset;
+uniform vec2 u_viewSize;
+uniform vec2 u_viewOrigin;
+uniform vec2 u_worldSize;
+
+uniform float u_falloff;
+uniform float u_ambient;
+
+// same light data and tile lists as lightmask.frag
+uniform sampler2D u_lightData;
+uniform sampler2D u_tileLights;
+uniform float u_lightCapacity;
+uniform float u_tileSize;
+uniform vec2 u_tileCount;
+
+// must match LightTileBinner
+const int LIGHTS_PER_TILE = 16;
+const float DATA_ROWS = 3.0;
+const float POSITION_SCALE = 64.0;
+const float POSITION_BIAS = 128.0;
+const float RADIUS_SCALE = 256.0;
+const float INTENSITY_SCALE = 256.0;
+// enough grid steps to cross a light of radius 32 tiles
+const int MAX_STEPS = 64;
+const float EDGE_FALLOFF_WIDTH = 1.5;
+
+varying vec4 v_color;
+varying vec2 v_texCoords;
+
+float decodeFixed(vec2 hiLo) {
+    return floor(hiLo.x * 255.0 + 0.5) * 256.0 + floor(hiLo.y * 255.0 + 0.5);
+}
+
+vec4 fetchLight(float index, float row) {
+    return texture2D(u_lightData, vec2((index + 0.5) / u_lightCapacity, (row + 0.5) / DATA_ROWS));
+}
+
+bool isBlocking(vec2 cell) {
+    if (cell.x < 0.0 || cell.y < 0.0 || cell.x >= u_worldSize.x || cell.y >= u_worldSize.y) {
+        return true;
+    }
+    return texture2D(u_wallMask, (cell + 0.5) / u_worldSize).a > 0.5;
+}
+
+/* walk the tile grid from the light to the target tile; walls block everything behind them
+   but are lit themselves, like the CPU shadowcaster */
+float traceVisibility(vec2 lightPos, vec2 target) {
+    vec2 cell = floor(lightPos);
+    vec2 targetCell = floor(target);
+    vec2 dir = target - lightPos;
+    vec2 stepDir = vec2(dir.x >= 0.0 ? 1.0 : -1.0, dir.y >= 0.0 ? 1.0 : -1.0);
+    vec2 invDir = vec2(
+    abs(dir.x) > 1e-5 ? 1.0 / abs(dir.x) : 1e9,
+    abs(dir.y) > 1e-5 ? 1.0 / abs(dir.y) : 1e9
+    );
+    vec2 firstEdge = vec2(
+    stepDir.x > 0.0 ? cell.x + 1.0 - lightPos.x : lightPos.x - cell.x,
+    stepDir.y > 0.0 ? cell.y + 1.0 - lightPos.y : lightPos.y - cell.y
+    );
+    vec2 tMax = firstEdge * invDir;
+
+    for (int i = 0; i < MAX_STEPS; ++i) {
+        if (cell == targetCell) {
+            return 1.0;
+        }
+        if (tMax.x < tMax.y) {
+            cell.x += stepDir.x;
+            tMax.x += invDir.x;
+        } else {
+            cell.y += stepDir.y;
+            tMax.y += invDir.y;
+        }
+        if (cell == targetCell) {
+            return 1.0;
+        }
+        if (isBlocking(cell)) {
+            return 0.0;
+        }
+    }
+    return 0.0;
+}
+
+void main() {
+
+    // - Screen -> world position -
+    vec2 pixel = v_texCoords * u_viewSize;
+    vec2 local = vec2(pixel.x, u_viewSize.y - pixel.y);
+
+    vec2 worldPos = u_viewOrigin + local + u_cameraOffset;
+
+    // - Base lighting -
+    vec3 totalLight = vec3(u_ambient);
+    float falloffExp = max(u_falloff, 0.0001);
+    vec2 tileCenter = floor(worldPos) + 0.5;
+
+    // - This pixel's screen tile -
+    vec2 tile = clamp(floor(local / u_tileSize), vec2(0.0), u_tileCount - 1.0);
+    float listWidth = u_tileCount.x * float(LIGHTS_PER_TILE);
+    float listV = (tile.y + 0.5) / u_tileCount.y;
+
+    // - Light loop over the tile's list -
+    for (int j = 0; j < LIGHTS_PER_TILE; ++j) {
+        vec4 entry = texture2D(u_tileLights, vec2((tile.x * float(LIGHTS_PER_TILE) + float(j) + 0.5) / listWidth, listV));
+        if (entry.a < 0.5) break;
+        float index = floor(entry.r * 255.0 + 0.5) + floor(entry.g * 255.0 + 0.5) * 256.0;
+
+        vec4 posData = fetchLight(index, 0.0);
+        vec3 color = fetchLight(index, 1.0).rgb;
+        vec4 shapeData = fetchLight(index, 2.0);
+        vec2 lightPos = u_viewOrigin
+                + vec2(decodeFixed(posData.rg), decodeFixed(posData.ba)) / POSITION_SCALE - POSITION_BIAS;
+        float radius = decodeFixed(shapeData.rg) / RADIUS_SCALE;
+        float intensity = decodeFixed(shapeData.ba) / INTENSITY_SCALE;
+
+        float dist = distance(worldPos, lightPos);
+        if (dist >= radius + 1.0) {
+            continue;
+        }
+
+        //  Occlusion from the wall mask, faded at the edge like the CPU slices
+        float visibility = traceVisibility(lightPos, worldPos);
+        float edgeDist = distance(tileCenter, lightPos);
+        float edgeFade = clamp((radius - edgeDist) / EDGE_FALLOFF_WIDTH, 0.0, 1.0);
+        visibility *= min(1.0, edgeFade * intensity);
+
+        //  Distance attenuation
+        float normDist = clamp(dist / radius, 0.0, 1.0);
+
+        float falloff = pow(normDist, falloffExp);
+        float distanceLight = 1.0 - smoothstep(0.0, 1.0, falloff);
+
+        //  Accumulate
+        float strength = visibility * distanceLight * intensity;
+        totalLight += color * strength;
+    }
+
+    // - Convert lighting -> alpha mask -
+    float brightness = clamp(
+    max(totalLight.r, max(totalLight.g, totalLight.b)),
+    0.0, 1.0
+    );
+
+    float alpha = 1.0 - brightness;
+
+    vec4 base = texture2D(u_texture, v_texCoords) * v_color;
+    gl_FragColor = vec4(base.rgb, alpha);
+}
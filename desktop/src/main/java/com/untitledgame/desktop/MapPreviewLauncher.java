@@ -8,16 +8,26 @@ import com.untitledgame.debug.MapPreviewApp;
  * Standalone launcher for the map previewer. Usage:
  * <pre>
  *   ./gradlew desktop:run -PmainClass=com.untitledgame.desktop.MapPreviewLauncher --args="12345"
+ *   ./gradlew desktop:run -PmainClass=com.untitledgame.desktop.MapPreviewLauncher --args="12345 2000 40 20"
  * </pre>
- * If no seed is provided, a random seed is used.
+ * If no seed is provided, a random seed is used. The optional frame, NPC and light counts
+ * run the fly-through benchmark with vsync and the frame cap off.
  */
 public class MapPreviewLauncher {
     public static void main(String[] arg) {
         long seed = arg.length > 0 ? parseSeed(arg[0]) : System.currentTimeMillis();
+        int frames = arg.length > 1 ? Integer.parseInt(arg[1]) : 0;
+        int npcs = arg.length > 2 ? Integer.parseInt(arg[2]) : 0;
+        int lights = arg.length > 3 ? Integer.parseInt(arg[3]) : 0;
         Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
-        config.setTitle("Map Preview");
+        config.setTitle(frames > 0 ? "Map Preview (fly-through)" : "Map Preview");
         config.setWindowedMode(800, 600);
-        new Lwjgl3Application(new MapPreviewApp(seed), config);
+        if (frames > 0) {
+            // measure the renderer, not the display's refresh rate
+            config.useVsync(false);
+            config.setForegroundFPS(0);
+        }
+        new Lwjgl3Application(new MapPreviewApp(seed, frames, npcs, lights), config);
     }
 
     private static long parseSeed(String raw) {
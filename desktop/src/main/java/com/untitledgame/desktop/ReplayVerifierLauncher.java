@@ -0,0 +1,29 @@
+package com.untitledgame.desktop;
+
+import com.untitledgame.debug.ReplayVerifier;
+import com.untitledgame.logic.StateChecksumLog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command line entry for comparing two checksum logs. Usage:
+ * <pre>
+ *   ./gradlew desktop:run -PmainClass=com.untitledgame.desktop.ReplayVerifierLauncher --args="expected.txt actual.txt"
+ * </pre>
+ * Exits with status 1 when the runs diverge.
+ */
+public class ReplayVerifierLauncher {
+    public static void main(String[] arg) throws IOException {
+        if (arg.length < 2) {
+            System.err.println("Usage: ReplayVerifierLauncher <expected checksums> <actual checksums>");
+            System.exit(2);
+            return;
+        }
+        StateChecksumLog.Divergence divergence = ReplayVerifier.verify(Path.of(arg[0]), Path.of(arg[1]));
+        System.out.println(ReplayVerifier.describe(divergence));
+        if (divergence != null) {
+            System.exit(1);
+        }
+    }
+}